@@ -0,0 +1,53 @@
+#!/usr/bin/env python3
+"""Side-by-side comparison of two JMH JSON reports written by run.sh.
+
+    ./compare.py results/<old>.json results/<new>.json [--threshold 10]
+
+Prints each benchmark's score in both runs and the change. Exits with 1 if any
+benchmark got slower (time modes) or lower (throughput modes) by more than the
+threshold percentage, so it can gate a CI job.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        return {
+            (r["benchmark"].rsplit(".", 2)[-2] + "." + r["benchmark"].rsplit(".", 1)[-1], r["mode"]): r
+            for r in json.load(f)
+        }
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("old")
+    parser.add_argument("new")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="regression threshold in percent (default 10)")
+    args = parser.parse_args()
+
+    old, new = load(args.old), load(args.new)
+    regressions = 0
+    print(f"{'Benchmark':<48} {'Mode':<6} {'Old':>12} {'New':>12} {'Unit':<8} {'Change':>8}")
+    for key in sorted(set(old) | set(new)):
+        name, mode = key
+        before, after = old.get(key), new.get(key)
+        if before is None or after is None:
+            only = after if before is None else before
+            side = "new" if before is None else "old"
+            print(f"{name:<48} {mode:<6} {'(only in ' + side + ')':>25} {only['primaryMetric']['scoreUnit']:<8}")
+            continue
+        b, a = before["primaryMetric"]["score"], after["primaryMetric"]["score"]
+        change = (a - b) / b * 100 if b else 0.0
+        # Lower is better for time modes, higher for throughput
+        worse = -change if mode == "thrpt" else change
+        flag = " <--" if worse > args.threshold else ""
+        regressions += bool(flag)
+        print(f"{name:<48} {mode:<6} {b:>12.3f} {a:>12.3f} {after['primaryMetric']['scoreUnit']:<8} {change:>+7.1f}%{flag}")
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
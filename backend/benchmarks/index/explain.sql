@@ -0,0 +1,50 @@
+-- Query plans for the statements timed in queries.sql, printed by run.sh
+-- before and after V3 so the chosen index can be checked alongside the timings.
+
+SELECT 'findComplaintsForEscalation' AS query_name;
+EXPLAIN SELECT c.* FROM complaints c WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND c.escalation_level = 0 AND c.next_escalation_time <= NOW(6) - INTERVAL 1 DAY;
+
+SELECT 'findEscalationCandidates' AS query_name;
+EXPLAIN SELECT c.id, c.title, c.priority, c.escalation_level, u.email, u.username FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND c.escalation_level = 0 AND c.next_escalation_time <= NOW(6) AND c.id > 0 ORDER BY c.id LIMIT 500;
+
+SELECT 'findEscalationDeadlines' AS query_name;
+EXPLAIN SELECT c.id, c.next_escalation_time FROM complaints c WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND c.escalation_level = 0 AND c.next_escalation_time > NOW(6) AND c.next_escalation_time <= NOW(6) + INTERVAL 7 DAY AND c.id > 0 ORDER BY c.id LIMIT 1000;
+
+SELECT 'countEscalated' AS query_name;
+EXPLAIN SELECT COUNT(*) FROM complaints c WHERE c.escalation_level > 0;
+
+SELECT 'findByUserId' AS query_name;
+EXPLAIN SELECT c.* FROM complaints c WHERE c.user_id = (SELECT MIN(id) + 17 FROM users WHERE username LIKE 'bench%');
+
+SELECT 'findByAssignedTo' AS query_name;
+EXPLAIN SELECT c.* FROM complaints c WHERE c.assigned_to = 'agent7';
+
+SELECT 'findByStatus' AS query_name;
+EXPLAIN SELECT c.* FROM complaints c WHERE c.status = 'UNDER_REVIEW';
+
+SELECT 'findByDateRange' AS query_name;
+EXPLAIN SELECT c.* FROM complaints c WHERE c.created_at >= NOW(6) - INTERVAL 7 DAY AND c.created_at <= NOW(6);
+
+SELECT 'countByStatus' AS query_name;
+EXPLAIN SELECT COUNT(*) FROM complaints c WHERE c.status = 'OPEN';
+
+SELECT 'countGroupedByStatus' AS query_name;
+EXPLAIN SELECT c.status, COUNT(*) FROM complaints c GROUP BY c.status;
+
+SELECT 'countGroupedByPriority' AS query_name;
+EXPLAIN SELECT c.priority, COUNT(*) FROM complaints c GROUP BY c.priority;
+
+SELECT 'countCreatedAndResolvedPerDay' AS query_name;
+EXPLAIN SELECT t.bucket_day, SUM(t.created_count), SUM(t.resolved_count) FROM (SELECT CAST(created_at AS DATE) AS bucket_day, 1 AS created_count, 0 AS resolved_count FROM complaints WHERE created_at >= NOW(6) - INTERVAL 30 DAY AND created_at < NOW(6) UNION ALL SELECT CAST(resolved_at AS DATE), 0, 1 FROM complaints WHERE resolved_at >= NOW(6) - INTERVAL 30 DAY AND resolved_at < NOW(6)) t GROUP BY t.bucket_day;
+
+SELECT 'findPageAfter(status)' AS query_name;
+EXPLAIN SELECT c.*, u.name, u.username, u.email FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.status = 'IN_PROGRESS' ORDER BY c.created_at DESC, c.id DESC LIMIT 50;
+
+SELECT 'findPageAfter(category,cursor)' AS query_name;
+EXPLAIN SELECT c.*, u.name, u.username, u.email FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.category = 'NETWORK' AND (c.created_at < NOW(6) - INTERVAL 90 DAY) ORDER BY c.created_at DESC, c.id DESC LIMIT 50;
+
+SELECT 'findEscalatedDtos' AS query_name;
+EXPLAIN SELECT c.*, u.name FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.escalated_at IS NOT NULL;
+
+SELECT 'findHistoryByComplaintId' AS query_name;
+EXPLAIN SELECT h.* FROM escalation_history h WHERE h.complaint_id = (SELECT MAX(complaint_id) FROM escalation_history) ORDER BY h.escalated_at DESC;
@@ -0,0 +1,97 @@
+-- Times the ComplaintRepository / EscalationHistoryRepository queries as
+-- MySQL sees them (JPQL translated by hand, parameters inlined). Each query
+-- runs @iterations times; results go to bench_result under @phase.
+
+CREATE TABLE IF NOT EXISTS bench_result (
+    phase VARCHAR(20) NOT NULL,
+    query_name VARCHAR(64) NOT NULL,
+    iterations INT NOT NULL,
+    avg_ms DECIMAL(12, 3) NOT NULL,
+    min_ms DECIMAL(12, 3) NOT NULL,
+    max_ms DECIMAL(12, 3) NOT NULL,
+    result_rows BIGINT,
+    PRIMARY KEY (phase, query_name)
+);
+
+DROP PROCEDURE IF EXISTS bench_query;
+DELIMITER //
+CREATE PROCEDURE bench_query(IN p_phase VARCHAR(20), IN p_name VARCHAR(64), IN p_sql TEXT, IN p_iterations INT)
+BEGIN
+    DECLARE i INT DEFAULT 0;
+    DECLARE started DATETIME(6);
+    DECLARE elapsed BIGINT;
+    DECLARE total BIGINT DEFAULT 0;
+    DECLARE fastest BIGINT DEFAULT NULL;
+    DECLARE slowest BIGINT DEFAULT 0;
+
+    -- Wrapped in COUNT(*) over a materialized derived table, so every row is
+    -- fetched as the application would but none is sent to the client
+    SET @bench_sql = CONCAT('SELECT /*+ NO_MERGE(q) */ COUNT(*) INTO @bench_rows FROM (', p_sql, ') q');
+    PREPARE stmt FROM @bench_sql;
+    EXECUTE stmt;  -- warm-up
+    WHILE i < p_iterations DO
+        SET started = NOW(6);
+        EXECUTE stmt;
+        SET elapsed = TIMESTAMPDIFF(MICROSECOND, started, NOW(6));
+        SET total = total + elapsed;
+        SET fastest = IF(fastest IS NULL, elapsed, LEAST(fastest, elapsed));
+        SET slowest = GREATEST(slowest, elapsed);
+        SET i = i + 1;
+    END WHILE;
+    DEALLOCATE PREPARE stmt;
+
+    REPLACE INTO bench_result VALUES (p_phase, p_name, p_iterations,
+        total / p_iterations / 1000, fastest / 1000, slowest / 1000, @bench_rows);
+END //
+DELIMITER ;
+
+SET @iterations = COALESCE(@iterations, 20);
+
+CALL bench_query(@phase, 'findComplaintsForEscalation',
+    'SELECT c.* FROM complaints c WHERE c.status IN (''OPEN'', ''IN_PROGRESS'', ''NEW'', ''UNDER_REVIEW'') AND c.escalation_level = 0 AND c.next_escalation_time <= NOW(6) - INTERVAL 1 DAY',
+    @iterations);
+CALL bench_query(@phase, 'findEscalationCandidates',
+    'SELECT c.id, c.title, c.priority, c.escalation_level, u.email, u.username FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.status IN (''OPEN'', ''IN_PROGRESS'', ''NEW'', ''UNDER_REVIEW'') AND c.escalation_level = 0 AND c.next_escalation_time <= NOW(6) AND c.id > 0 ORDER BY c.id LIMIT 500',
+    @iterations);
+CALL bench_query(@phase, 'findEscalationDeadlines',
+    'SELECT c.id, c.next_escalation_time FROM complaints c WHERE c.status IN (''OPEN'', ''IN_PROGRESS'', ''NEW'', ''UNDER_REVIEW'') AND c.escalation_level = 0 AND c.next_escalation_time > NOW(6) AND c.next_escalation_time <= NOW(6) + INTERVAL 7 DAY AND c.id > 0 ORDER BY c.id LIMIT 1000',
+    @iterations);
+CALL bench_query(@phase, 'countEscalated',
+    'SELECT COUNT(*) FROM complaints c WHERE c.escalation_level > 0',
+    @iterations);
+CALL bench_query(@phase, 'findByUserId',
+    'SELECT c.* FROM complaints c WHERE c.user_id = (SELECT MIN(id) + 17 FROM users WHERE username LIKE ''bench%'')',
+    @iterations);
+CALL bench_query(@phase, 'findByAssignedTo',
+    'SELECT c.* FROM complaints c WHERE c.assigned_to = ''agent7''',
+    @iterations);
+CALL bench_query(@phase, 'findByStatus',
+    'SELECT c.* FROM complaints c WHERE c.status = ''UNDER_REVIEW''',
+    @iterations);
+CALL bench_query(@phase, 'findByDateRange',
+    'SELECT c.* FROM complaints c WHERE c.created_at >= NOW(6) - INTERVAL 7 DAY AND c.created_at <= NOW(6)',
+    @iterations);
+CALL bench_query(@phase, 'countByStatus',
+    'SELECT COUNT(*) FROM complaints c WHERE c.status = ''OPEN''',
+    @iterations);
+CALL bench_query(@phase, 'countGroupedByStatus',
+    'SELECT c.status, COUNT(*) FROM complaints c GROUP BY c.status',
+    @iterations);
+CALL bench_query(@phase, 'countGroupedByPriority',
+    'SELECT c.priority, COUNT(*) FROM complaints c GROUP BY c.priority',
+    @iterations);
+CALL bench_query(@phase, 'countCreatedAndResolvedPerDay',
+    'SELECT t.bucket_day, SUM(t.created_count), SUM(t.resolved_count) FROM (SELECT CAST(created_at AS DATE) AS bucket_day, 1 AS created_count, 0 AS resolved_count FROM complaints WHERE created_at >= NOW(6) - INTERVAL 30 DAY AND created_at < NOW(6) UNION ALL SELECT CAST(resolved_at AS DATE), 0, 1 FROM complaints WHERE resolved_at >= NOW(6) - INTERVAL 30 DAY AND resolved_at < NOW(6)) t GROUP BY t.bucket_day',
+    @iterations);
+CALL bench_query(@phase, 'findPageAfter(status)',
+    'SELECT c.*, u.name, u.username, u.email FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.status = ''IN_PROGRESS'' ORDER BY c.created_at DESC, c.id DESC LIMIT 50',
+    @iterations);
+CALL bench_query(@phase, 'findPageAfter(category,cursor)',
+    'SELECT c.*, u.name, u.username, u.email FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.category = ''NETWORK'' AND (c.created_at < NOW(6) - INTERVAL 90 DAY) ORDER BY c.created_at DESC, c.id DESC LIMIT 50',
+    @iterations);
+CALL bench_query(@phase, 'findEscalatedDtos',
+    'SELECT c.*, u.name FROM complaints c JOIN users u ON u.id = c.user_id WHERE c.escalated_at IS NOT NULL',
+    @iterations);
+CALL bench_query(@phase, 'findHistoryByComplaintId',
+    'SELECT h.* FROM escalation_history h WHERE h.complaint_id = (SELECT MAX(complaint_id) FROM escalation_history) ORDER BY h.escalated_at DESC',
+    @iterations);
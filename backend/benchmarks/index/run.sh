@@ -0,0 +1,60 @@
+#!/bin/bash
+# Index benchmark: seeds a scratch MySQL database and times the repository
+# queries before and after V3__complaint_query_indexes.sql.
+#
+#   MYSQL_HOST=localhost MYSQL_USER=root MYSQL_PASSWORD=... ./run.sh [rows] [iterations]
+#
+# The database named by BENCH_DB (default grievance_index_bench) is dropped
+# and recreated. Seeding 1M rows takes a few minutes. The plans of the timed
+# queries go to plans-before.txt and plans-after.txt in PLANS_DIR (default
+# the current directory).
+set -euo pipefail
+
+ROWS=${1:-1000000}
+ITERATIONS=${2:-20}
+DB=${BENCH_DB:-grievance_index_bench}
+HERE=$(cd "$(dirname "$0")" && pwd)
+MIGRATIONS="$HERE/../../src/main/resources/db/migration"
+PLANS_DIR=${PLANS_DIR:-.}
+
+mysql_cmd() {
+    mysql -h "${MYSQL_HOST:-localhost}" -P "${MYSQL_PORT:-3306}" -u "${MYSQL_USER:-root}" \
+        ${MYSQL_PASSWORD:+-p"$MYSQL_PASSWORD"} --table "$@"
+}
+
+elapsed() {
+    local started=$1
+    echo "$(( $(date +%s) - started )) s"
+}
+
+echo "Creating $DB from V1 and V2"
+mysql_cmd -e "DROP DATABASE IF EXISTS $DB; CREATE DATABASE $DB CHARACTER SET utf8mb4"
+cat "$MIGRATIONS"/V1__*.sql "$MIGRATIONS"/V2__*.sql | mysql_cmd "$DB"
+
+echo "Seeding $ROWS complaints"
+started=$(date +%s)
+{ echo "SET @rows = $ROWS;"; cat "$HERE/seed.sql"; } | mysql_cmd "$DB" > /dev/null
+echo "Seeded in $(elapsed "$started")"
+
+mysql_cmd "$DB" < "$HERE/explain.sql" > "$PLANS_DIR/plans-before.txt"
+echo "Timing queries without the V3 indexes ($ITERATIONS runs each)"
+{ echo "SET @phase = 'before', @iterations = $ITERATIONS;"; cat "$HERE/queries.sql"; } | mysql_cmd "$DB"
+
+echo "Applying V3"
+started=$(date +%s)
+mysql_cmd "$DB" < "$MIGRATIONS"/V3__*.sql
+mysql_cmd "$DB" -e "ANALYZE TABLE complaints, escalation_history" > /dev/null
+echo "Indexes built in $(elapsed "$started")"
+
+mysql_cmd "$DB" < "$HERE/explain.sql" > "$PLANS_DIR/plans-after.txt"
+echo "Timing queries with the V3 indexes"
+{ echo "SET @phase = 'after', @iterations = $ITERATIONS;"; cat "$HERE/queries.sql"; } | mysql_cmd "$DB"
+
+mysql_cmd "$DB" -e "
+SELECT b.query_name, b.result_rows AS \`rows\`,
+       b.avg_ms AS before_avg_ms, a.avg_ms AS after_avg_ms,
+       b.max_ms AS before_max_ms, a.max_ms AS after_max_ms,
+       ROUND(b.avg_ms / GREATEST(a.avg_ms, 0.001), 1) AS speedup
+FROM bench_result b JOIN bench_result a ON a.query_name = b.query_name AND a.phase = 'after'
+WHERE b.phase = 'before'
+ORDER BY speedup DESC"
@@ -0,0 +1,61 @@
+-- Seeds users and complaints for the index benchmark. Run against a schema
+-- created by the Flyway migrations. Row count comes from @rows (default 1M).
+
+SET @rows = COALESCE(@rows, 1000000);
+
+-- A plain table: MySQL cannot join a temporary table to itself
+DROP TABLE IF EXISTS bench_digits;
+CREATE TABLE bench_digits (d INT PRIMARY KEY);
+INSERT INTO bench_digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+-- 1000 complaint owners
+INSERT INTO users (name, username, email, password, role, created_at)
+SELECT CONCAT('Bench User ', n), CONCAT('bench', n), CONCAT('bench', n, '@example.com'),
+       '$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmar', 'USER', NOW(6)
+FROM (SELECT a.d * 100 + b.d * 10 + c.d AS n FROM bench_digits a, bench_digits b, bench_digits c) t;
+
+SET @first_user = (SELECT MIN(id) FROM users WHERE username LIKE 'bench%');
+
+-- Complaints created over the last year. Most are settled; about 15% are
+-- still open with a pending deadline, and 3% have already been escalated.
+INSERT INTO complaints (title, description, category, status, priority, user_id, assigned_to, department,
+                        created_at, updated_at, resolved_at, escalation_level, escalated_at, next_escalation_time)
+SELECT CONCAT('Benchmark complaint ', n),
+       'Seeded by benchmarks/index/seed.sql',
+       ELT(1 + n % 8, 'HARDWARE', 'SOFTWARE', 'NETWORK', 'ACCESS', 'EMAIL', 'PRINTER', 'ACCOUNT', 'OTHER'),
+       CASE WHEN n % 100 < 60 THEN 'RESOLVED'
+            WHEN n % 100 < 75 THEN 'CLOSED'
+            WHEN n % 100 < 82 THEN 'REJECTED'
+            WHEN n % 100 < 88 THEN 'OPEN'
+            WHEN n % 100 < 93 THEN 'IN_PROGRESS'
+            WHEN n % 100 < 97 THEN 'NEW'
+            ELSE 'UNDER_REVIEW' END,
+       ELT(1 + n % 3, 'LOW', 'MEDIUM', 'HIGH'),
+       @first_user + n % 1000,
+       IF(n % 5 = 0, NULL, CONCAT('agent', n % 50)),
+       ELT(1 + n % 4, 'IT', 'HR', 'FACILITIES', 'FINANCE'),
+       created,
+       created + INTERVAL 1 HOUR,
+       IF(n % 100 < 60, created + INTERVAL (n % 96) HOUR, NULL),
+       IF(n % 100 >= 97, 1 + n % 5, 0),
+       IF(n % 100 >= 97, created + INTERVAL 1 DAY, NULL),
+       created + INTERVAL 1 DAY
+FROM (
+    SELECT n, NOW(6) - INTERVAL (n * 31536000 DIV @rows) SECOND - INTERVAL (n % 1000) MICROSECOND AS created
+    FROM (SELECT a.d + b.d * 10 + c.d * 100 + e.d * 1000 + f.d * 10000 + g.d * 100000 AS n
+          FROM bench_digits a, bench_digits b, bench_digits c,
+               bench_digits e, bench_digits f, bench_digits g) seq
+    WHERE n < @rows
+) t;
+
+-- A few thousand deadlines in the near future, as the timing wheel would load them
+UPDATE complaints SET next_escalation_time = NOW(6) + INTERVAL (id % 168) HOUR
+WHERE status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND escalation_level = 0 AND id % 50 = 0;
+
+INSERT INTO escalation_history (complaint_id, escalation_level, escalated_from, escalated_to, escalated_at, reason, recipients)
+SELECT id, escalation_level, 'LEVEL0', 'LEVEL1_SUPPORT', escalated_at, 'benchmark', 'support@company.com'
+FROM complaints WHERE escalation_level > 0;
+
+DROP TABLE bench_digits;
+
+ANALYZE TABLE users, complaints, escalation_history;
@@ -0,0 +1,24 @@
+#!/bin/bash
+# JMH benchmarks for the backend hot paths. Builds the backend and this module,
+# runs the benchmarks and writes JMH's JSON report to results/<commit>.json.
+#
+#   ./run.sh                      # everything
+#   ./run.sh Jwt DtoMapping       # only benchmarks matching these patterns
+#   ./run.sh -f 2 -i 10 Jwt       # extra JMH options go through unchanged
+#
+# Compare two runs (e.g. before and after a change):
+#   ./compare.py results/<old>.json results/<new>.json
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+COMMIT=$(git -C "$HERE" rev-parse --short HEAD 2>/dev/null || echo local)
+if ! git -C "$HERE" diff --quiet HEAD -- .. 2>/dev/null; then
+    COMMIT="$COMMIT-dirty"
+fi
+
+(cd "$HERE/.." && mvn -B -q clean install -DskipTests)
+(cd "$HERE" && mvn -B -q package)
+
+mkdir -p "$HERE/results"
+java -jar "$HERE/target/benchmarks.jar" -rf json -rff "$HERE/results/$COMMIT.json" "$@"
+echo "Results: $HERE/results/$COMMIT.json"
@@ -0,0 +1,41 @@
+package com.grievance;
+
+import com.grievance.benchmarks.Fixtures;
+import com.grievance.dto.AnalyticsDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body of GET /api/analytics/export/csv for a 30-day dashboard
+ * (TestController.buildAnalyticsCsv, without the analytics queries).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsCsvBenchmark {
+
+    private AnalyticsDTO analytics;
+
+    @Setup
+    public void setUp() {
+        analytics = Fixtures.analytics();
+    }
+
+    @Benchmark
+    public String buildCsv() {
+        return TestController.buildAnalyticsCsv(analytics);
+    }
+}
@@ -0,0 +1,138 @@
+package com.grievance.benchmarks;
+
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.model.Comment;
+import com.grievance.model.Complaint;
+import com.grievance.model.Role;
+import com.grievance.model.User;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Realistic, fully populated objects for the benchmarks, shaped like what the
+ * services see in production (escalated complaint with an attachment, a
+ * 30-day analytics dashboard). Built once per trial, never persisted.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("jdoe");
+        user.setName("Jane Doe");
+        user.setEmail("jane.doe@company.com");
+        user.setRole(Role.USER);
+        user.setCreatedAt(new Date());
+        return user;
+    }
+
+    public static Complaint complaint() {
+        long now = System.currentTimeMillis();
+        Complaint complaint = new Complaint();
+        complaint.setId(1042L);
+        complaint.setTitle("VPN disconnects every few minutes");
+        complaint.setDescription("Since the client update on Monday the VPN drops roughly every five minutes "
+                + "while on the office Wi-Fi. Reconnecting works but any open RDP session is lost.");
+        complaint.setCategory("NETWORK");
+        complaint.setPriority(Complaint.Priority.HIGH);
+        complaint.setStatus(Complaint.Status.IN_PROGRESS);
+        complaint.setUser(user());
+        complaint.setAssignedTo("network-team");
+        complaint.setDepartment("IT Infrastructure");
+        complaint.setCreatedAt(new Date(now - TimeUnit.HOURS.toMillis(30)));
+        complaint.setUpdatedAt(new Date(now - TimeUnit.HOURS.toMillis(2)));
+        complaint.setFileName("vpn-log.txt");
+        complaint.setFilePath("uploads/3f2a9c1e_vpn-log.txt");
+        complaint.setFileType("text/plain");
+        complaint.setFileSize(48_213L);
+        complaint.setEscalationLevel(1);
+        complaint.setEscalatedAt(new Date(now - TimeUnit.HOURS.toMillis(18)));
+        complaint.setEscalationRecipients("superadmin@company.com");
+        complaint.setNextEscalationTime(new Date(now + TimeUnit.HOURS.toMillis(6)));
+        complaint.setEscalationNotes("Auto-escalated: HIGH priority open for 12h");
+        return complaint;
+    }
+
+    public static Comment comment() {
+        Comment comment = new Comment();
+        comment.setId(311L);
+        comment.setContent("Collected the client logs, forwarding to the vendor. Workaround: disable Wi-Fi power saving.");
+        comment.setType("PUBLIC");
+        comment.setIsAdminOnly(false);
+        comment.setUser(user());
+        comment.setComplaint(complaint());
+        comment.setCreatedAt(LocalDateTime.now().minusHours(1));
+        return comment;
+    }
+
+    public static AnalyticsDTO analytics() {
+        AnalyticsDTO analytics = new AnalyticsDTO();
+        analytics.setTotalComplaints(12_480);
+        analytics.setResolvedComplaints(9_731);
+        analytics.setPendingComplaints(2_749);
+        analytics.setEscalatedComplaints(412);
+        analytics.setResolutionRate(77.97);
+        analytics.setAverageResolutionTime(31.4);
+        analytics.setCategoryDistribution(counts("HARDWARE", "SOFTWARE", "NETWORK", "ACCESS", "EMAIL", "OTHER"));
+        analytics.setStatusDistribution(counts("OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED", "REJECTED"));
+        analytics.setPriorityDistribution(counts("LOW", "MEDIUM", "HIGH"));
+
+        List<AnalyticsDTO.DailyStat> trend = new ArrayList<>();
+        LocalDate day = LocalDate.now().minusDays(29);
+        for (int i = 0; i < 30; i++, day = day.plusDays(1)) {
+            AnalyticsDTO.DailyStat stat = new AnalyticsDTO.DailyStat();
+            stat.setDate(day.toString());
+            stat.setComplaints(380 + i * 7 % 50);
+            stat.setResolved(300 + i * 11 % 60);
+            trend.add(stat);
+        }
+        analytics.setDailyTrend(trend);
+
+        List<AnalyticsDTO.DepartmentStat> departments = new ArrayList<>();
+        for (String name : new String[] {"IT Infrastructure", "Service Desk", "Security", "Applications", "Facilities"}) {
+            AnalyticsDTO.DepartmentStat stat = new AnalyticsDTO.DepartmentStat();
+            stat.setDepartment(name);
+            stat.setTotalAssigned(2_400 + name.length() * 13);
+            stat.setResolved(1_900 + name.length() * 11);
+            stat.setResolutionRate(100.0 * stat.getResolved() / stat.getTotalAssigned());
+            stat.setEscalated(80 + name.length());
+            stat.setEscalationRate(100.0 * stat.getEscalated() / stat.getTotalAssigned());
+            stat.setMedianResolutionHours(18.5);
+            stat.setP90ResolutionHours(70.25);
+            departments.add(stat);
+        }
+        analytics.setDepartmentStats(departments);
+        analytics.setAssigneeStats(departments);
+        return analytics;
+    }
+
+    /** Sets an injected (@Value/@Autowired) field on an object built without Spring. */
+    public static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " has no field " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static Map<String, Long> counts(String... keys) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            counts.put(keys[i], 500L + 317L * i);
+        }
+        return counts;
+    }
+}
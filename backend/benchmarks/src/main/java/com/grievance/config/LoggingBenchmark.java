@@ -0,0 +1,165 @@
+package com.grievance.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one request: the five lines the old comment path printed,
+ * written from four request threads at once.
+ *
+ * <ul>
+ *   <li>systemOut: string concatenation into System.out-style println on a
+ *       shared, autoflushing PrintStream (the old code)</li>
+ *   <li>slf4jDisabled: the same lines as parameterised log.debug calls with
+ *       DEBUG off, which is what production now does for most of them</li>
+ *   <li>syncJson: INFO JSON events written by the request thread</li>
+ *   <li>asyncJson: INFO JSON events handed to an AsyncAppender, as configured
+ *       in logback-spring.xml</li>
+ * </ul>
+ *
+ * Output goes to temporary files so the terminal does not set the pace.
+ * asyncJson measures what the request thread pays; when the writer falls
+ * behind, neverBlock drops events instead of slowing requests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final int LINES_PER_REQUEST = 5;
+
+    private File dir;
+    private PrintStream stdout;
+    private LoggerContext syncContext;
+    private LoggerContext asyncContext;
+    private Logger disabledLogger;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @State(Scope.Thread)
+    public static class Request {
+        long complaintId = 42;
+        String username = "admin";
+        String message = "Printer on floor 2 is still jammed";
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MDC.put("requestId", Long.toHexString(Thread.currentThread().getId()) + "-bench");
+            MDC.put("user", username);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logging-bench").toFile();
+        stdout = new PrintStream(new FileOutputStream(new File(dir, "stdout.log")), true);
+
+        LoggerContext disabledContext = new LoggerContext();
+        disabledLogger = disabledContext.getLogger("com.grievance.service.CommentService");
+        disabledLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+
+        syncContext = new LoggerContext();
+        FileAppender<ILoggingEvent> syncFile = jsonFile(syncContext, "sync.json");
+        syncLogger = syncContext.getLogger("com.grievance.service.CommentService");
+        syncLogger.addAppender(syncFile);
+
+        asyncContext = new LoggerContext();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(asyncContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(jsonFile(asyncContext, "async.json"));
+        async.start();
+        asyncLogger = asyncContext.getLogger("com.grievance.service.CommentService");
+        asyncLogger.addAppender(async);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stdout.close();
+        syncContext.stop();
+        asyncContext.stop();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    public void systemOut(Request request) {
+        for (int i = 0; i < LINES_PER_REQUEST; i++) {
+            stdout.println("=== ADD COMMENT === complaint: " + request.complaintId
+                    + ", user: " + request.username + ", line " + i + ", message: " + request.message);
+        }
+    }
+
+    @Benchmark
+    public void slf4jDisabled(Request request) {
+        for (int i = 0; i < LINES_PER_REQUEST; i++) {
+            disabledLogger.debug("Adding comment to complaint {} by {} (line {}): {}",
+                    request.complaintId, request.username, i, request.message);
+        }
+    }
+
+    @Benchmark
+    public void syncJson(Request request) {
+        for (int i = 0; i < LINES_PER_REQUEST; i++) {
+            syncLogger.info("Adding comment to complaint {} by {} (line {}): {}",
+                    request.complaintId, request.username, i, request.message);
+        }
+    }
+
+    @Benchmark
+    public void asyncJson(Request request) {
+        for (int i = 0; i < LINES_PER_REQUEST; i++) {
+            asyncLogger.info("Adding comment to complaint {} by {} (line {}): {}",
+                    request.complaintId, request.username, i, request.message);
+        }
+    }
+
+    private FileAppender<ILoggingEvent> jsonFile(LoggerContext context, String name) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(new File(dir, name).getPath());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,55 @@
+package com.grievance.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.grievance.benchmarks.Fixtures;
+import com.grievance.service.DtoMappingBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization with an ObjectMapper built the way Spring Boot
+ * builds the application's (Jackson2ObjectMapperBuilder, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ComplaintDTO complaint;
+    private AnalyticsDTO analytics;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        complaint = DtoMappingBenchmark.complaintDto();
+        analytics = Fixtures.analytics();
+    }
+
+    @Benchmark
+    public byte[] complaintDto() throws Exception {
+        return objectMapper.writeValueAsBytes(complaint);
+    }
+
+    @Benchmark
+    public byte[] analyticsDto() throws Exception {
+        return objectMapper.writeValueAsBytes(analytics);
+    }
+}
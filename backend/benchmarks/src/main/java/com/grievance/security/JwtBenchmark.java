@@ -0,0 +1,99 @@
+package com.grievance.security;
+
+import com.grievance.benchmarks.Fixtures;
+import com.grievance.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation with the settings from application.properties.
+ * validateCached is what JwtFilter pays for a token it has already seen;
+ * validateUncached runs with the claims cache disabled, so every call parses
+ * and checks the signature (a token's first request). validateUncachedRotated
+ * does the same with a second key in the ring, signed with the new one.
+ * extractUser is the principal JwtFilter builds from a seen token's claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    static final String SECRET = "ThisIsASecretKeyForJWTTokenGeneration1234567890";
+    static final String NEXT_SECRET = "AnotherSecretKeyForJWTTokenGenerationAfterRotation";
+    static final long EXPIRATION = 86_400_000L;
+
+    private User user;
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil rotatedJwtUtil;
+    private String token;
+    private String rotatedToken;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user();
+        cachingJwtUtil = jwtUtil(10_000);
+        uncachedJwtUtil = jwtUtil(0);
+        rotatedJwtUtil = jwtUtil(0);
+        Fixtures.setField(rotatedJwtUtil, "keyIds", "next");
+        Fixtures.setField(rotatedJwtUtil, "signingKeyId", "next");
+        rotatedJwtUtil.init();
+        token = cachingJwtUtil.generateToken(user);
+        rotatedToken = rotatedJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachingJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncachedJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateUncachedRotated() {
+        return rotatedJwtUtil.validateToken(rotatedToken);
+    }
+
+    @Benchmark
+    public User extractUser() {
+        return cachingJwtUtil.extractUser(token);
+    }
+
+    static JwtUtil jwtUtil(long claimsCacheMaxSize) {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of("jwt.keys.next", NEXT_SECRET)));
+        JwtUtil jwtUtil = new JwtUtil();
+        Fixtures.setField(jwtUtil, "env", env);
+        Fixtures.setField(jwtUtil, "secret", SECRET);
+        Fixtures.setField(jwtUtil, "keyIds", "");
+        Fixtures.setField(jwtUtil, "signingKeyId", JwtUtil.DEFAULT_KEY_ID);
+        Fixtures.setField(jwtUtil, "expiration", EXPIRATION);
+        Fixtures.setField(jwtUtil, "claimsCacheMaxSize", claimsCacheMaxSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,176 @@
+package com.grievance.service;
+
+import com.grievance.dto.ComplaintSearchPage;
+import com.grievance.model.Complaint;
+import com.grievance.repository.ComplaintRepository;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Date;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ComplaintSearchService.search over an index of synthetic complaints:
+ * titles and descriptions mix 30 common IT words with a long
+ * tail of rarer ones, a third have comments, and status, priority and
+ * category are spread over their values. Only the index is measured; the
+ * database read of the page's rows (at most size rows by primary key) is
+ * stubbed out. The index is built once per size under java.io.tmpdir and
+ * reused by later runs, which takes a few minutes at 1M.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ComplaintSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "printer", "vpn", "email", "laptop", "network", "password", "reset", "slow", "error", "login",
+        "server", "outage", "floor", "office", "monitor", "keyboard", "wifi", "access", "denied", "update",
+        "install", "software", "license", "expired", "phone", "sync", "crash", "screen", "blue", "disk"
+    };
+    private static final String[] CATEGORIES = {"HARDWARE", "SOFTWARE", "NETWORK", "ACCESS", "EMAIL", "OTHER"};
+    private static final int RARE_WORDS = 50_000;
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    private ComplaintSearchService search;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "grievance-search-benchmark-" + documents);
+        buildIndex(dir);
+        search = new ComplaintSearchService();
+        set("indexDir", dir.toString());
+        set("complaintRepository", noRows());
+        search.init();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        search.close();
+    }
+
+    /** Two common words: a quarter of the index matches and is ranked. */
+    @Benchmark
+    public ComplaintSearchPage commonWords() throws IOException {
+        return search.search("vpn outage", null, null, null, null, false, null, 0, 20);
+    }
+
+    @Benchmark
+    public ComplaintSearchPage rareWord() throws IOException {
+        return search.search("w4242", null, null, null, null, false, null, 0, 20);
+    }
+
+    @Benchmark
+    public ComplaintSearchPage commonWordsFiltered() throws IOException {
+        return search.search("vpn outage", "OPEN", null, "NETWORK", null, false, null, 0, 20);
+    }
+
+    @Benchmark
+    public ComplaintSearchPage commonWordsNewestFirst() throws IOException {
+        return search.search("vpn outage", null, null, null, null, false, "newest", 0, 20);
+    }
+
+    /** Blank query: every document matches and is counted in the facets. */
+    @Benchmark
+    public ComplaintSearchPage everythingWithFacets() throws IOException {
+        return search.search("", null, null, null, null, false, "newest", 0, 20);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void buildIndex(Path dir) throws IOException {
+        try (Directory directory = FSDirectory.open(dir)) {
+            if (DirectoryReader.indexExists(directory)) {
+                try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                    if (reader.numDocs() == documents) {
+                        return;
+                    }
+                }
+            }
+            FacetsConfig facets = new FacetsConfig();
+            IndexWriterConfig config = new IndexWriterConfig(new EnglishAnalyzer())
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                    .setRAMBufferSizeMB(256);
+            SplittableRandom random = new SplittableRandom(42);
+            Complaint.Status[] statuses = Complaint.Status.values();
+            Complaint.Priority[] priorities = Complaint.Priority.values();
+            long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3 * 365);
+            try (IndexWriter writer = new IndexWriter(directory, config)) {
+                for (long id = 1; id <= documents; id++) {
+                    Object[] row = {
+                        id, text(random, 6), text(random, 40),
+                        statuses[random.nextInt(statuses.length)], priorities[random.nextInt(priorities.length)],
+                        CATEGORIES[random.nextInt(CATEGORIES.length)], 1L + random.nextInt(5000),
+                        new Date(start + id * 90_000L)
+                    };
+                    writer.addDocument(facets.build(ComplaintSearchService.toDocument(row,
+                            random.nextInt(3) == 0
+                                    ? Collections.singletonList(new Object[]{id, text(random, 20), false})
+                                    : Collections.emptyList())));
+                }
+                writer.forceMerge(1);
+            }
+        }
+    }
+
+    private static String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (random.nextBoolean()) {
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            } else {
+                // Long tail: low numbers are far more frequent than high ones
+                text.append('w').append(random.nextInt(random.nextInt(RARE_WORDS) + 1));
+            }
+            text.append(' ');
+        }
+        return text.toString();
+    }
+
+    private void set(String field, Object value) {
+        Field f = ReflectionUtils.findField(ComplaintSearchService.class, field);
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, search, value);
+    }
+
+    // The page's rows are read back from the database by id; not part of this measurement
+    private static ComplaintRepository noRows() {
+        return (ComplaintRepository) Proxy.newProxyInstance(ComplaintRepository.class.getClassLoader(),
+                new Class<?>[]{ComplaintRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findDtosByIdIn")) {
+                        return Collections.emptyList();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
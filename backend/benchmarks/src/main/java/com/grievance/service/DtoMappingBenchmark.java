@@ -0,0 +1,66 @@
+package com.grievance.service;
+
+import com.grievance.benchmarks.Fixtures;
+import com.grievance.dto.CommentResponse;
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.model.Comment;
+import com.grievance.model.Complaint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping done for every complaint in a listing and every
+ * comment in a thread. Lives in com.grievance.service to reach the
+ * package-private converters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private ComplaintService complaintService;
+    private CommentService commentService;
+    private Complaint complaint;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        complaintService = complaintService();
+        commentService = new CommentService();
+        complaint = Fixtures.complaint();
+        comment = Fixtures.comment();
+    }
+
+    @Benchmark
+    public ComplaintDTO complaintToDto() {
+        return complaintService.convertToDTO(complaint);
+    }
+
+    @Benchmark
+    public CommentResponse commentToResponse() {
+        return commentService.convertToResponse(comment);
+    }
+
+    /** A ComplaintDTO exactly as the API returns it, for JsonSerializationBenchmark. */
+    public static ComplaintDTO complaintDto() {
+        return complaintService().convertToDTO(Fixtures.complaint());
+    }
+
+    private static ComplaintService complaintService() {
+        // convertToDTO needs no collaborators
+        return new ComplaintService();
+    }
+}
@@ -0,0 +1,74 @@
+package com.grievance.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The duplicate check on complaint creation: signing the new complaint's
+ * text and querying the MinHash index of open complaints, which holds
+ * openComplaints random texts plus one near-copy of the query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuplicateDetectionBenchmark {
+
+    private static final String[] WORDS = {
+        "printer", "vpn", "email", "laptop", "network", "password", "reset", "slow", "error", "login",
+        "server", "outage", "floor", "office", "monitor", "keyboard", "wifi", "access", "denied", "update",
+        "install", "software", "license", "expired", "phone", "sync", "crash", "screen", "blue", "disk"
+    };
+
+    private static final String COMPLAINT = "VPN disconnects every hour. Since this morning's update the VPN "
+            + "client drops the connection roughly every hour and has to be restarted; colleagues on the "
+            + "third floor see the same thing. Please check the concentrator.";
+
+    @Param({"10000", "100000"})
+    private int openComplaints;
+
+    private MinHashIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new MinHashIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= openComplaints; id++) {
+            index.put(id, MinHashIndex.signature(randomText(random, 40)));
+        }
+        index.put(openComplaints + 1L, MinHashIndex.signature(COMPLAINT.replace("every hour", "every hour or so")));
+    }
+
+    @Benchmark
+    public int[] sign() {
+        return MinHashIndex.signature(COMPLAINT);
+    }
+
+    @Benchmark
+    public List<MinHashIndex.Match> signAndQuery() {
+        return index.query(MinHashIndex.signature(COMPLAINT), 0.5, 5);
+    }
+
+    private static String randomText(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+}
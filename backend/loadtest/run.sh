@@ -0,0 +1,24 @@
+#!/bin/bash
+# End-to-end load test: installs the backend jar, builds target/loadtest.jar
+# and runs it from target/loadtest-work (uploads and reports land there).
+#
+#   ./run.sh                                   # 16 users, 15 s warmup, 60 s measured
+#   ./run.sh --users=64 --duration=300 --mix.analytics=0 --attachment-kb=512
+#
+#   ./run.sh --users=32 --mix.login=30         # login storm against the password executor
+#
+# Options: --users --warmup --duration --seed-complaints --attachment-kb
+#          --attachment-percent --report and --mix.<operation>=<weight> for
+#          login, failedLogin, createComplaint, listComplaints, myComplaints,
+#          addComment, updateStatus, analytics. JVM flags go in JAVA_OPTS.
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+
+(cd "$HERE/.." && mvn -B -q clean install -DskipTests)
+(cd "$HERE" && mvn -B -q package)
+
+WORK="$HERE/target/loadtest-work"
+rm -rf "$WORK" && mkdir -p "$WORK"
+cd "$WORK"
+java ${JAVA_OPTS:--Xmx1g} -jar "$HERE/target/loadtest.jar" --report="$HERE/target/loadtest-report.json" "$@"
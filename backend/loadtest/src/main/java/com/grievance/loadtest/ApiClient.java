@@ -0,0 +1,195 @@
+package com.grievance.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The backend's HTTP API as the frontend calls it. Every call is timed into
+ * the stats of its Operation; a call counts as an error when the status is
+ * not 2xx or the body says success=false (the controllers answer most
+ * failures with 200). 429 answers are counted as rejected, not as errors.
+ */
+public class ApiClient {
+
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<Map<String, Object>>() { };
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<Operation, EndpointStats> stats;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public Map<Operation, EndpointStats> getStats() {
+        return stats;
+    }
+
+    public Map<String, Object> register(String username, String password) {
+        String body = json(Map.of("username", username, "password", password,
+                "email", username + "@loadtest.local", "fullName", "Load " + username));
+        return send(null, post("/auth/register", null, "application/json", body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Map<String, Object> login(String username, String password) {
+        String body = json(Map.of("username", username, "password", password));
+        return send(Operation.LOGIN, post("/auth/login", null, "application/json", body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** A login that is expected to fail; it only counts as an error if it succeeds. */
+    public void failedLogin(String username, String wrongPassword) {
+        String body = json(Map.of("username", username, "password", wrongPassword));
+        send(Operation.FAILED_LOGIN, post("/auth/login", null, "application/json", body.getBytes(StandardCharsets.UTF_8)), false);
+    }
+
+    public Map<String, Object> createComplaint(Operation operation, String token, String title, String description,
+                                               String category, String priority, byte[] attachment) {
+        Multipart form = new Multipart();
+        form.field("title", title);
+        form.field("description", description);
+        form.field("category", category);
+        form.field("priority", priority);
+        if (attachment != null) {
+            form.file("file", "diagnostics.log", "text/plain", attachment);
+        }
+        return send(operation, post("/complaints", token, form.contentType(), form.build()));
+    }
+
+    public Map<String, Object> listComplaints(String token, String status, int limit) {
+        String query = "?limit=" + limit + (status != null ? "&status=" + status : "");
+        return send(Operation.LIST_COMPLAINTS, get("/complaints" + query, token));
+    }
+
+    public Map<String, Object> myComplaints(String token) {
+        return send(Operation.MY_COMPLAINTS, get("/complaints/my-complaints", token));
+    }
+
+    public Map<String, Object> addComment(String token, long complaintId, String content) {
+        String body = json(Map.of("complaintId", complaintId, "content", content, "type", "PUBLIC"));
+        return send(Operation.ADD_COMMENT, post("/comments/json", token, "application/json", body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Map<String, Object> updateStatus(String token, long complaintId, String status) {
+        String body = json(Map.of("status", status, "assignedTo", "loadtest-team"));
+        HttpRequest request = builder("/complaints/" + complaintId + "/status", token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(Operation.UPDATE_STATUS, request);
+    }
+
+    public Map<String, Object> analytics(String token) {
+        return send(Operation.ANALYTICS, get("/analytics/dashboard", token));
+    }
+
+    private Map<String, Object> send(Operation operation, HttpRequest request) {
+        return send(operation, request, true);
+    }
+
+    private Map<String, Object> send(Operation operation, HttpRequest request, boolean successExpected) {
+        long started = System.nanoTime();
+        boolean ok = false;
+        boolean rejected = false;
+        Map<String, Object> body = Collections.emptyMap();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 == 2) {
+                body = objectMapper.readValue(response.body(), JSON_MAP);
+                ok = !Boolean.FALSE.equals(body.get("success")) == successExpected;
+            } else if (response.statusCode() == 429) {
+                rejected = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Connection errors and unparseable bodies count as failed requests
+        }
+        if (operation != null) {
+            if (rejected) {
+                stats.get(operation).recordRejected(System.nanoTime() - started);
+            } else {
+                stats.get(operation).record(System.nanoTime() - started, ok);
+            }
+        }
+        return ok && successExpected ? body : Collections.emptyMap();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String contentType, byte[] body) {
+        return builder(path, token)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String json(Map<String, ?> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Minimal multipart/form-data body, as a browser form post would send it. */
+    private static final class Multipart {
+        private final String boundary = "----loadtest" + UUID.randomUUID().toString().replace("-", "");
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void field(String name, String value) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+        }
+
+        void file(String name, String filename, String contentType, byte[] content) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                    + filename + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+            out.writeBytes(content);
+            write("\r\n");
+        }
+
+        String contentType() {
+            return "multipart/form-data; boundary=" + boundary;
+        }
+
+        byte[] build() {
+            write("--" + boundary + "--\r\n");
+            return out.toByteArray();
+        }
+
+        private void write(String text) {
+            out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.grievance.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, error and rejection (429) counts for one operation. Recording is lock-free; reset()
+ * throws away everything recorded so far (the warmup).
+ */
+public class EndpointStats {
+
+    // 1 us .. 60 s at 3 significant digits
+    private final Recorder recorder = new Recorder(TimeUnit.SECONDS.toMicros(60), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public void record(long nanos, boolean ok) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), TimeUnit.SECONDS.toMicros(60)));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    /** A request the server turned away with 429 (throttled or saturated). */
+    public void recordRejected(long nanos) {
+        record(nanos, true);
+        rejected.increment();
+    }
+
+    public void reset() {
+        recorder.reset();
+        errors.reset();
+        rejected.reset();
+    }
+
+    /** Summary of everything recorded since the last reset; call once, at the end. */
+    public Map<String, Object> summarize(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors.sum());
+        summary.put("rejected", rejected.sum());
+        summary.put("throughputPerSecond", round(count / seconds));
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / 1000.0));
+        latency.put("p50", millis(histogram, 50));
+        latency.put("p95", millis(histogram, 95));
+        latency.put("p99", millis(histogram, 99));
+        latency.put("max", round(histogram.getMaxValue() / 1000.0));
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
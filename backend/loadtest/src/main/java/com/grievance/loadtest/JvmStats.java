@@ -0,0 +1,82 @@
+package com.grievance.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Heap and GC counters of this JVM, which hosts both the application and the
+ * load generator (the generator's share is small: HTTP client threads and
+ * histograms). start() marks the beginning of the measurement.
+ */
+public class JvmStats {
+
+    private final Map<String, long[]> gcAtStart = new LinkedHashMap<>();
+    private long heapUsedAtStart;
+    private long startedAt;
+
+    public void start() {
+        gcAtStart.clear();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcAtStart.put(gc.getName(), new long[] {gc.getCollectionCount(), gc.getCollectionTime()});
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        heapUsedAtStart = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        startedAt = System.currentTimeMillis();
+    }
+
+    public Map<String, Object> summarize() {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        Map<String, Object> heapStats = new LinkedHashMap<>();
+        heapStats.put("usedAtStartMb", mb(heapUsedAtStart));
+        heapStats.put("usedAtEndMb", mb(heap.getUsed()));
+        heapStats.put("peakMb", mb(peak));
+        heapStats.put("committedMb", mb(heap.getCommitted()));
+        heapStats.put("maxMb", mb(heap.getMax()));
+
+        Map<String, Object> collectors = new LinkedHashMap<>();
+        long totalGcMs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long[] start = gcAtStart.getOrDefault(gc.getName(), new long[2]);
+            long count = gc.getCollectionCount() - start[0];
+            long timeMs = gc.getCollectionTime() - start[1];
+            totalGcMs += timeMs;
+            Map<String, Object> collector = new LinkedHashMap<>();
+            collector.put("collections", count);
+            collector.put("timeMs", timeMs);
+            collectors.put(gc.getName(), collector);
+        }
+        Map<String, Object> gcStats = new LinkedHashMap<>();
+        gcStats.put("collectors", collectors);
+        gcStats.put("totalTimeMs", totalGcMs);
+        gcStats.put("timePercent", EndpointStats.round(100.0 * totalGcMs / elapsedMs));
+
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("javaVersion", System.getProperty("java.version"));
+        jvm.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        jvm.put("heap", heapStats);
+        jvm.put("gc", gcStats);
+        jvm.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        return jvm;
+    }
+
+    private static long mb(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
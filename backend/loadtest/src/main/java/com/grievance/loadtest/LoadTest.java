@@ -0,0 +1,188 @@
+package com.grievance.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.grievance.MainApplication;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the backend in this JVM against an in-memory H2 database (MySQL mode,
+ * schema from the Flyway migrations) and a GreenMail SMTP server, registers
+ * one account per virtual user, seeds complaints, then runs the request mix
+ * for a warmup and a measured period. The report (JSON) has throughput and
+ * p50/p95/p99 latency per operation plus heap and GC figures for the
+ * measured period.
+ *
+ *   java -jar target/loadtest.jar --users=32 --duration=120 --mix.analytics=20
+ */
+public class LoadTest {
+
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "admin123";
+    private static final String USER_PASSWORD = "loadtest123";
+    private static final String MAIL_ACCOUNT = "loadtest@grievance.local";
+    private static final String MAIL_PASSWORD = "loadtest";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+
+        GreenMail mail = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withUser(MAIL_ACCOUNT, MAIL_PASSWORD));
+        mail.start();
+        ConfigurableApplicationContext context = null;
+        int exitCode = 1;
+        try {
+            context = SpringApplication.run(MainApplication.class, applicationArgs(mail.getSmtp().getPort()));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Map<String, Object> report = run(config, new ApiClient("http://localhost:" + port + "/api"));
+            report.put("mail", Map.of("received", mail.getReceivedMessages().length));
+
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            File reportFile = new File(config.getReport());
+            objectMapper.writeValue(reportFile, report);
+            printSummary(report);
+            System.out.println("Report: " + reportFile.getAbsoluteFile().toPath().normalize());
+            exitCode = 0;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            mail.stop();
+        }
+        System.exit(exitCode);
+    }
+
+    /** Overrides on top of application.properties: embedded database and mail, random port. */
+    static String[] applicationArgs(int smtpPort) {
+        return new String[] {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // Flyway builds the real schema and indexes; H2 reports TEXT columns
+                // as CLOB, which Hibernate's validation would reject
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + smtpPort,
+                "--spring.mail.username=" + MAIL_ACCOUNT,
+                "--spring.mail.password=" + MAIL_PASSWORD,
+                // Delivered by the outbox dispatcher every 5 s; --duration should be well above that
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                "--spring.mail.properties.mail.smtp.starttls.required=false",
+                "--app.email.enabled=true",
+                "--app.logging.format=plain",
+        };
+    }
+
+    static Map<String, Object> run(LoadTestConfig config, ApiClient api) throws Exception {
+        String adminToken = token(api.login(ADMIN_USERNAME, ADMIN_PASSWORD));
+        if (adminToken == null) {
+            throw new IllegalStateException("Admin login failed; is DataInitializer creating admin/admin123?");
+        }
+
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < config.getUsers(); i++) {
+            String username = "loadtest" + i;
+            String token = token(api.register(username, USER_PASSWORD));
+            if (token == null) {
+                throw new IllegalStateException("Could not register " + username);
+            }
+            users.add(new VirtualUser(api, config, username, USER_PASSWORD, token, adminToken, i));
+        }
+        for (int i = 0; i < config.getSeedComplaints(); i++) {
+            users.get(i % users.size()).seedComplaint();
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.getUsers());
+        try {
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+            List<Future<?>> running = new ArrayList<>();
+            for (VirtualUser user : users) {
+                running.add(workers.submit(() -> user.runUntil(end)));
+            }
+
+            sleepUntil(warmupEnd);
+            api.getStats().values().forEach(EndpointStats::reset);
+            JvmStats jvm = new JvmStats();
+            jvm.start();
+            Instant measuredFrom = Instant.now();
+
+            for (Future<?> future : running) {
+                future.get();
+            }
+            double seconds = Math.max(0.001, (System.currentTimeMillis() - measuredFrom.toEpochMilli()) / 1000.0);
+
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            long requests = 0;
+            long errors = 0;
+        long rejected = 0;
+            for (Map.Entry<Operation, EndpointStats> entry : api.getStats().entrySet()) {
+                Map<String, Object> summary = entry.getValue().summarize(seconds);
+                requests += (Long) summary.get("requests");
+                errors += (Long) summary.get("errors");
+                rejected += (Long) summary.get("rejected");
+                endpoints.put(entry.getKey().key(), summary);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("measuredFrom", measuredFrom.toString());
+            report.put("measuredSeconds", EndpointStats.round(seconds));
+            report.put("config", config.toMap());
+            report.put("totalRequests", requests);
+            report.put("totalErrors", errors);
+        report.put("totalRejected", rejected);
+            report.put("throughputPerSecond", EndpointStats.round(requests / seconds));
+            report.put("endpoints", endpoints);
+            report.put("jvm", jvm.summarize());
+            return report;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(Map<String, Object> report) {
+        System.out.printf("%n%-18s %9s %7s %7s %9s %9s %9s %9s%n", "operation", "requests", "errors", "429s", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        Map<String, Object> endpoints = (Map<String, Object>) report.get("endpoints");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            Map<String, Object> stats = (Map<String, Object>) entry.getValue();
+            Map<String, Object> latency = (Map<String, Object>) stats.get("latencyMs");
+            System.out.printf("%-18s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f%n", entry.getKey(), stats.get("requests"),
+                    stats.get("errors"), stats.get("rejected"), stats.get("throughputPerSecond"), latency.get("p50"), latency.get("p95"), latency.get("p99"));
+        }
+        Map<String, Object> gc = (Map<String, Object>) ((Map<String, Object>) report.get("jvm")).get("gc");
+        System.out.printf("total %s req/s, %s errors, %s rejected, GC %s%% of wall time%n",
+                report.get("throughputPerSecond"), report.get("totalErrors"), report.get("totalRejected"), gc.get("timePercent"));
+    }
+
+    private static String token(Map<String, Object> response) {
+        Object token = response.get("token");
+        return token != null ? token.toString() : null;
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(200)));
+        }
+    }
+}
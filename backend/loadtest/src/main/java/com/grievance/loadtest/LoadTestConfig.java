@@ -0,0 +1,90 @@
+package com.grievance.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as --name=value arguments (see run.sh). The
+ * default mix roughly follows production traffic: mostly listing and
+ * commenting, with admins polling analytics and working the queue.
+ */
+public class LoadTestConfig {
+
+    private int users = 16;
+    private int warmupSeconds = 15;
+    private int durationSeconds = 60;
+    private int seedComplaints = 200;
+    private int attachmentKb = 64;
+    private int attachmentPercent = 30;
+    private String report = "loadtest-report.json";
+    private final Map<String, Integer> mix = new LinkedHashMap<>();
+
+    public LoadTestConfig() {
+        mix.put(Operation.LOGIN.key(), 5);
+        // Wrong passwords for the user's own account; with the login throttle on,
+        // this locks the account (and, past its limit, the whole test's address)
+        mix.put(Operation.FAILED_LOGIN.key(), 0);
+        mix.put(Operation.CREATE_COMPLAINT.key(), 15);
+        mix.put(Operation.LIST_COMPLAINTS.key(), 30);
+        mix.put(Operation.ADD_COMMENT.key(), 20);
+        mix.put(Operation.UPDATE_STATUS.key(), 10);
+        mix.put(Operation.ANALYTICS.key(), 10);
+        mix.put(Operation.MY_COMPLAINTS.key(), 10);
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "users": config.users = positive(name, value); break;
+                case "warmup": config.warmupSeconds = Integer.parseInt(value); break;
+                case "duration": config.durationSeconds = positive(name, value); break;
+                case "seed-complaints": config.seedComplaints = Integer.parseInt(value); break;
+                case "attachment-kb": config.attachmentKb = Integer.parseInt(value); break;
+                case "attachment-percent": config.attachmentPercent = Integer.parseInt(value); break;
+                case "report": config.report = value; break;
+                default:
+                    if (name.startsWith("mix.") && config.mix.containsKey(name.substring(4))) {
+                        config.mix.put(name.substring(4), Integer.parseInt(value));
+                    } else {
+                        throw new IllegalArgumentException("Unknown option --" + name + " (mix keys: " + config.mix.keySet() + ")");
+                    }
+            }
+        }
+        return config;
+    }
+
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return parsed;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", users);
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("durationSeconds", durationSeconds);
+        map.put("seedComplaints", seedComplaints);
+        map.put("attachmentKb", attachmentKb);
+        map.put("attachmentPercent", attachmentPercent);
+        map.put("mix", mix);
+        return map;
+    }
+
+    public int getUsers() { return users; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public int getSeedComplaints() { return seedComplaints; }
+    public int getAttachmentKb() { return attachmentKb; }
+    public int getAttachmentPercent() { return attachmentPercent; }
+    public String getReport() { return report; }
+    public Map<String, Integer> getMix() { return mix; }
+}
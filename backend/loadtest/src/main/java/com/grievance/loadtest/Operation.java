@@ -0,0 +1,26 @@
+package com.grievance.loadtest;
+
+/**
+ * One kind of request in the mix; the key is used for --mix.* options and
+ * as the endpoint name in the report.
+ */
+public enum Operation {
+    LOGIN("login"),
+    FAILED_LOGIN("failedLogin"),
+    CREATE_COMPLAINT("createComplaint"),
+    LIST_COMPLAINTS("listComplaints"),
+    MY_COMPLAINTS("myComplaints"),
+    ADD_COMMENT("addComment"),
+    UPDATE_STATUS("updateStatus"),
+    ANALYTICS("analytics");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
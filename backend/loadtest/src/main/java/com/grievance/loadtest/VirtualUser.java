@@ -0,0 +1,137 @@
+package com.grievance.loadtest;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One simulated person working through the mix: a registered USER that
+ * files, lists and comments on complaints. Admin operations (status changes,
+ * analytics) use the shared admin token, as the admin dashboard would.
+ * Back-to-back requests with no think time, so --users is the concurrency.
+ */
+class VirtualUser {
+
+    private static final String[] CATEGORIES = {"HARDWARE", "SOFTWARE", "NETWORK", "ACCESS", "EMAIL"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final String[] STATUSES = {"IN_PROGRESS", "RESOLVED", "OPEN"};
+
+    // The most recently created complaints, which any user may comment on and
+    // an admin may update; a ring shared by all users
+    private static final AtomicLongArray recentComplaints = new AtomicLongArray(4096);
+    private static final AtomicInteger createdComplaints = new AtomicInteger();
+
+    private final ApiClient api;
+    private final LoadTestConfig config;
+    private final String username;
+    private final String password;
+    private final String adminToken;
+    private final Operation[] weighted;
+    private final byte[] attachment;
+    private final Random random;
+    private String token;
+
+    VirtualUser(ApiClient api, LoadTestConfig config, String username, String password,
+                String token, String adminToken, int seed) {
+        this.api = api;
+        this.config = config;
+        this.username = username;
+        this.password = password;
+        this.token = token;
+        this.adminToken = adminToken;
+        this.weighted = weightedOperations(config.getMix());
+        this.attachment = new byte[config.getAttachmentKb() * 1024];
+        this.random = new Random(seed);
+        for (int i = 0; i < attachment.length; i++) {
+            attachment[i] = (byte) ('a' + random.nextInt(26));
+        }
+    }
+
+    void seedComplaint() {
+        createComplaint(null);
+    }
+
+    void runUntil(long deadlineNanos) {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            switch (operation) {
+                case LOGIN:
+                    Object fresh = api.login(username, password).get("token");
+                    if (fresh != null) {
+                        token = fresh.toString();
+                    }
+                    break;
+                case FAILED_LOGIN:
+                    api.failedLogin(username, password + "-wrong");
+                    break;
+                case CREATE_COMPLAINT:
+                    createComplaint(operation);
+                    break;
+                case LIST_COMPLAINTS:
+                    api.listComplaints(adminToken, random.nextBoolean() ? null : STATUSES[random.nextInt(STATUSES.length)], 50);
+                    break;
+                case MY_COMPLAINTS:
+                    api.myComplaints(token);
+                    break;
+                case ADD_COMMENT:
+                    Long commentOn = anyComplaint();
+                    if (commentOn != null) {
+                        api.addComment(token, commentOn, "Still happening for " + username + " at " + System.currentTimeMillis());
+                    }
+                    break;
+                case UPDATE_STATUS:
+                    Long update = anyComplaint();
+                    if (update != null) {
+                        api.updateStatus(adminToken, update, STATUSES[random.nextInt(STATUSES.length)]);
+                    }
+                    break;
+                case ANALYTICS:
+                    api.analytics(adminToken);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+        }
+    }
+
+    private void createComplaint(Operation operation) {
+        boolean withFile = random.nextInt(100) < config.getAttachmentPercent();
+        Map<String, Object> created = api.createComplaint(operation, token,
+                "Load test issue from " + username,
+                "Reproducible problem reported during the load test; steps and logs attached where available.",
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                PRIORITIES[random.nextInt(PRIORITIES.length)],
+                withFile ? attachment : null);
+        Object id = created.get("complaintId");
+        if (id instanceof Number) {
+            int slot = createdComplaints.getAndIncrement() % recentComplaints.length();
+            recentComplaints.set(slot, ((Number) id).longValue());
+        }
+    }
+
+    private Long anyComplaint() {
+        int size = Math.min(createdComplaints.get(), recentComplaints.length());
+        if (size == 0) {
+            return null;
+        }
+        long id = recentComplaints.get(random.nextInt(size));
+        // 0 while a concurrent add has claimed the slot but not filled it yet
+        return id != 0 ? id : null;
+    }
+
+    private static Operation[] weightedOperations(Map<String, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("The request mix has no positive weights");
+        }
+        Operation[] weighted = new Operation[total];
+        int index = 0;
+        for (Operation operation : Operation.values()) {
+            for (int i = 0; i < mix.getOrDefault(operation.key(), 0); i++) {
+                weighted[index++] = operation;
+            }
+        }
+        return weighted;
+    }
+}
@@ -3,12 +3,16 @@ package com.grievance;
 import com.grievance.model.Role;
 import com.grievance.model.User;
 import com.grievance.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
+@Profile("!rebuild") // offline commands leave the users table alone
+@Slf4j
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
@@ -23,9 +27,7 @@ public class DataInitializer implements CommandLineRunner {
     }
     
     private void initializeDefaultUsers() {
-        System.out.println("\n" + "🔐".repeat(30));
-        System.out.println("INITIALIZING DATABASE USERS");
-        System.out.println("🔐".repeat(30));
+        log.info("Initializing database users");
         
         try {
             // Create Admin User
@@ -37,13 +39,9 @@ public class DataInitializer implements CommandLineRunner {
                 admin.setPassword(passwordEncoder.encode("admin123"));
                 admin.setRole(Role.ADMIN);
                 userRepository.save(admin);
-                System.out.println("✅ Created ADMIN User:");
-                System.out.println("   Name: System Administrator");
-                System.out.println("   Username: admin");
-                System.out.println("   Password: admin123");
-                System.out.println("   Role: ADMIN");
+                log.info("Created ADMIN user 'admin' (System Administrator), password admin123");
             } else {
-                System.out.println("ℹ️  ADMIN user already exists");
+                log.info("ADMIN user already exists");
             }
             
             // Create Regular User
@@ -55,21 +53,15 @@ public class DataInitializer implements CommandLineRunner {
                 user.setPassword(passwordEncoder.encode("user123"));
                 user.setRole(Role.USER);
                 userRepository.save(user);
-                System.out.println("✅ Created USER User:");
-                System.out.println("   Name: Regular User");
-                System.out.println("   Username: user");
-                System.out.println("   Password: user123");
-                System.out.println("   Role: USER");
+                log.info("Created USER user 'user' (Regular User), password user123");
             } else {
-                System.out.println("ℹ️  USER user already exists");
+                log.info("USER user already exists");
             }
             
-            System.out.println("✅ USER INITIALIZATION COMPLETE");
-            System.out.println("🔐".repeat(30) + "\n");
+            log.info("USER INITIALIZATION COMPLETE");
             
         } catch (Exception e) {
-            System.out.println("❌ Error initializing users: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error initializing users: {}", e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
@@ -1,12 +1,12 @@
 package com.grievance;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableScheduling
+@Slf4j
 @EnableAsync
 public class MainApplication {
     
@@ -16,23 +16,10 @@ public class MainApplication {
     }
     
     private static void printStartupMessage() {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("🚀 IT GRIEVANCE SYSTEM BACKEND STARTED SUCCESSFULLY!");
-        System.out.println("=".repeat(70));
-        System.out.println("🌐 Server URL: http://localhost:8080");
-        System.out.println("🔗 API Base: http://localhost:8080/api");
-        System.out.println("🔐 Authentication: JWT Token Based");
-        System.out.println("🔄 Scheduling: Enabled (Escalation checks every 5 minutes)");
-        System.out.println("🔧 Async Processing: Enabled (For email notifications)");
-        System.out.println("🔑 Default Test Credentials:");
-        System.out.println("   👨‍💼 Admin: username='admin', password='admin123'");
-        System.out.println("   👤 User:  username='user', password='user123'");
-        System.out.println("📊 Database: MySQL it_grievance_db");
-        System.out.println("⏰ Escalation: Priority-based automatic escalation");
-        System.out.println("   • HIGH priority: 12 hours to Super Admin");
-        System.out.println("   • MEDIUM priority: 24 hours to Super Admin");
-        System.out.println("   • LOW priority: 48 hours to Super Admin");
-        System.out.println("📧 Email: Simulation Mode (Set app.email.enabled=true for real emails)");
-        System.out.println("=".repeat(70) + "\n");
+        log.info("IT Grievance System backend started: http://localhost:8080/api (JWT authentication)");
+        log.info("Scheduling enabled: escalation deadlines timed in memory, one lease holder per cluster; "
+                + "email delivered from the outbox table in batches");
+        log.info("Default test credentials: admin/admin123 (ADMIN), user/user123 (USER)");
+        log.info("Escalation: priority-based, HIGH 12h, MEDIUM 24h, LOW 48h to Super Admin");
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.grievance;
+
+import com.grievance.service.ComplaintSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Rebuilds the complaint search index from the database and exits. Run it
+ * with the application stopped (the index is locked while it is open), with
+ * the same configuration:
+ *
+ *   java -cp it-grievance-system-1.0.0-exec.jar -Dloader.main=com.grievance.SearchIndexRebuild \
+ *        org.springframework.boot.loader.PropertiesLauncher [--app.search.index-dir=...]
+ *
+ * It starts with the "rebuild" profile (application-rebuild.properties): no
+ * scheduled jobs (escalations, outbox mail, blob GC and the rest), no
+ * default users, and no startup search sync or duplicate index load.
+ *
+ * A running node rebuilds in place through POST /api/admin/search/rebuild.
+ */
+@Slf4j
+public class SearchIndexRebuild {
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("rebuild")
+                .run(args);
+        int exitCode = 0;
+        try {
+            long indexed = context.getBean(ComplaintSearchService.class).rebuild();
+            log.info("Search index rebuilt offline: {} complaint(s)", indexed);
+        } catch (Exception e) {
+            log.error("Search index rebuild failed: {}", e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -1,29 +1,41 @@
 package com.grievance;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grievance.config.InstrumentedExecutor;
 import com.grievance.dto.*;
 import com.grievance.model.*;
 import com.grievance.repository.*;
 import com.grievance.security.JwtUtil;
+import com.grievance.security.LoginThrottle;
+import com.grievance.security.PasswordHasher;
+import com.grievance.security.UserCache;
 import com.grievance.service.*;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
+@Slf4j
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000")
 public class TestController {
@@ -44,13 +56,13 @@ public class TestController {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private AuthService authService;
+    private UserCache userCache;
     
     @Autowired
-    private EscalationService escalationService;
+    private AuthService authService;
     
     @Autowired
-    private EscalationHistoryRepository escalationHistoryRepository;
+    private EscalationService escalationService;
     
     @Autowired
     private AnalyticsService analyticsService;
@@ -58,27 +70,63 @@ public class TestController {
     @Autowired
     private CommentService commentService;
     
-    @Value("${file.upload-dir:./uploads}")
-    private String uploadDir;
+    @Autowired
+    private TrendService trendService;
+    
+    @Autowired
+    private ComplaintExportService complaintExportService;
+    
+    @Autowired
+    private ReportService reportService;
+    
+    @Autowired
+    private ComplaintSearchService complaintSearchService;
+    
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private AttachmentDownloadService attachmentDownloadService;
+    
+    @Autowired
+    private ComplaintViewService complaintViewService;
+    
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+    
+    @Autowired
+    private List<InstrumentedExecutor> executors;
+    
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
+    @Autowired
+    private ClusterSyncService clusterSyncService;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     // ================== FIXED REGISTRATION ENDPOINT ==================
     
     @PostMapping("/auth/register")
-    public Map<String, Object> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<Map<String, Object>> register(@RequestBody RegisterRequest request) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n📝 ========== REGISTRATION ATTEMPT ==========");
-            System.out.println("Username: " + request.getUsername());
-            System.out.println("Email: " + request.getEmail());
-            System.out.println("Full Name: " + request.getFullName());
+            log.debug("Registration attempt");
+            log.debug("Username: {}", request.getUsername());
+            log.debug("Email: {}", request.getEmail());
+            log.debug("Full Name: {}", request.getFullName());
             
             // Use the AuthService.registerUser method
             User user = authService.registerUser(request);
             
-            String token = jwtUtil.generateToken(user.getUsername());
+            String token = jwtUtil.generateToken(user);
             
             response.put("success", true);
             response.put("message", "Registration successful");
@@ -89,27 +137,39 @@ public class TestController {
             response.put("name", user.getName());
             response.put("role", user.getRole().name());
             
-            System.out.println("✅ Registration successful for: " + user.getUsername());
-            System.out.println("✅ User ID: " + user.getId());
-            System.out.println("✅ Role: " + user.getRole());
-            System.out.println("✅ Token generated");
-            System.out.println("=============================================\n");
+            log.debug("Registration successful for: {}", user.getUsername());
+            log.debug("User ID: {}", user.getId());
+            log.debug("Role: {}", user.getRole());
+            log.debug("Token generated");
             
+        } catch (RejectedExecutionException e) {
+            log.warn("Registration rejected: {}", e.getMessage());
+            return tooManyRequests(response, 1, e.getMessage());
         } catch (Exception e) {
-            System.out.println("❌ Registration failed: " + e.getMessage());
+            log.warn("Registration failed: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
         
-        return response;
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/auth/login")
-    public Map<String, Object> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
         
-        System.out.println("\n🔐 ========== LOGIN REQUEST ==========");
-        System.out.println("Username: " + loginRequest.getUsername());
+        log.debug("Login request");
+        log.debug("Username: {}", loginRequest.getUsername());
+        
+        // Checked before any BCrypt work, so guessing costs the server next to nothing;
+        // a username past its limit is paced here too, with a 429 rather than a held thread.
+        // The address is the client's, resolved from X-Forwarded-For behind the load balancer.
+        String address = request.getRemoteAddr();
+        long retryAfter = loginThrottle.retryAfterSeconds(loginRequest.getUsername(), address);
+        if (retryAfter > 0) {
+            return tooManyRequests(response, retryAfter,
+                    "Too many failed login attempts, try again in " + retryAfter + " seconds");
+        }
         
         try {
             Optional<User> userOpt = authService.validateLogin(
@@ -118,15 +178,17 @@ public class TestController {
             );
             
             if (userOpt.isEmpty()) {
-                System.out.println("❌ Invalid username or password");
+                log.warn("Invalid username or password");
+                loginThrottle.recordFailure(loginRequest.getUsername(), address);
                 response.put("success", false);
                 response.put("message", "Invalid username or password");
-                return response;
+                return ResponseEntity.ok(response);
             }
             
             User user = userOpt.get();
+            loginThrottle.recordSuccess(loginRequest.getUsername(), address);
             
-            String token = jwtUtil.generateToken(user.getUsername());
+            String token = jwtUtil.generateToken(user);
             
             response.put("success", true);
             response.put("message", "Login successful");
@@ -137,35 +199,33 @@ public class TestController {
             response.put("name", user.getName());
             response.put("role", user.getRole().name());
             
-            System.out.println("✅ Login successful for: " + user.getUsername());
-            System.out.println("✅ User ID: " + user.getId());
-            System.out.println("✅ Role: " + user.getRole());
-            System.out.println("✅ Token generated");
-            System.out.println("=====================================\n");
+            log.debug("Login successful for: {}", user.getUsername());
+            log.debug("User ID: {}", user.getId());
+            log.debug("Role: {}", user.getRole());
+            log.debug("Token generated");
             
+        } catch (RejectedExecutionException e) {
+            log.warn("Login rejected: {}", e.getMessage());
+            return tooManyRequests(response, 1, e.getMessage());
         } catch (Exception e) {
-            System.out.println("❌ Login error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login error: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Login failed: " + e.getMessage());
         }
         
-        return response;
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/auth/me")
-    public Map<String, Object> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getCurrentUser() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🔍 ========== GET CURRENT USER ==========");
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            System.out.println("✅ Username from token: " + username);
+            log.debug("Get current user");
+            User user = currentUser();
+            String username = user.getUsername();
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            log.debug("Username from token: {}", username);
             
             response.put("success", true);
             response.put("userId", user.getId());
@@ -174,11 +234,10 @@ public class TestController {
             response.put("role", user.getRole().name());
             response.put("name", user.getName());
             
-            System.out.println("✅ User found: " + user.getUsername());
-            System.out.println("=========================================\n");
+            log.debug("User found: {}", user.getUsername());
             
         } catch (Exception e) {
-            System.out.println("❌ Get current user error: " + e.getMessage());
+            log.warn("Get current user error: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -194,25 +253,21 @@ public class TestController {
             @RequestParam("content") String content,
             @RequestParam(value = "type", required = false, defaultValue = "PUBLIC") String type,
             @RequestParam(value = "isAdminOnly", required = false, defaultValue = "false") Boolean isAdminOnly,
-            @RequestParam(value = "file", required = false) MultipartFile file,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestParam(value = "file", required = false) MultipartFile file) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n💬 ========== ADDING COMMENT ==========");
-            System.out.println("Complaint ID: " + complaintId);
-            System.out.println("Content: " + (content.length() > 50 ? content.substring(0, 50) + "..." : content));
-            System.out.println("Type: " + type);
-            System.out.println("Is Admin Only: " + isAdminOnly);
-            System.out.println("Has File: " + (file != null ? file.getOriginalFilename() : "No file"));
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("User: " + username);
+            log.debug("Adding comment");
+            log.debug("Complaint ID: {}", complaintId);
+            log.debug("Content: {}", (content.length() > 50 ? content.substring(0, 50) + "..." : content));
+            log.debug("Type: {}", type);
+            log.debug("Is Admin Only: {}", isAdminOnly);
+            log.debug("Has File: {}", (file != null ? file.getOriginalFilename() : "No file"));
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User: {}", username);
             
             // Validate complaint exists
             Complaint complaint = complaintRepository.findById(complaintId)
@@ -244,13 +299,11 @@ public class TestController {
             response.put("message", "Comment added successfully");
             response.put("data", commentResponse);
             
-            System.out.println("✅ Comment added successfully!");
-            System.out.println("Comment ID: " + commentResponse.getId());
-            System.out.println("==========================================\n");
+            log.debug("Comment added successfully!");
+            log.debug("Comment ID: {}", commentResponse.getId());
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR adding comment: " + e.getMessage());
-            e.printStackTrace();
+            log.error("ERROR adding comment: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Error adding comment: " + e.getMessage());
         }
@@ -260,24 +313,20 @@ public class TestController {
     
     @PostMapping(value = "/comments/json", consumes = MediaType.APPLICATION_JSON_VALUE)
     public Map<String, Object> addCommentJson(
-            @RequestBody CommentRequest commentRequest,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestBody CommentRequest commentRequest) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n💬 ========== ADDING COMMENT (JSON) ==========");
-            System.out.println("Complaint ID: " + commentRequest.getComplaintId());
-            System.out.println("Content: " + (commentRequest.getContent() != null && commentRequest.getContent().length() > 50 ? 
-                commentRequest.getContent().substring(0, 50) + "..." : commentRequest.getContent()));
-            System.out.println("Type: " + commentRequest.getType());
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("User: " + username);
+            log.debug("Adding comment (json)");
+            log.debug("Complaint ID: {}", commentRequest.getComplaintId());
+            log.debug("Content: {}", commentRequest.getContent() != null && commentRequest.getContent().length() > 50
+                    ? commentRequest.getContent().substring(0, 50) + "..." : commentRequest.getContent());
+            log.debug("Type: {}", commentRequest.getType());
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User: {}", username);
             
             // Validate complaint exists
             Complaint complaint = complaintRepository.findById(commentRequest.getComplaintId())
@@ -308,12 +357,10 @@ public class TestController {
             response.put("message", "Comment added successfully");
             response.put("data", commentResponse);
             
-            System.out.println("✅ Comment added via JSON!");
-            System.out.println("===============================================\n");
+            log.debug("Comment added via JSON!");
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR adding comment (JSON): " + e.getMessage());
-            e.printStackTrace();
+            log.error("ERROR adding comment (JSON): {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -325,37 +372,38 @@ public class TestController {
     public Map<String, Object> getComments(
             @PathVariable Long complaintId,
             @RequestParam(defaultValue = "false") boolean adminView,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("💬 Getting comments for complaint: " + complaintId);
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting comments for complaint: {}", complaintId);
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             // Validate complaint exists
-            complaintRepository.findById(complaintId)
-                    .orElseThrow(() -> new RuntimeException("Complaint not found with ID: " + complaintId));
+            if (!complaintRepository.existsById(complaintId)) {
+                throw new RuntimeException("Complaint not found with ID: " + complaintId);
+            }
             
             // Check if user is admin
             boolean isAdmin = user.getRole() == Role.ADMIN;
             
-            List<CommentResponse> comments = commentService.getCommentsByComplaintId(complaintId, isAdmin && adminView);
+            CommentPageDTO page = commentService.getCommentTimeline(complaintId, isAdmin && adminView, cursor, limit);
             
             response.put("success", true);
-            response.put("data", comments);
-            response.put("count", comments.size());
+            response.put("data", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.isHasMore());
+            response.put("limit", page.getLimit());
             response.put("isAdmin", isAdmin);
             
-            System.out.println("✅ Retrieved " + comments.size() + " comments for complaint: " + complaintId);
+            log.debug("Retrieved {} comments for complaint: {} (hasMore={})", page.getItems().size(), complaintId, page.isHasMore());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting comments: " + e.getMessage());
+            log.warn("Error getting comments: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -367,65 +415,38 @@ public class TestController {
     
     @GetMapping("/complaints/{id}/view")
     public Map<String, Object> getComplaintView(
-            @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @PathVariable Long id) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🔍 ========== VIEW COMPLAINT DETAILS ==========");
-            System.out.println("Complaint ID: " + id);
+            log.debug("View complaint details");
+            log.debug("Complaint ID: {}", id);
             
-            // Validate token
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("User requesting view: " + username);
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User requesting view: {}", username);
             
-            // Get user
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            boolean isAdmin = user.getRole() == Role.ADMIN;
             
-            // Get complaint
-            ComplaintDTO complaint = complaintService.getComplaintById(id);
-            if (complaint == null) {
-                throw new RuntimeException("Complaint not found with ID: " + id);
-            }
+            // Complaint, owner, newest comments and escalation history; cached per role
+            ComplaintViewDTO view = complaintViewService.getView(id, isAdmin);
+            ComplaintDTO complaint = view.getComplaint();
             
             // Check authorization
-            boolean isAdmin = user.getRole() == Role.ADMIN;
             if (!isAdmin && !complaint.getUserId().equals(user.getId())) {
                 throw new RuntimeException("Not authorized to view this complaint");
             }
             
-            // Get comments for this complaint
-            List<CommentResponse> comments = commentService.getCommentsByComplaintId(id, isAdmin);
-            
-            // Get escalation history if available
-            List<Map<String, Object>> escalationHistory = new ArrayList<>();
-            try {
-                List<EscalationHistory> historyList = escalationHistoryRepository.findByComplaintIdOrderByEscalatedAtDesc(id);
-                
-                for (EscalationHistory history : historyList) {
-                    Map<String, Object> historyMap = new HashMap<>();
-                    historyMap.put("escalatedAt", history.getEscalatedAt());
-                    historyMap.put("escalationLevel", history.getEscalationLevel());
-                    historyMap.put("notes", history.getNotes());
-                    historyMap.put("recipients", history.getRecipients());
-                    escalationHistory.add(historyMap);
-                }
-            } catch (Exception e) {
-                System.out.println("⚠️ Escalation history not available: " + e.getMessage());
-            }
-            
-            // Get user info
-            Optional<User> complaintUser = userRepository.findById(complaint.getUserId());
-            String complaintUserName = complaintUser.map(User::getUsername).orElse("Unknown");
-            String complaintUserEmail = complaintUser.map(User::getEmail).orElse("N/A");
+            List<CommentResponse> comments = view.getComments().getItems();
+            List<Map<String, Object>> escalationHistory = view.getEscalationHistory();
             
             // Prepare response
             response.put("success", true);
             response.put("complaint", complaint);
             response.put("comments", comments);
+            response.put("commentsNextCursor", view.getComments().getNextCursor());
+            response.put("commentsHasMore", view.getComments().isHasMore());
             response.put("escalationHistory", escalationHistory);
             response.put("user", Map.of(
                 "id", user.getId(),
@@ -435,23 +456,21 @@ public class TestController {
             ));
             response.put("complaintUser", Map.of(
                 "id", complaint.getUserId(),
-                "username", complaintUserName,
-                "email", complaintUserEmail
+                "username", view.getOwnerUsername(),
+                "email", complaint.getUserEmail() != null ? complaint.getUserEmail() : "N/A"
             ));
             response.put("canAddComment", isAdmin);
             response.put("canDownloadFile", complaint.getFileName() != null);
             
-            System.out.println("✅ Complaint view prepared for user: " + username);
-            System.out.println("   Complaint ID: " + id);
-            System.out.println("   Title: " + complaint.getTitle());
-            System.out.println("   Status: " + complaint.getStatus());
-            System.out.println("   Comments count: " + comments.size());
-            System.out.println("   Escalation history count: " + escalationHistory.size());
-            System.out.println("==============================================\n");
+            log.debug("Complaint view prepared for user: {}", username);
+            log.debug("Complaint ID: {}", id);
+            log.debug("Title: {}", complaint.getTitle());
+            log.debug("Status: {}", complaint.getStatus());
+            log.debug("Comments count: {}", comments.size());
+            log.debug("Escalation history count: {}", escalationHistory.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error in view complaint: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in view complaint: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -462,14 +481,14 @@ public class TestController {
     // ================== NEW: TEST DTO ENDPOINT ==================
     
     @GetMapping("/test-dto")
-    public Map<String, Object> testDto(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> testDto() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("🧪 Testing DTO conversion");
+            log.debug("Testing DTO conversion");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            User user = currentUser();
+            String username = user.getUsername();
             
             // Create a simple test DTO
             ComplaintDTO testDto = new ComplaintDTO();
@@ -488,11 +507,10 @@ public class TestController {
             response.put("testDto", testDto);
             response.put("message", "DTO test successful");
             
-            System.out.println("✅ DTO test completed for user: " + username);
+            log.debug("DTO test completed for user: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ DTO test error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("DTO test error: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("error", e.getMessage());
         }
@@ -500,78 +518,106 @@ public class TestController {
         return response;
     }
     
-    // ================== ENHANCED COMPLAINTS ENDPOINT WITH DEBUGGING ==================
+    // ================== PAGINATED COMPLAINTS ENDPOINT ==================
     
     @GetMapping("/complaints")
-    public Map<String, Object> getAllComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getAllComplaints(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "assignedTo", required = false) String assignedTo,
+            @RequestParam(value = "escalationLevel", required = false) Integer escalationLevel,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n📋 ========== GET ALL COMPLAINTS ==========");
+            log.debug("Get complaints page");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("✅ User requesting complaints: " + username);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User requesting complaints: {}", username);
             
             if (user.getRole() != Role.ADMIN) {
-                System.out.println("❌ User is not admin. Role: " + user.getRole());
+                log.warn("User is not admin. Role: {}", user.getRole());
                 response.put("success", false);
                 response.put("message", "Admin access required");
                 return response;
             }
             
-            System.out.println("✅ User is admin, proceeding to fetch complaints...");
-            
-            List<ComplaintDTO> complaints = complaintService.getAllComplaints();
-            System.out.println("✅ Retrieved " + complaints.size() + " complaints from service");
-            
-            // Debug: Check first few complaints
-            if (!complaints.isEmpty()) {
-                System.out.println("\n🔍 Sample complaints (first 3):");
-                for (int i = 0; i < Math.min(3, complaints.size()); i++) {
-                    ComplaintDTO dto = complaints.get(i);
-                    System.out.println("  " + (i + 1) + ". ID: " + dto.getId() + 
-                                     ", Title: " + dto.getTitle() + 
-                                     ", Status: " + dto.getStatus());
-                }
-            }
+            ComplaintFilter filter = buildFilter(status, priority, category, assignedTo, escalationLevel, from, to);
+            ComplaintPageDTO page = complaintService.getComplaintsPage(filter, cursor, limit);
             
             response.put("success", true);
-            response.put("data", complaints);
-            response.put("count", complaints.size());
+            response.put("data", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.isHasMore());
+            response.put("limit", page.getLimit());
             response.put("timestamp", new Date());
             
-            System.out.println("✅ Successfully returned " + complaints.size() + " complaints for admin: " + username);
-            System.out.println("==========================================\n");
+            log.debug("Returned {} complaints for admin: {} (hasMore={})", page.getItems().size(), username, page.isHasMore());
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR getting all complaints: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("ERROR getting complaints page: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
-            response.put("errorDetails", e.toString());
             response.put("timestamp", new Date());
         }
         
         return response;
     }
     
+    // ================== COMPLAINT SEARCH ENDPOINT ==================
+    
+    @GetMapping("/complaints/search")
+    public Map<String, Object> searchComplaints(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "sort", required = false, defaultValue = "relevance") String sort,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User user = currentUser();
+            boolean isAdmin = user.getRole() == Role.ADMIN;
+            
+            // Users search their own complaints and never see internal comments
+            ComplaintSearchPage result = complaintSearchService.search(q, status, priority, category,
+                    isAdmin ? null : user.getId(), isAdmin, sort, page, size);
+            
+            response.put("success", true);
+            response.put("data", result.getItems());
+            response.put("total", result.getTotal());
+            response.put("page", result.getPage());
+            response.put("size", result.getSize());
+            response.put("hasMore", result.isHasMore());
+            response.put("facets", result.getFacets());
+            response.put("tookMs", result.getTookMs());
+            
+        } catch (Exception e) {
+            log.warn("ERROR searching complaints: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+        }
+        
+        return response;
+    }
+    
     // ================== SIMPLE COMPLAINTS ENDPOINT (Alternative) ==================
     
     @GetMapping("/complaints/simple")
-    public Map<String, Object> getSimpleComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getSimpleComplaints() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📋 Getting simple complaints list");
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            log.debug("Getting simple complaints list");
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -598,11 +644,10 @@ public class TestController {
             response.put("data", simpleList);
             response.put("count", simpleList.size());
             
-            System.out.println("✅ Retrieved " + simpleList.size() + " complaints in simple format");
+            log.debug("Retrieved {} complaints in simple format", simpleList.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting simple complaints: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error getting simple complaints: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -613,17 +658,14 @@ public class TestController {
     // ================== NEW ANALYTICS ENDPOINTS ==================
     
     @GetMapping("/analytics/dashboard")
-    public Map<String, Object> getDashboardAnalytics(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getDashboardAnalytics() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📊 Generating dashboard analytics...");
+            log.debug("Generating dashboard analytics...");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -637,10 +679,10 @@ public class TestController {
             response.put("data", analytics);
             response.put("message", "Analytics retrieved successfully");
             
-            System.out.println("✅ Analytics sent to admin: " + username);
+            log.debug("Analytics sent to admin: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting analytics: " + e.getMessage());
+            log.warn("Error getting analytics: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -648,17 +690,46 @@ public class TestController {
         return response;
     }
     
-    @GetMapping("/analytics/export/csv")
-    public ResponseEntity<String> exportAnalyticsToCSV(@RequestHeader("Authorization") String authHeader) {
+    @GetMapping("/analytics/trend")
+    public Map<String, Object> getAnalyticsTrend(
+            @RequestParam(value = "granularity", required = false, defaultValue = "DAY") String granularity,
+            @RequestParam(value = "days", required = false, defaultValue = "30") int days) {
+        Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📊 Exporting analytics to CSV...");
+            User user = currentUser();
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
+            }
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            TrendService.Granularity g = TrendService.Granularity.valueOf(granularity.toUpperCase());
+            List<AnalyticsDTO.DailyStat> trend = trendService.getTrend(g, days);
+            
+            response.put("success", true);
+            response.put("data", trend);
+            response.put("granularity", g.name());
+            response.put("days", days);
+            
+        } catch (Exception e) {
+            log.warn("Error getting trend: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/analytics/export/csv")
+    public ResponseEntity<String> exportAnalyticsToCSV() {
+        
+        try {
+            log.debug("Exporting analytics to CSV...");
+            
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 return ResponseEntity.status(403).body("Admin access required");
@@ -666,78 +737,235 @@ public class TestController {
             
             AnalyticsDTO analytics = analyticsService.getDashboardAnalytics();
             
-            StringBuilder csv = new StringBuilder();
-            
-            // Summary section
-            csv.append("SUMMARY\n");
-            csv.append("Total Complaints,").append(analytics.getTotalComplaints()).append("\n");
-            csv.append("Resolved Complaints,").append(analytics.getResolvedComplaints()).append("\n");
-            csv.append("Pending Complaints,").append(analytics.getPendingComplaints()).append("\n");
-            csv.append("Escalated Complaints,").append(analytics.getEscalatedComplaints()).append("\n");
-            csv.append("Resolution Rate,").append(String.format("%.2f%%", analytics.getResolutionRate())).append("\n");
-            csv.append("Average Resolution Time (hours),").append(String.format("%.2f", analytics.getAverageResolutionTime())).append("\n\n");
-            
-            // Category distribution
-            csv.append("CATEGORY DISTRIBUTION\n");
-            csv.append("Category,Count\n");
-            if (analytics.getCategoryDistribution() != null) {
-                analytics.getCategoryDistribution().forEach((category, count) -> 
-                    csv.append(category).append(",").append(count).append("\n"));
+            String csv = buildAnalyticsCsv(analytics);
+            
+            // Generate filename with timestamp
+            String filename = "complaints_analytics_" + System.currentTimeMillis() + ".csv";
+            
+            log.debug("CSV exported successfully for user: {}", username);
+            
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(csv);
+            
+        } catch (Exception e) {
+            log.error("Error exporting CSV: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("Error generating CSV: " + e.getMessage());
+        }
+    }
+    
+    // Package-private for the benchmarks module (AnalyticsCsvBenchmark)
+    static String buildAnalyticsCsv(AnalyticsDTO analytics) {
+        StringBuilder csv = new StringBuilder();
+        
+        // Summary section
+        csv.append("SUMMARY\n");
+        csv.append("Total Complaints,").append(analytics.getTotalComplaints()).append("\n");
+        csv.append("Resolved Complaints,").append(analytics.getResolvedComplaints()).append("\n");
+        csv.append("Pending Complaints,").append(analytics.getPendingComplaints()).append("\n");
+        csv.append("Escalated Complaints,").append(analytics.getEscalatedComplaints()).append("\n");
+        csv.append("Resolution Rate,").append(String.format("%.2f%%", analytics.getResolutionRate())).append("\n");
+        csv.append("Average Resolution Time (hours),").append(String.format("%.2f", analytics.getAverageResolutionTime())).append("\n\n");
+        
+        // Category distribution
+        csv.append("CATEGORY DISTRIBUTION\n");
+        csv.append("Category,Count\n");
+        if (analytics.getCategoryDistribution() != null) {
+            analytics.getCategoryDistribution().forEach((category, count) -> 
+                csv.append(category).append(",").append(count).append("\n"));
+        }
+        csv.append("\n");
+        
+        // Status distribution
+        csv.append("STATUS DISTRIBUTION\n");
+        csv.append("Status,Count\n");
+        if (analytics.getStatusDistribution() != null) {
+            analytics.getStatusDistribution().forEach((status, count) -> 
+                csv.append(status).append(",").append(count).append("\n"));
+        }
+        csv.append("\n");
+        
+        // Priority distribution
+        csv.append("PRIORITY DISTRIBUTION\n");
+        csv.append("Priority,Count\n");
+        if (analytics.getPriorityDistribution() != null) {
+            analytics.getPriorityDistribution().forEach((priority, count) -> 
+                csv.append(priority).append(",").append(count).append("\n"));
+        }
+        csv.append("\n");
+        
+        // Daily trend
+        csv.append("DAILY TREND (Last 30 Days)\n");
+        csv.append("Date,Complaints,Resolved\n");
+        if (analytics.getDailyTrend() != null) {
+            analytics.getDailyTrend().forEach(day -> 
+                csv.append(day.getDate()).append(",").append(day.getComplaints()).append(",").append(day.getResolved()).append("\n"));
+        }
+        csv.append("\n");
+        
+        // Department stats
+        csv.append("DEPARTMENT PERFORMANCE\n");
+        csv.append("Department,Total Assigned,Resolved,Resolution Rate\n");
+        if (analytics.getDepartmentStats() != null) {
+            analytics.getDepartmentStats().forEach(dept -> 
+                csv.append(dept.getDepartment()).append(",")
+                   .append(dept.getTotalAssigned()).append(",")
+                   .append(dept.getResolved()).append(",")
+                   .append(String.format("%.2f%%", dept.getResolutionRate())).append("\n"));
+        }
+        
+        return csv.toString();
+    }
+    
+    // ================== STREAMING COMPLAINT CSV EXPORT ==================
+    
+    @GetMapping("/complaints/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportComplaintsToCSV(
+            @RequestParam(value = "columns", required = false) String columns,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "assignedTo", required = false) String assignedTo,
+            @RequestParam(value = "escalationLevel", required = false) Integer escalationLevel,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        
+        try {
+            log.debug("Exporting complaints to CSV...");
+            
+            User user = currentUser();
+            String username = user.getUsername();
+            
+            if (user.getRole() != Role.ADMIN) {
+                return ResponseEntity.status(403).body(out -> out.write("Admin access required".getBytes()));
             }
-            csv.append("\n");
-            
-            // Status distribution
-            csv.append("STATUS DISTRIBUTION\n");
-            csv.append("Status,Count\n");
-            if (analytics.getStatusDistribution() != null) {
-                analytics.getStatusDistribution().forEach((status, count) -> 
-                    csv.append(status).append(",").append(count).append("\n"));
+            
+            // Validate everything before the first byte is written
+            ComplaintFilter filter = buildFilter(status, priority, category, assignedTo, escalationLevel, from, to);
+            List<String> selectedColumns = complaintExportService.resolveColumns(columns);
+            
+            String filename = "complaints_export_" + System.currentTimeMillis() + ".csv";
+            StreamingResponseBody body = out -> complaintExportService.writeCsv(filter, selectedColumns, out);
+            
+            log.debug("Streaming CSV export started for user: {}", username);
+            
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(body);
+            
+        } catch (Exception e) {
+            log.warn("Error exporting complaints: {}", e.getMessage());
+            String message = "Error generating CSV: " + e.getMessage();
+            return ResponseEntity.badRequest().body(out -> out.write(message.getBytes()));
+        }
+    }
+    
+    // ================== ASYNC PDF REPORTS ==================
+    
+    @PostMapping("/reports")
+    public Map<String, Object> submitReport(
+            @RequestParam(value = "type", required = false, defaultValue = "SUMMARY") String type,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "priority", required = false) String priority,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "assignedTo", required = false) String assignedTo,
+            @RequestParam(value = "escalationLevel", required = false) Integer escalationLevel,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            log.debug("Submitting {} report...", type);
+            
+            User user = currentUser();
+            
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
             }
-            csv.append("\n");
-            
-            // Priority distribution
-            csv.append("PRIORITY DISTRIBUTION\n");
-            csv.append("Priority,Count\n");
-            if (analytics.getPriorityDistribution() != null) {
-                analytics.getPriorityDistribution().forEach((priority, count) -> 
-                    csv.append(priority).append(",").append(count).append("\n"));
+            
+            ReportJob.Type reportType = ReportJob.Type.valueOf(type.toUpperCase());
+            ComplaintFilter filter = buildFilter(status, priority, category, assignedTo, escalationLevel, from, to);
+            ReportJob job = reportService.submit(reportType, filter);
+            
+            response.put("success", true);
+            response.put("data", job);
+            response.put("cached", job.getStatus() == ReportJob.Status.DONE);
+            response.put("message", "Report " + job.getStatus().name().toLowerCase());
+            
+        } catch (Exception e) {
+            log.warn("Error submitting report: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/reports/{jobId}")
+    public Map<String, Object> getReportStatus(@PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User user = currentUser();
+            
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
             }
-            csv.append("\n");
-            
-            // Daily trend
-            csv.append("DAILY TREND (Last 30 Days)\n");
-            csv.append("Date,Complaints,Resolved\n");
-            if (analytics.getDailyTrend() != null) {
-                analytics.getDailyTrend().forEach(day -> 
-                    csv.append(day.getDate()).append(",").append(day.getComplaints()).append(",").append(day.getResolved()).append("\n"));
+            
+            ReportJob job = reportService.getJob(jobId)
+                    .orElseThrow(() -> new RuntimeException("Report job not found"));
+            
+            response.put("success", true);
+            response.put("data", job);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/reports/{jobId}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String jobId) {
+        
+        try {
+            User user = currentUser();
+            String username = user.getUsername();
+            
+            if (user.getRole() != Role.ADMIN) {
+                return ResponseEntity.status(403).build();
+            }
+            
+            ReportJob job = reportService.getJob(jobId).orElse(null);
+            if (job == null) {
+                return ResponseEntity.notFound().build();
             }
-            csv.append("\n");
-            
-            // Department stats
-            csv.append("DEPARTMENT PERFORMANCE\n");
-            csv.append("Department,Total Assigned,Resolved,Resolution Rate\n");
-            if (analytics.getDepartmentStats() != null) {
-                analytics.getDepartmentStats().forEach(dept -> 
-                    csv.append(dept.getDepartment()).append(",")
-                       .append(dept.getTotalAssigned()).append(",")
-                       .append(dept.getResolved()).append(",")
-                       .append(String.format("%.2f%%", dept.getResolutionRate())).append("\n"));
+            if (job.getStatus() != ReportJob.Status.DONE) {
+                // Not ready yet (or failed); poll /reports/{jobId} for the status
+                return ResponseEntity.status(409).build();
             }
             
-            // Generate filename with timestamp
-            String filename = "complaints_analytics_" + System.currentTimeMillis() + ".csv";
+            Resource resource = new UrlResource(Paths.get(job.getFilePath()).toUri());
+            String filename = "grievance_" + job.getType().name().toLowerCase() + "_report_" + job.getId() + ".pdf";
             
-            System.out.println("✅ CSV exported successfully for user: " + username);
+            log.debug("Sending report {} to {}", job.getId(), username);
             
             return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .contentLength(job.getFileSize())
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .body(csv.toString());
+                    .body(resource);
             
         } catch (Exception e) {
-            System.out.println("❌ Error exporting CSV: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).body("Error generating CSV: " + e.getMessage());
+            log.warn("Error downloading report: {}", e.getMessage());
+            return ResponseEntity.status(500).build();
         }
     }
     
@@ -745,19 +973,15 @@ public class TestController {
     
     @GetMapping("/complaints/{id}/details")
     public Map<String, Object> getComplaintDetails(
-            @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @PathVariable Long id) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("🔍 Getting complaint details: " + id);
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting complaint details: {}", id);
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             boolean isAdmin = user.getRole() == Role.ADMIN;
             ComplaintDTO complaintResponse = complaintService.getComplaintById(id);
@@ -766,10 +990,10 @@ public class TestController {
             response.put("data", complaintResponse);
             response.put("isAdmin", isAdmin);
             
-            System.out.println("✅ Complaint details retrieved for user: " + username);
+            log.debug("Complaint details retrieved for user: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting complaint details: " + e.getMessage());
+            log.warn("Error getting complaint details: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -782,7 +1006,7 @@ public class TestController {
     @GetMapping("/test")
     public Map<String, Object> test() {
         Map<String, Object> response = new HashMap<>();
-        System.out.println("🔧 Test endpoint called");
+        log.debug("Test endpoint called");
         response.put("success", true);
         response.put("message", "IT Grievance System API is working!");
         response.put("timestamp", new Date());
@@ -791,13 +1015,13 @@ public class TestController {
     }
     
     @GetMapping("/complaints/my-complaints")
-    public Map<String, Object> getMyComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getMyComplaints() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📋 Getting user complaints");
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting user complaints");
+            User user = currentUser();
+            String username = user.getUsername();
             
             List<ComplaintDTO> myComplaints = complaintService.getUserComplaints(username);
             
@@ -805,10 +1029,10 @@ public class TestController {
             response.put("data", myComplaints);
             response.put("count", myComplaints.size());
             
-            System.out.println("✅ Retrieved " + myComplaints.size() + " complaints for user: " + username);
+            log.debug("Retrieved {} complaints for user: {}", myComplaints.size(), username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting user complaints: " + e.getMessage());
+            log.warn("Error getting user complaints: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -822,32 +1046,28 @@ public class TestController {
             @RequestParam("description") String description,
             @RequestParam(value = "category", required = false, defaultValue = "Other") String category,
             @RequestParam(value = "priority", required = false, defaultValue = "MEDIUM") String priority,
-            @RequestParam(value = "file", required = false) MultipartFile file,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestParam(value = "file", required = false) MultipartFile file) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n📝 ========== CREATING NEW COMPLAINT ==========");
-            System.out.println("Title: " + title);
-            System.out.println("Category: " + category);
-            System.out.println("Priority: " + priority);
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("✅ User creating complaint: " + username);
+            log.debug("Creating new complaint");
+            log.debug("Title: {}", title);
+            log.debug("Category: {}", category);
+            log.debug("Priority: {}", priority);
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User creating complaint: {}", username);
             
-            System.out.println("✅ User found: " + user.getUsername() + ", Role: " + user.getRole());
+            log.debug("User found: {}, Role: {}", user.getUsername(), user.getRole());
             
             String validPriority = priority.toUpperCase();
             if (!isValidPriority(validPriority)) {
                 validPriority = "MEDIUM";
             }
             
-            System.out.println("✅ Valid priority: " + validPriority);
+            log.debug("Valid priority: {}", validPriority);
             
             ComplaintDTO complaintDTO = new ComplaintDTO();
             complaintDTO.setTitle(title);
@@ -857,7 +1077,7 @@ public class TestController {
             
             ComplaintDTO savedComplaint;
             if (file != null && !file.isEmpty()) {
-                System.out.println("📎 File attached: " + file.getOriginalFilename());
+                log.debug("File attached: {}", file.getOriginalFilename());
                 savedComplaint = complaintService.createComplaintWithFile(complaintDTO, username, file);
             } else {
                 savedComplaint = complaintService.createComplaint(complaintDTO, username);
@@ -868,12 +1088,10 @@ public class TestController {
             response.put("complaintId", savedComplaint.getId());
             response.put("data", savedComplaint);
             
-            System.out.println("✅ Complaint created successfully with ID: " + savedComplaint.getId());
-            System.out.println("================================================\n");
+            log.debug("Complaint created successfully with ID: {}", savedComplaint.getId());
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR creating complaint: " + e.getMessage());
-            e.printStackTrace();
+            log.error("ERROR creating complaint: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -884,19 +1102,15 @@ public class TestController {
     @PutMapping("/complaints/{id}/status")
     public Map<String, Object> updateComplaintStatus(
             @PathVariable Long id,
-            @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestBody Map<String, String> request) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("✏️ Updating complaint status, ID: " + id);
+            log.debug("Updating complaint status, ID: {}", id);
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -919,10 +1133,10 @@ public class TestController {
             response.put("message", "Status updated to " + status);
             response.put("data", updated);
             
-            System.out.println("✅ Complaint status updated by admin: " + username);
+            log.debug("Complaint status updated by admin: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error updating complaint status: " + e.getMessage());
+            log.warn("Error updating complaint status: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -930,71 +1144,68 @@ public class TestController {
         return response;
     }
     
-    @GetMapping("/complaints/{complaintId}/download")
-    public ResponseEntity<Resource> downloadFile(@PathVariable Long complaintId, 
-                                                @RequestHeader("Authorization") String authHeader) throws IOException {
+    @PutMapping("/complaints/{id}/duplicate-of")
+    public Map<String, Object> setDuplicateOf(
+            @PathVariable Long id,
+            @RequestBody Map<String, Long> request) {
+        
+        Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n📥 ========== DOWNLOAD FILE REQUEST ==========");
-            System.out.println("Complaint ID: " + complaintId);
+            User user = currentUser();
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("User requesting download: " + username);
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
+            }
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // {"primaryId": 12} links the complaint, {"primaryId": null} unlinks it
+            Long primaryId = request.get("primaryId");
+            ComplaintDTO updated = complaintService.setDuplicateOf(id, primaryId);
             
-            Optional<Complaint> complaintOpt = complaintRepository.findById(complaintId);
-            if (complaintOpt.isEmpty()) {
-                System.out.println("❌ Complaint not found with ID: " + complaintId);
-                throw new RuntimeException("Complaint not found");
-            }
-            Complaint complaint = complaintOpt.get();
+            response.put("success", true);
+            response.put("message", updated.getDuplicateOf() != null
+                    ? "Complaint marked as duplicate of #" + updated.getDuplicateOf()
+                    : "Complaint is no longer marked as a duplicate");
+            response.put("data", updated);
             
-            if (complaint.getFileName() == null || complaint.getFileName().isEmpty()) {
-                System.out.println("❌ No file attached to this complaint");
-                throw new RuntimeException("No file attached to this complaint");
-            }
+            log.debug("Complaint {} duplicate link set to {} by admin: {}", id, primaryId, user.getUsername());
             
-            if (user.getRole() != Role.ADMIN && !complaint.getUser().getId().equals(user.getId())) {
-                System.out.println("❌ Permission denied");
-                throw new RuntimeException("You don't have permission to download this file");
-            }
+        } catch (Exception e) {
+            log.warn("Error updating duplicate link: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/complaints/{complaintId}/download")
+    public void downloadFile(@PathVariable Long complaintId, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        
+        try {
+            log.debug("Download file request");
+            log.debug("Complaint ID: {}", complaintId);
             
-            String filePathStr = complaint.getFilePath();
-            Path filePath = Paths.get(filePathStr);
-            
-            if (!Files.exists(filePath)) {
-                String fileNameOnly = Paths.get(filePathStr).getFileName().toString();
-                Path uploadPath = Paths.get(uploadDir);
-                Path alternativePath = uploadPath.resolve(fileNameOnly);
-                
-                if (Files.exists(alternativePath)) {
-                    filePath = alternativePath;
-                } else {
-                    throw new RuntimeException("File not found on server");
-                }
-            }
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User requesting download: {}", username);
             
-            Resource resource = new UrlResource(filePath.toUri());
+            // Cached per complaint, so a repeated or resumed download skips the database
+            AttachmentDownloadService.Attachment attachment = attachmentDownloadService.resolve(complaintId);
             
-            String contentType = complaint.getFileType();
-            if (contentType == null || contentType.isEmpty()) {
-                contentType = "application/octet-stream";
+            if (user.getRole() != Role.ADMIN && !attachment.getOwnerId().equals(user.getId())) {
+                log.warn("Permission denied");
+                throw new RuntimeException("You don't have permission to download this file");
             }
             
-            System.out.println("✅ Sending file: " + complaint.getFileName());
-            System.out.println("=========================================\n");
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + complaint.getFileName() + "\"")
-                    .body(resource);
+            log.debug("Sending file: {}", attachment.getFileName());
+            attachmentDownloadService.send(attachment, request, response);
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR in download: " + e.getMessage());
+            log.warn("ERROR in download: {}", e.getMessage());
             throw new RuntimeException("File download failed: " + e.getMessage());
         }
     }
@@ -1002,7 +1213,7 @@ public class TestController {
     @GetMapping("/health")
     public Map<String, Object> healthCheck() {
         Map<String, Object> response = new HashMap<>();
-        System.out.println("🏥 Health check requested");
+        log.debug("Health check requested");
         response.put("status", "UP");
         response.put("service", "IT Grievance System");
         response.put("timestamp", new Date());
@@ -1015,7 +1226,7 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🧪 ========== TEST CREATE COMPLAINT ==========");
+            log.debug("Test create complaint");
             
             List<User> users = userRepository.findAll();
             if (users.isEmpty()) {
@@ -1023,7 +1234,7 @@ public class TestController {
             }
             
             User user = users.get(0);
-            System.out.println("🧪 Using user: " + user.getUsername());
+            log.debug("Using user: {}", user.getUsername());
             
             ComplaintDTO complaintDTO = new ComplaintDTO();
             complaintDTO.setTitle("Test Complaint from API");
@@ -1039,12 +1250,10 @@ public class TestController {
             response.put("title", saved.getTitle());
             response.put("userId", saved.getUserId());
             
-            System.out.println("🧪 TEST: Complaint created with ID: " + saved.getId());
-            System.out.println("================================================\n");
+            log.debug("TEST: Complaint created with ID: {}", saved.getId());
             
         } catch (Exception e) {
-            System.out.println("❌ TEST ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.error("TEST ERROR: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("error", e.getMessage());
         }
@@ -1057,17 +1266,17 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🔍 ========== TEST JWT TOKEN ==========");
+            log.debug("Test jwt token");
             
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("❌ No Bearer token provided");
+                log.warn("No Bearer token provided");
                 response.put("success", false);
                 response.put("message", "No token provided");
                 return response;
             }
             
             String token = authHeader.substring(7);
-            System.out.println("Token received, length: " + token.length());
+            log.debug("Token received, length: {}", token.length());
             
             boolean isValid = jwtUtil.validateToken(token);
             String username = jwtUtil.extractUsername(token);
@@ -1077,11 +1286,10 @@ public class TestController {
             response.put("username", username);
             response.put("token_length", token.length());
             
-            System.out.println("✅ JWT Test completed");
-            System.out.println("=================================\n");
+            log.debug("JWT Test completed");
             
         } catch (Exception e) {
-            System.out.println("❌ JWT Test error: " + e.getMessage());
+            log.warn("JWT Test error: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1090,17 +1298,14 @@ public class TestController {
     }
     
     @GetMapping("/users")
-    public Map<String, Object> getAllUsers(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getAllUsers() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("👥 Getting all users");
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting all users");
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1126,10 +1331,10 @@ public class TestController {
             response.put("users", userList);
             response.put("count", users.size());
             
-            System.out.println("✅ Retrieved " + users.size() + " users");
+            log.debug("Retrieved {} users", users.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting users: " + e.getMessage());
+            log.warn("Error getting users: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1138,17 +1343,14 @@ public class TestController {
     }
     
     @GetMapping("/admin/stats")
-    public Map<String, Object> getAdminStats(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getAdminStats() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📊 Getting admin stats");
+            log.debug("Getting admin stats");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1156,23 +1358,13 @@ public class TestController {
                 return response;
             }
             
-            List<ComplaintDTO> complaints = complaintService.getAllComplaints();
-            
-            long totalComplaints = complaints.size();
-            long openComplaints = complaints.stream()
-                    .filter(c -> "OPEN".equals(c.getStatus()))
-                    .count();
-            long inProgressComplaints = complaints.stream()
-                    .filter(c -> "IN_PROGRESS".equals(c.getStatus()))
-                    .count();
-            long resolvedComplaints = complaints.stream()
-                    .filter(c -> "RESOLVED".equals(c.getStatus()))
-                    .count();
+            long totalComplaints = complaintService.countAllComplaints();
+            long openComplaints = complaintService.countByStatus("OPEN");
+            long inProgressComplaints = complaintService.countByStatus("IN_PROGRESS");
+            long resolvedComplaints = complaintService.countByStatus("RESOLVED");
             
             // Escalation stats
-            long escalatedComplaints = complaints.stream()
-                    .filter(c -> c.getEscalationLevel() != null && c.getEscalationLevel() > 0)
-                    .count();
+            long escalatedComplaints = complaintRepository.countEscalated();
             
             response.put("success", true);
             response.put("stats", Map.of(
@@ -1183,11 +1375,107 @@ public class TestController {
                 "escalatedComplaints", escalatedComplaints,
                 "usersCount", userRepository.count()
             ));
+            response.put("authCaches", Map.of(
+                "verifiedTokens", jwtUtil.getClaimsCacheStats(),
+                "users", userCache.getStats()
+            ));
+            response.put("search", complaintSearchService.getStats());
+            response.put("duplicates", duplicateDetectionService.getStats());
+            response.put("attachments", blobStore.getStats());
+            response.put("downloads", attachmentDownloadService.getStats());
+            response.put("complaintViews", complaintViewService.getStats());
+            response.put("passwords", passwordHasher.getStats());
+            response.put("loginThrottle", loginThrottle.getStats());
+            response.put("clusterSync", clusterSyncService.getStats());
+            
+            log.debug("Admin stats sent to: {}", username);
+            
+        } catch (Exception e) {
+            log.warn("Error getting admin stats: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/admin/email-outbox")
+    public Map<String, Object> getEmailOutboxMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User user = currentUser();
+            
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
+            }
             
-            System.out.println("✅ Admin stats sent to: " + username);
+            response.put("success", true);
+            response.put("data", emailOutboxDispatcher.getMetrics());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting admin stats: " + e.getMessage());
+            log.warn("Error getting outbox metrics: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @GetMapping("/admin/executors")
+    public Map<String, Object> getExecutorMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User user = currentUser();
+            
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
+            }
+            
+            Map<String, Object> pools = new TreeMap<>();
+            for (InstrumentedExecutor executor : executors) {
+                pools.put(executor.getName(), executor.getMetrics());
+            }
+            
+            response.put("success", true);
+            response.put("data", pools);
+            
+        } catch (Exception e) {
+            log.warn("Error getting executor metrics: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        
+        return response;
+    }
+    
+    @PostMapping("/admin/search/rebuild")
+    public Map<String, Object> rebuildSearchIndex() {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User user = currentUser();
+            
+            if (user.getRole() != Role.ADMIN) {
+                response.put("success", false);
+                response.put("message", "Admin access required");
+                return response;
+            }
+            
+            complaintSearchService.rebuildInBackground();
+            log.info("Search index rebuild requested by {}", user.getUsername());
+            
+            response.put("success", true);
+            response.put("message", "Search index rebuild started");
+            response.put("data", complaintSearchService.getStats());
+            
+        } catch (Exception e) {
+            log.warn("Error starting search index rebuild: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1200,11 +1488,10 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("🗄️ Testing database connection");
+            log.debug("Testing database connection");
             
             long userCount = userRepository.count();
-            List<ComplaintDTO> complaints = complaintService.getAllComplaints();
-            long complaintCount = complaints.size();
+            long complaintCount = complaintService.countAllComplaints();
             
             response.put("success", true);
             response.put("database", "connected");
@@ -1212,10 +1499,10 @@ public class TestController {
             response.put("complaints_count", complaintCount);
             response.put("message", "Database connection successful");
             
-            System.out.println("✅ Database test successful");
+            log.debug("Database test successful");
             
         } catch (Exception e) {
-            System.out.println("❌ Database test failed: " + e.getMessage());
+            log.warn("Database test failed: {}", e.getMessage());
             response.put("success", false);
             response.put("database", "error");
             response.put("error", e.getMessage());
@@ -1229,8 +1516,8 @@ public class TestController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🔍 ========== DEBUG AUTH HEADER ==========");
-            System.out.println("Full Authorization header: " + authHeader);
+            log.debug("Debug auth header");
+            log.debug("Full Authorization header: {}", authHeader);
             
             if (authHeader == null) {
                 response.put("success", false);
@@ -1246,7 +1533,7 @@ public class TestController {
             }
             
             String token = authHeader.substring(7);
-            System.out.println("Token extracted, length: " + token.length());
+            log.debug("Token extracted, length: {}", token.length());
             
             boolean isValid = jwtUtil.validateToken(token);
             response.put("success", true);
@@ -1257,11 +1544,10 @@ public class TestController {
                 response.put("username", jwtUtil.extractUsername(token));
             }
             
-            System.out.println("✅ Debug completed");
-            System.out.println("===================================\n");
+            log.debug("Debug completed");
             
         } catch (Exception e) {
-            System.out.println("❌ Debug error: " + e.getMessage());
+            log.warn("Debug error: {}", e.getMessage());
             response.put("success", false);
             response.put("error", e.getMessage());
         }
@@ -1270,18 +1556,17 @@ public class TestController {
     }
     
     @GetMapping("/debug/file/{complaintId}")
-    public Map<String, Object> debugFileInfo(@PathVariable Long complaintId, 
-                                            @RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> debugFileInfo(@PathVariable Long complaintId) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🔍 ========== DEBUG FILE INFO ==========");
-            System.out.println("Complaint ID: " + complaintId);
+            log.debug("Debug file info");
+            log.debug("Complaint ID: {}", complaintId);
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            System.out.println("User: " + username);
+            User user = currentUser();
+            String username = user.getUsername();
+            log.debug("User: {}", username);
             
             Optional<Complaint> complaintOpt = complaintRepository.findById(complaintId);
             if (complaintOpt.isEmpty()) {
@@ -1291,17 +1576,20 @@ public class TestController {
             }
             
             Complaint complaint = complaintOpt.get();
-            System.out.println("Complaint Title: " + complaint.getTitle());
-            System.out.println("File Name in DB: " + complaint.getFileName());
-            System.out.println("File Path in DB: " + complaint.getFilePath());
+            log.debug("Complaint Title: {}", complaint.getTitle());
+            log.debug("File Name in DB: {}", complaint.getFileName());
+            log.debug("File Path in DB: {}", complaint.getFilePath());
             
             response.put("success", true);
-            response.put("fileExists", complaint.getFilePath() != null && Files.exists(Paths.get(complaint.getFilePath())));
+            response.put("fileExists", complaint.getFileHash() != null
+                    ? blobStore.exists(complaint.getFileHash())
+                    : complaint.getFilePath() != null && Files.exists(Paths.get(complaint.getFilePath())));
             response.put("fileName", complaint.getFileName());
             response.put("filePath", complaint.getFilePath());
+            response.put("fileHash", complaint.getFileHash());
             
         } catch (Exception e) {
-            System.out.println("❌ Debug error: " + e.getMessage());
+            log.warn("Debug error: {}", e.getMessage());
             response.put("success", false);
             response.put("error", e.getMessage());
         }
@@ -1312,17 +1600,13 @@ public class TestController {
     // ================== ESCALATION ENDPOINTS ==================
     
     @GetMapping("/admin/escalation/complaints")
-    public Map<String, Object> getEscalatedComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getEscalatedComplaints() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📈 Getting escalated complaints");
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting escalated complaints");
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1335,10 +1619,10 @@ public class TestController {
             response.put("data", escalatedComplaints);
             response.put("count", escalatedComplaints.size());
             
-            System.out.println("✅ Retrieved " + escalatedComplaints.size() + " escalated complaints");
+            log.debug("Retrieved {} escalated complaints", escalatedComplaints.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting escalated complaints: " + e.getMessage());
+            log.warn("Error getting escalated complaints: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1347,17 +1631,13 @@ public class TestController {
     }
     
     @GetMapping("/admin/escalation/pending")
-    public Map<String, Object> getPendingEscalationComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getPendingEscalationComplaints() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("⏳ Getting pending escalation complaints");
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting pending escalation complaints");
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1370,10 +1650,10 @@ public class TestController {
             response.put("data", pendingComplaints);
             response.put("count", pendingComplaints.size());
             
-            System.out.println("✅ Retrieved " + pendingComplaints.size() + " pending escalation complaints");
+            log.debug("Retrieved {} pending escalation complaints", pendingComplaints.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting pending escalation complaints: " + e.getMessage());
+            log.warn("Error getting pending escalation complaints: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1382,17 +1662,13 @@ public class TestController {
     }
     
     @GetMapping("/admin/escalation/high-priority")
-    public Map<String, Object> getHighPriorityComplaints(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getHighPriorityComplaints() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("⚠️ Getting high priority complaints");
+            log.warn("Getting high priority complaints");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1405,10 +1681,10 @@ public class TestController {
             response.put("data", highPriority);
             response.put("count", highPriority.size());
             
-            System.out.println("✅ Retrieved " + highPriority.size() + " high priority complaints");
+            log.debug("Retrieved {} high priority complaints", highPriority.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting high priority complaints: " + e.getMessage());
+            log.warn("Error getting high priority complaints: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1419,17 +1695,14 @@ public class TestController {
     // ================== TEST ESCALATION ENDPOINTS ==================
     
     @PostMapping("/admin/escalation/test-trigger")
-    public Map<String, Object> testTriggerEscalation(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> testTriggerEscalation() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n🚀 ========== TEST TRIGGER ESCALATION ==========");
+            log.debug("Test trigger escalation");
             
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
-            
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1444,11 +1717,10 @@ public class TestController {
             response.put("message", "Escalation check triggered successfully");
             response.put("timestamp", new Date());
             
-            System.out.println("✅ Escalation test triggered by admin: " + username);
-            System.out.println("==============================================\n");
+            log.debug("Escalation test triggered by admin: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error triggering escalation: " + e.getMessage());
+            log.warn("Error triggering escalation: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -1459,20 +1731,15 @@ public class TestController {
     @PostMapping("/admin/escalation/manual/{complaintId}")
     public Map<String, Object> manualEscalateComplaint(
             @PathVariable Long complaintId,
-            @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestBody Map<String, String> request) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("\n👨‍💼 ========== MANUAL ESCALATION ==========");
-            System.out.println("Complaint ID: " + complaintId);
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Manual escalation");
+            log.debug("Complaint ID: {}", complaintId);
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1483,8 +1750,8 @@ public class TestController {
             Integer targetLevel = request.get("targetLevel") != null ? Integer.parseInt(request.get("targetLevel")) : 1;
             String reason = request.get("reason") != null ? request.get("reason") : "Manual escalation by admin";
             
-            System.out.println("Target Level: " + targetLevel);
-            System.out.println("Reason: " + reason);
+            log.debug("Target Level: {}", targetLevel);
+            log.debug("Reason: {}", reason);
             
             // Manual escalation
             ComplaintDTO escalatedComplaint = complaintService.manuallyEscalateComplaint(complaintId, targetLevel, reason);
@@ -1493,12 +1760,10 @@ public class TestController {
             response.put("message", "Complaint manually escalated to level " + targetLevel);
             response.put("data", escalatedComplaint);
             
-            System.out.println("✅ Manual escalation completed for complaint: " + complaintId);
-            System.out.println("==================================================\n");
+            log.debug("Manual escalation completed for complaint: {}", complaintId);
             
         } catch (Exception e) {
-            System.out.println("❌ Error in manual escalation: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in manual escalation: {}", e.getMessage(), e);
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -1507,17 +1772,14 @@ public class TestController {
     }
     
     @GetMapping("/admin/escalation/stats")
-    public Map<String, Object> getEscalationStats(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getEscalationStats() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("📊 Getting escalation statistics");
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting escalation statistics");
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
+            String username = user.getUsername();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1531,10 +1793,10 @@ public class TestController {
             response.put("data", stats);
             response.put("message", "Escalation statistics retrieved");
             
-            System.out.println("✅ Escalation stats sent to admin: " + username);
+            log.debug("Escalation stats sent to admin: {}", username);
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting escalation stats: " + e.getMessage());
+            log.warn("Error getting escalation stats: {}", e.getMessage());
             response.put("success", false);
             response.put("message", "Error: " + e.getMessage());
         }
@@ -1543,17 +1805,13 @@ public class TestController {
     }
     
     @GetMapping("/admin/escalation/config")
-    public Map<String, Object> getEscalationConfig(@RequestHeader("Authorization") String authHeader) {
+    public Map<String, Object> getEscalationConfig() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            System.out.println("⚙️ Getting escalation configuration");
-            
-            String token = validateAndExtractToken(authHeader);
-            String username = jwtUtil.extractUsername(token);
+            log.debug("Getting escalation configuration");
             
-            User user = authService.getUserByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            User user = currentUser();
             
             if (user.getRole() != Role.ADMIN) {
                 response.put("success", false);
@@ -1567,10 +1825,10 @@ public class TestController {
             response.put("data", configs);
             response.put("count", configs.size());
             
-            System.out.println("✅ Retrieved " + configs.size() + " escalation configs");
+            log.debug("Retrieved {} escalation configs", configs.size());
             
         } catch (Exception e) {
-            System.out.println("❌ Error getting escalation config: " + e.getMessage());
+            log.warn("Error getting escalation config: {}", e.getMessage());
             response.put("success", false);
             response.put("message", e.getMessage());
         }
@@ -1584,36 +1842,42 @@ public class TestController {
         return type.equals("PUBLIC") || type.equals("INTERNAL");
     }
     
-    private String validateAndExtractToken(String authHeader) {
-        try {
-            System.out.println("🔍 Validating Authorization header...");
-            
-            if (authHeader == null) {
-                throw new RuntimeException("No Authorization header");
-            }
-            
-            if (!authHeader.startsWith("Bearer ")) {
-                throw new RuntimeException("Invalid Authorization format. Should start with 'Bearer '");
-            }
-            
-            String token = authHeader.substring(7);
-            System.out.println("🔑 Token extracted, length: " + token.length());
-            
-            boolean isValid = jwtUtil.validateToken(token);
-            if (!isValid) {
-                throw new RuntimeException("Token validation failed");
-            }
-            
-            System.out.println("✅ Token validated successfully");
-            return token;
-            
-        } catch (Exception e) {
-            System.out.println("❌ Token validation error: " + e.getMessage());
-            throw new RuntimeException("Token error: " + e.getMessage());
+    // The User resolved by JwtFilter for this request
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
+            throw new RuntimeException("Not authenticated");
         }
+        return (User) authentication.getPrincipal();
+    }
+    
+    private ResponseEntity<Map<String, Object>> tooManyRequests(Map<String, Object> response, long retryAfterSeconds,
+                                                                String message) {
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
     }
     
     private boolean isValidPriority(String priority) {
         return priority.equals("LOW") || priority.equals("MEDIUM") || priority.equals("HIGH");
     }
+    
+    private ComplaintFilter buildFilter(String status, String priority, String category, String assignedTo,
+                                        Integer escalationLevel, Date from, Date to) {
+        ComplaintFilter filter = new ComplaintFilter();
+        if (status != null && !status.isEmpty()) {
+            filter.setStatus(Complaint.Status.valueOf(status.toUpperCase()));
+        }
+        if (priority != null && !priority.isEmpty()) {
+            filter.setPriority(Complaint.Priority.valueOf(priority.toUpperCase()));
+        }
+        filter.setCategory(category);
+        filter.setAssignedTo(assignedTo);
+        filter.setEscalationLevel(escalationLevel);
+        filter.setCreatedFrom(from);
+        filter.setCreatedTo(to);
+        return filter;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.grievance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * One bounded executor per workload, so a burst in one (e.g. a mail storm)
+ * cannot take threads from another. Every pool is configured under
+ * app.executors.&lt;name&gt;.* (core-size, max-size, queue-capacity,
+ * rejection-policy, block-timeout-ms, virtual-threads).
+ *
+ * mail and escalation default to one thread with a one-slot DISCARD queue:
+ * their scheduled runs coalesce instead of piling up or overlapping.
+ * general backs plain @Async and Spring MVC async requests (CSV export).
+ * password runs BCrypt for logins and registrations, one thread per core by
+ * default; it aborts when full so a login storm is answered with 429 instead
+ * of holding request threads that the rest of the API needs.
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfig implements AsyncConfigurer {
+
+    @Autowired
+    private Environment env;
+
+    @Bean
+    public InstrumentedExecutor mailExecutor() {
+        return build("mail", 1, 1, 1, InstrumentedExecutor.RejectionPolicy.DISCARD);
+    }
+
+    @Bean
+    public InstrumentedExecutor escalationExecutor() {
+        return build("escalation", 1, 1, 1, InstrumentedExecutor.RejectionPolicy.DISCARD);
+    }
+
+    @Bean
+    public InstrumentedExecutor reportsExecutor() {
+        return build("reports", 2, 2, 20, InstrumentedExecutor.RejectionPolicy.ABORT);
+    }
+
+    @Bean
+    public InstrumentedExecutor generalExecutor() {
+        return build("general", 2, 8, 100, InstrumentedExecutor.RejectionPolicy.CALLER_RUNS);
+    }
+
+    @Bean
+    public InstrumentedExecutor passwordExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return build("password", cores, cores, 16 * cores, InstrumentedExecutor.RejectionPolicy.ABORT);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return generalExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (error, method, params) ->
+                log.error("Uncaught exception in @Async method {}", method.getName(), error);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private InstrumentedExecutor build(String name, int coreSize, int maxSize, int queueCapacity,
+                                       InstrumentedExecutor.RejectionPolicy policy) {
+        String prefix = "app.executors." + name + ".";
+        boolean virtualDefault = env.getProperty("app.executors.virtual-threads", Boolean.class, false);
+
+        int core = env.getProperty(prefix + "core-size", Integer.class, coreSize);
+        int max = env.getProperty(prefix + "max-size", Integer.class, Math.max(maxSize, core));
+        int queue = env.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity);
+        InstrumentedExecutor.RejectionPolicy rejection = InstrumentedExecutor.RejectionPolicy.valueOf(
+                env.getProperty(prefix + "rejection-policy", policy.name()).toUpperCase());
+        long blockTimeout = env.getProperty(prefix + "block-timeout-ms", Long.class, 5000L);
+        boolean virtual = env.getProperty(prefix + "virtual-threads", Boolean.class, virtualDefault);
+
+        log.info("Executor '{}': core={}, max={}, queue={}, rejection={}, virtualThreads={}",
+                name, core, max, queue, rejection, virtual);
+        return new InstrumentedExecutor(name, core, max, queue, rejection, blockTimeout, virtual);
+    }
+}
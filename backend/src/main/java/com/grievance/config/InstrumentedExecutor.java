@@ -0,0 +1,339 @@
+package com.grievance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named, bounded executor for one workload. Runs on a fixed platform-thread
+ * pool with a bounded queue, or (when requested and the JVM supports it) on
+ * virtual threads with the same concurrency and queue limits enforced by
+ * semaphores. Work that does not fit is handled by the configured
+ * {@link RejectionPolicy}. Queue wait and run time are recorded per task,
+ * and each task runs with the submitter's logging MDC (request id, user).
+ *
+ * A task from submit() is a FutureTask, which keeps its exception instead of
+ * throwing it; it counts as failed when its Future finishes exceptionally,
+ * and is cancelled when DISCARD drops it so that no caller waits on it.
+ */
+@Slf4j
+public class InstrumentedExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    public enum RejectionPolicy {
+        ABORT,        // throw RejectedExecutionException to the submitter
+        CALLER_RUNS,  // run on the submitting thread (back-pressure)
+        BLOCK,        // wait up to block-timeout for room, then abort
+        DISCARD       // drop the task and count it
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final long blockTimeoutMillis;
+
+    // Platform mode
+    private final ThreadPoolExecutor pool;
+
+    // Virtual-thread mode: admission covers running + waiting, concurrency covers running
+    private final ThreadFactory virtualThreadFactory;
+    private final Semaphore admission;
+    private final Semaphore concurrency;
+    private final AtomicInteger virtualActive = new AtomicInteger();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public InstrumentedExecutor(String name, int coreSize, int maxSize, int queueCapacity,
+                                RejectionPolicy rejectionPolicy, long blockTimeoutMillis, boolean virtualThreads) {
+        this.name = name;
+        this.maxSize = Math.max(maxSize, coreSize);
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+
+        ThreadFactory virtualFactory = virtualThreads ? virtualThreadFactory(name) : null;
+        if (virtualThreads && virtualFactory == null) {
+            log.warn("Executor '{}': virtual threads requested but not available on this JVM, using platform threads", name);
+        }
+
+        if (virtualFactory != null) {
+            this.virtualThreadFactory = virtualFactory;
+            this.admission = new Semaphore(this.maxSize + queueCapacity);
+            this.concurrency = new Semaphore(this.maxSize);
+            this.pool = null;
+        } else {
+            this.virtualThreadFactory = null;
+            this.admission = null;
+            this.concurrency = null;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(coreSize, this.maxSize, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> reject(runnable));
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submitted.increment();
+        TimedTask timed = new TimedTask(task);
+        if (pool != null) {
+            pool.execute(timed);
+        } else {
+            executeVirtual(timed);
+        }
+    }
+
+    /** Spring 5.3 still declares this abstract; the timeout hint is ignored. */
+    @Override
+    @Deprecated
+    public void execute(Runnable task, long startTimeout) {
+        execute(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long done = completed.sum() + failed.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", pool != null ? "platform" : "virtual");
+        metrics.put("rejectionPolicy", rejectionPolicy.name());
+        metrics.put("maxSize", maxSize);
+        metrics.put("queueCapacity", queueCapacity);
+        if (pool != null) {
+            metrics.put("poolSize", pool.getPoolSize());
+            metrics.put("activeCount", pool.getActiveCount());
+            metrics.put("queueDepth", pool.getQueue().size());
+        } else {
+            metrics.put("activeCount", virtualActive.get());
+            metrics.put("queueDepth", Math.max(0, maxSize + queueCapacity - admission.availablePermits() - virtualActive.get()));
+        }
+        metrics.put("submitted", submitted.sum());
+        metrics.put("completed", completed.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("callerRuns", callerRuns.sum());
+        metrics.put("avgQueueWaitMs", done > 0 ? round(waitNanos.sum() / 1e6 / done) : 0.0);
+        metrics.put("maxQueueWaitMs", round(maxWaitNanos.get() / 1e6));
+        metrics.put("avgRunMs", done > 0 ? round(runNanos.sum() / 1e6 / done) : 0.0);
+        metrics.put("maxRunMs", round(maxRunNanos.get() / 1e6));
+        return metrics;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void executeVirtual(TimedTask task) {
+        if (admission.tryAcquire()) {
+            startVirtual(task);
+        } else {
+            reject(task);
+        }
+    }
+
+    // Caller holds one admission permit
+    private void startVirtual(Runnable task) {
+        Runnable wrapped = () -> {
+            try {
+                concurrency.acquire();
+            } catch (InterruptedException e) {
+                admission.release();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            virtualActive.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                virtualActive.decrementAndGet();
+                concurrency.release();
+                admission.release();
+            }
+        };
+        virtualThreadFactory.newThread(wrapped).start();
+    }
+
+    private void reject(Runnable task) {
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                callerRuns.increment();
+                task.run();
+                return;
+            case BLOCK:
+                if (offerWithTimeout(task)) {
+                    return;
+                }
+                rejected.increment();
+                throw new RejectedExecutionException("Executor '" + name + "' still full after "
+                        + blockTimeoutMillis + " ms");
+            case DISCARD:
+                rejected.increment();
+                log.debug("Executor '{}' full, task discarded", name);
+                Runnable discarded = task instanceof TimedTask ? ((TimedTask) task).delegate : task;
+                if (discarded instanceof Future) {
+                    ((Future<?>) discarded).cancel(false);
+                }
+                return;
+            default:
+                rejected.increment();
+                throw new RejectedExecutionException("Executor '" + name + "' is full");
+        }
+    }
+
+    private boolean offerWithTimeout(Runnable task) {
+        try {
+            if (pool != null) {
+                return !pool.isShutdown() && pool.getQueue().offer(task, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            if (admission.tryAcquire(blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                startVirtual(task);
+                return true;
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 1).factory() via reflection, so the
+     * code still compiles for Java 11. Returns null before Java 21.
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-v", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+        private final Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            long waited = started - enqueuedAt;
+            waitNanos.add(waited);
+            updateMax(maxWaitNanos, waited);
+            // CALLER_RUNS executes on the submitting thread, so put its own context back afterwards
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setMdc(mdc);
+            try {
+                delegate.run();
+                if (finishedExceptionally(delegate)) {
+                    failed.increment();
+                } else {
+                    completed.increment();
+                }
+            } catch (RuntimeException | Error e) {
+                failed.increment();
+                throw e;
+            } finally {
+                setMdc(previous);
+                long ran = System.nanoTime() - started;
+                runNanos.add(ran);
+                updateMax(maxRunNanos, ran);
+            }
+        }
+
+        /** A FutureTask holds its exception; look at how its Future finished. */
+        private boolean finishedExceptionally(Runnable task) {
+            if (!(task instanceof Future) || !((Future<?>) task).isDone()) {
+                return false;
+            }
+            try {
+                ((Future<?>) task).get();
+                return false;
+            } catch (ExecutionException | CancellationException e) {
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void setMdc(Map<String, String> context) {
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.grievance.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in every {@code rate} INFO-or-lower events from the configured
+ * logger prefixes (logback-spring.xml) and drops the rest before a log event
+ * is even created. Meant for high-volume, low-value events such as rejected
+ * tokens, which can arrive once per request. WARN and above always pass.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggers = new ArrayList<>();
+    private final AtomicLong counter = new AtomicLong();
+    private int rate = 100;
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+                              String format, Object[] params, Throwable t) {
+        // Logback also calls turbo filters from isXxxEnabled() with a null
+        // format; those must not consume a sample
+        if (format == null || level.isGreaterOrEqual(Level.WARN)
+                || rate == 1 || !logger.isEnabledFor(level) || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean sampled(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
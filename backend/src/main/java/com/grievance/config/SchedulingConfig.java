@@ -0,0 +1,17 @@
+package com.grievance.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on the @Scheduled jobs (escalation wheel, outbox delivery and
+ * cleanup, stats reconcile, blob GC, search refresh, cluster sync) for the
+ * running application. One-off commands such as SearchIndexRebuild start
+ * with the "rebuild" profile and none of them run.
+ */
+@Configuration
+@Profile("!rebuild")
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -15,6 +15,7 @@ public class AnalyticsDTO {
     private Map<String, Long> priorityDistribution;
     private List<DailyStat> dailyTrend;
     private List<DepartmentStat> departmentStats;
+    private List<DepartmentStat> assigneeStats; // same shape, keyed by assignee
     
     // Inner class for DailyStat
     public static class DailyStat {
@@ -39,6 +40,10 @@ public class AnalyticsDTO {
         private long totalAssigned;
         private long resolved;
         private double resolutionRate;
+        private long escalated;
+        private double escalationRate;
+        private double medianResolutionHours;
+        private double p90ResolutionHours;
         
         // Getters and Setters
         public String getDepartment() { return department; }
@@ -52,6 +57,18 @@ public class AnalyticsDTO {
         
         public double getResolutionRate() { return resolutionRate; }
         public void setResolutionRate(double resolutionRate) { this.resolutionRate = resolutionRate; }
+        
+        public long getEscalated() { return escalated; }
+        public void setEscalated(long escalated) { this.escalated = escalated; }
+        
+        public double getEscalationRate() { return escalationRate; }
+        public void setEscalationRate(double escalationRate) { this.escalationRate = escalationRate; }
+        
+        public double getMedianResolutionHours() { return medianResolutionHours; }
+        public void setMedianResolutionHours(double medianResolutionHours) { this.medianResolutionHours = medianResolutionHours; }
+        
+        public double getP90ResolutionHours() { return p90ResolutionHours; }
+        public void setP90ResolutionHours(double p90ResolutionHours) { this.p90ResolutionHours = p90ResolutionHours; }
     }
     
     // Getters and Setters for main class
@@ -87,4 +104,7 @@ public class AnalyticsDTO {
     
     public List<DepartmentStat> getDepartmentStats() { return departmentStats; }
     public void setDepartmentStats(List<DepartmentStat> departmentStats) { this.departmentStats = departmentStats; }
+    
+    public List<DepartmentStat> getAssigneeStats() { return assigneeStats; }
+    public void setAssigneeStats(List<DepartmentStat> assigneeStats) { this.assigneeStats = assigneeStats; }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.grievance.dto;
 
+import com.grievance.model.Role;
+
 import java.time.LocalDateTime;
 
 public class CommentResponse {
@@ -21,6 +23,28 @@ public class CommentResponse {
     private Long complaintId;
     private String complaintTitle;
     
+    public CommentResponse() {}
+    
+    // Used by the JPQL constructor expression in CommentRepository so that a
+    // timeline page is one query over the columns shown, without loading entities.
+    public CommentResponse(Long id, String content, String type, LocalDateTime createdAt,
+                           Boolean isAdminOnly, String attachmentPath,
+                           Long authorId, String authorName, Role authorRole, String authorEmail,
+                           Long complaintId, String complaintTitle) {
+        this.id = id;
+        this.content = content;
+        this.type = type;
+        this.createdAt = createdAt;
+        this.isAdminOnly = isAdminOnly;
+        this.attachmentPath = attachmentPath;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.authorRole = authorRole != null ? authorRole.name() : null;
+        this.authorEmail = authorEmail;
+        this.complaintId = complaintId;
+        this.complaintTitle = complaintTitle;
+    }
+    
     // Getters and setters
     public Long getId() {
         return id;
@@ -1,6 +1,9 @@
 package com.grievance.dto;
 
+import com.grievance.model.Complaint;
+
 import java.util.Date;
+import java.util.List;
 
 public class ComplaintDTO {
     private Long id;
@@ -28,6 +31,53 @@ public class ComplaintDTO {
     private String department;
     private Boolean isEscalated;
     private Long hoursUntilEscalation;
+    private Long duplicateOf;
+    // Only set on the response to a new complaint: similar open complaints it was not linked to
+    private List<Long> possibleDuplicates;
+    
+    public ComplaintDTO() {}
+    
+    // Used by the JPQL constructor expressions in ComplaintRepository so that
+    // list queries return flat rows joined to users without loading entities.
+    public ComplaintDTO(Long id, String title, String description, String category,
+                        Complaint.Status status, Complaint.Priority priority,
+                        Long userId, String name, String username, String userEmail,
+                        String assignedTo, Date createdAt, Date updatedAt, Date resolvedAt,
+                        String fileName, String filePath, String fileType, Long fileSize,
+                        Integer escalationLevel, Date escalatedAt, String escalationRecipients,
+                        Date nextEscalationTime, String escalationNotes, String department,
+                        Long duplicateOf) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.category = category;
+        this.status = status != null ? status.name() : null;
+        this.priority = priority != null ? priority.name() : null;
+        this.userId = userId;
+        this.userName = name != null ? name : username;
+        this.userEmail = userEmail;
+        this.assignedTo = assignedTo;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+        this.fileName = fileName;
+        this.filePath = filePath;
+        this.fileType = fileType;
+        this.fileSize = fileSize;
+        this.escalationLevel = escalationLevel;
+        this.escalatedAt = escalatedAt;
+        this.escalationRecipients = escalationRecipients;
+        this.nextEscalationTime = nextEscalationTime;
+        this.escalationNotes = escalationNotes;
+        this.department = department;
+        this.duplicateOf = duplicateOf;
+        this.isEscalated = escalationLevel != null && escalationLevel > 0;
+        
+        // Hours until escalation, same rule as ComplaintService.convertToDTO
+        if (nextEscalationTime != null && status != Complaint.Status.RESOLVED) {
+            this.hoursUntilEscalation = (nextEscalationTime.getTime() - System.currentTimeMillis()) / (1000 * 60 * 60);
+        }
+    }
     
     // Getters and setters for all fields
     public Long getId() { return id; }
@@ -104,4 +154,10 @@ public class ComplaintDTO {
     
     public Long getHoursUntilEscalation() { return hoursUntilEscalation; }
     public void setHoursUntilEscalation(Long hoursUntilEscalation) { this.hoursUntilEscalation = hoursUntilEscalation; }
-}
\ No newline at end of file
+    
+    public Long getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(Long duplicateOf) { this.duplicateOf = duplicateOf; }
+    
+    public List<Long> getPossibleDuplicates() { return possibleDuplicates; }
+    public void setPossibleDuplicates(List<Long> possibleDuplicates) { this.possibleDuplicates = possibleDuplicates; }
+}
@@ -0,0 +1,37 @@
+package com.grievance.dto;
+
+import com.grievance.model.Complaint;
+
+import java.util.Date;
+
+public class ComplaintFilter {
+    private Complaint.Status status;
+    private Complaint.Priority priority;
+    private String category;
+    private String assignedTo;
+    private Integer escalationLevel;
+    private Date createdFrom;
+    private Date createdTo;
+    
+    // Getters and setters
+    public Complaint.Status getStatus() { return status; }
+    public void setStatus(Complaint.Status status) { this.status = status; }
+    
+    public Complaint.Priority getPriority() { return priority; }
+    public void setPriority(Complaint.Priority priority) { this.priority = priority; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+    
+    public Integer getEscalationLevel() { return escalationLevel; }
+    public void setEscalationLevel(Integer escalationLevel) { this.escalationLevel = escalationLevel; }
+    
+    public Date getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(Date createdFrom) { this.createdFrom = createdFrom; }
+    
+    public Date getCreatedTo() { return createdTo; }
+    public void setCreatedTo(Date createdTo) { this.createdTo = createdTo; }
+}
@@ -0,0 +1,32 @@
+package com.grievance.dto;
+
+import java.util.List;
+
+public class ComplaintPageDTO {
+    private List<ComplaintDTO> items;
+    private String nextCursor; // opaque, null when there are no more rows
+    private boolean hasMore;
+    private int limit;
+    
+    public ComplaintPageDTO() {}
+    
+    public ComplaintPageDTO(List<ComplaintDTO> items, String nextCursor, boolean hasMore, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.limit = limit;
+    }
+    
+    // Getters and setters
+    public List<ComplaintDTO> getItems() { return items; }
+    public void setItems(List<ComplaintDTO> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
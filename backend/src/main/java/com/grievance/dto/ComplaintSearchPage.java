@@ -0,0 +1,49 @@
+package com.grievance.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ComplaintSearchPage {
+    private List<ComplaintDTO> items; // best match first (or newest first)
+    private long total;               // all matches, not just this page
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private Map<String, Map<String, Long>> facets; // dimension -> value -> matches
+    private long tookMs;
+    
+    public ComplaintSearchPage() {}
+    
+    public ComplaintSearchPage(List<ComplaintDTO> items, long total, int page, int size, boolean hasMore,
+                               Map<String, Map<String, Long>> facets, long tookMs) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.facets = facets;
+        this.tookMs = tookMs;
+    }
+    
+    // Getters and setters
+    public List<ComplaintDTO> getItems() { return items; }
+    public void setItems(List<ComplaintDTO> items) { this.items = items; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+    
+    public long getTookMs() { return tookMs; }
+    public void setTookMs(long tookMs) { this.tookMs = tookMs; }
+}
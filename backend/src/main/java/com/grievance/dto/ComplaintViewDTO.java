@@ -0,0 +1,39 @@
+package com.grievance.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the complaint details page shows, apart from who is looking at it.
+ * Built by ComplaintViewService and shared between viewers of the same role,
+ * so treat it as read-only.
+ */
+public class ComplaintViewDTO {
+    private ComplaintDTO complaint;
+    private CommentPageDTO comments; // newest page
+    private List<Map<String, Object>> escalationHistory;
+    private String ownerUsername;
+    
+    public ComplaintViewDTO() {}
+    
+    public ComplaintViewDTO(ComplaintDTO complaint, CommentPageDTO comments,
+                            List<Map<String, Object>> escalationHistory, String ownerUsername) {
+        this.complaint = complaint;
+        this.comments = comments;
+        this.escalationHistory = escalationHistory;
+        this.ownerUsername = ownerUsername;
+    }
+    
+    // Getters and setters
+    public ComplaintDTO getComplaint() { return complaint; }
+    public void setComplaint(ComplaintDTO complaint) { this.complaint = complaint; }
+    
+    public CommentPageDTO getComments() { return comments; }
+    public void setComments(CommentPageDTO comments) { this.comments = comments; }
+    
+    public List<Map<String, Object>> getEscalationHistory() { return escalationHistory; }
+    public void setEscalationHistory(List<Map<String, Object>> escalationHistory) { this.escalationHistory = escalationHistory; }
+    
+    public String getOwnerUsername() { return ownerUsername; }
+    public void setOwnerUsername(String ownerUsername) { this.ownerUsername = ownerUsername; }
+}
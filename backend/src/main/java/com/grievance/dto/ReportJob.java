@@ -0,0 +1,90 @@
+package com.grievance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Date;
+
+public class ReportJob {
+
+    public enum Type {
+        SUMMARY,     // dashboard analytics only
+        COMPLAINTS   // analytics plus one row per complaint
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private String id;
+    private Type type;
+    private volatile Status status = Status.QUEUED;
+    private String dataVersion;
+    private Date submittedAt = new Date();
+    private volatile Date completedAt;
+    private volatile String error;
+    private volatile long rowCount;
+    private volatile boolean truncated;
+    private volatile long fileSize;
+
+    @JsonIgnore
+    private String cacheKey;
+
+    @JsonIgnore
+    private volatile String filePath;
+
+    @JsonIgnore
+    private ComplaintFilter filter;
+
+    public ReportJob() {}
+
+    public ReportJob(String id, Type type, ComplaintFilter filter, String dataVersion, String cacheKey) {
+        this.id = id;
+        this.type = type;
+        this.filter = filter;
+        this.dataVersion = dataVersion;
+        this.cacheKey = cacheKey;
+    }
+
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getDataVersion() { return dataVersion; }
+    public void setDataVersion(String dataVersion) { this.dataVersion = dataVersion; }
+
+    public Date getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Date submittedAt) { this.submittedAt = submittedAt; }
+
+    public Date getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Date completedAt) { this.completedAt = completedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public ComplaintFilter getFilter() { return filter; }
+    public void setFilter(ComplaintFilter filter) { this.filter = filter; }
+}
@@ -0,0 +1,48 @@
+package com.grievance.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Entity
+// Indexes are created by the Flyway migrations in db/migration and listed here for reference
+@Table(name = "blob_refs", indexes = {
+    @Index(name = "idx_blob_refs_unreferenced", columnList = "ref_count, released_at")
+})
+public class BlobRef {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    // Complaints and comments pointing at the blob
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt = new Date();
+
+    // When ref_count last dropped to 0; the blob is deleted a grace period later
+    @Column(name = "released_at")
+    private Date releasedAt;
+
+    public BlobRef() {}
+
+    // Getters and Setters
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public Integer getRefCount() { return refCount; }
+    public void setRefCount(Integer refCount) { this.refCount = refCount; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    public Date getReleasedAt() { return releasedAt; }
+    public void setReleasedAt(Date releasedAt) { this.releasedAt = releasedAt; }
+}
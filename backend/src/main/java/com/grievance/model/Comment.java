@@ -4,7 +4,12 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+// Indexes are created by the Flyway migrations in db/migration and listed here for reference
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_created_at", columnList = "created_at"),
+    @Index(name = "idx_comments_complaint_visibility_created", columnList = "complaint_id, is_admin_only, created_at, id"),
+    @Index(name = "idx_comments_complaint_created", columnList = "complaint_id, created_at, id")
+})
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,19 +21,24 @@ public class Comment {
     @Column(name = "type")  // REMOVE @Enumerated annotation
     private String type = "PUBLIC";  // Changed from CommentType to String
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "complaint_id")
     private Complaint complaint;
     
     @Column(name = "is_admin_only")
     private Boolean isAdminOnly = false;
     
+    // Stored file for attachments from before the blob store; now the original file name
     private String attachmentPath;
     
+    // BlobStore name (SHA-256) of the attachment
+    @Column(name = "attachment_hash", length = 64)
+    private String attachmentHash;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -93,6 +103,14 @@ public class Comment {
         this.attachmentPath = attachmentPath; 
     }
     
+    public String getAttachmentHash() { 
+        return attachmentHash; 
+    }
+    
+    public void setAttachmentHash(String attachmentHash) { 
+        this.attachmentHash = attachmentHash; 
+    }
+    
     public LocalDateTime getCreatedAt() { 
         return createdAt; 
     }
@@ -6,7 +6,20 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "complaints")
+// Indexes are created by the Flyway migrations in db/migration and listed here for reference
+@Table(name = "complaints", indexes = {
+    @Index(name = "idx_complaints_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_complaints_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_complaints_status_created", columnList = "status, created_at, id"),
+    @Index(name = "idx_complaints_priority_created", columnList = "priority, created_at, id"),
+    @Index(name = "idx_complaints_category_created", columnList = "category, created_at, id"),
+    @Index(name = "idx_complaints_assigned_created", columnList = "assigned_to, created_at, id"),
+    @Index(name = "idx_complaints_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_complaints_resolved_at", columnList = "resolved_at"),
+    @Index(name = "idx_complaints_escalated_at", columnList = "escalated_at"),
+    @Index(name = "idx_complaints_escalation_scan", columnList = "escalation_level, status, next_escalation_time"),
+    @Index(name = "idx_complaints_duplicate_of", columnList = "duplicate_of, status")
+})
 public class Complaint {
     
     public enum Status {
@@ -74,8 +87,12 @@ public class Complaint {
     @Column(name = "file_size")
     private Long fileSize;
     
+    // BlobStore name (SHA-256) of the attachment; file_path is only set for files stored before
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+    
     // Escalation fields
-    @Column(name = "escalation_level")
+    @Column(name = "escalation_level", nullable = false)
     private Integer escalationLevel = 0;
     
     @Column(name = "escalated_at")
@@ -102,6 +119,15 @@ public class Complaint {
     @Column(name = "department")
     private String department;
     
+    // Set when this complaint reports the same problem as an earlier open one;
+    // it then has no escalation timer of its own and follows that complaint
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+    
+    // With duplicateOf: true when an admin made or confirmed the link, false for an automatic estimate
+    @Column(name = "duplicate_confirmed", nullable = false)
+    private boolean duplicateConfirmed;
+    
     // Getters and Setters for new fields
     public List<Comment> getComments() {
         return comments;
@@ -132,6 +158,12 @@ public class Complaint {
         return escalationLevel != null && escalationLevel > 0;
     }
     
+    // Every write bumps updated_at; report caching uses it as the data version
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = new Date();
+    }
+    
     // Existing getters and setters...
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
@@ -189,4 +221,13 @@ public class Complaint {
     
     public String getEscalationNotes() { return escalationNotes; }
     public void setEscalationNotes(String escalationNotes) { this.escalationNotes = escalationNotes; }
-}
\ No newline at end of file
+    
+    public String getFileHash() { return fileHash; }
+    public void setFileHash(String fileHash) { this.fileHash = fileHash; }
+    
+    public Long getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(Long duplicateOf) { this.duplicateOf = duplicateOf; }
+    
+    public boolean isDuplicateConfirmed() { return duplicateConfirmed; }
+    public void setDuplicateConfirmed(boolean duplicateConfirmed) { this.duplicateConfirmed = duplicateConfirmed; }
+}
@@ -0,0 +1,29 @@
+package com.grievance.model;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "complaint_stats")
+public class ComplaintStat {
+    
+    @Id
+    @Column(name = "stat_key", length = 120)
+    private String statKey; // e.g. "total", "status:OPEN", "category:Network"
+    
+    @Column(name = "stat_value", nullable = false)
+    private Long statValue = 0L;
+    
+    public ComplaintStat() {}
+    
+    public ComplaintStat(String statKey, Long statValue) {
+        this.statKey = statKey;
+        this.statValue = statValue;
+    }
+    
+    // Getters and Setters
+    public String getStatKey() { return statKey; }
+    public void setStatKey(String statKey) { this.statKey = statKey; }
+    
+    public Long getStatValue() { return statValue; }
+    public void setStatValue(Long statValue) { this.statValue = statValue; }
+}
@@ -4,7 +4,9 @@ import javax.persistence.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "escalation_history")
+@Table(name = "escalation_history", indexes = {
+    @Index(name = "idx_escalation_history_complaint", columnList = "complaint_id, escalated_at")
+})
 public class EscalationHistory {
     
     @Id
@@ -0,0 +1,41 @@
+package com.grievance.model;
+
+import javax.persistence.*;
+
+/**
+ * A named lease held by one backend node at a time (see SchedulerLeaseService).
+ * Times are epoch milliseconds so every node compares the same values
+ * regardless of JDBC time zone handling.
+ */
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+    
+    @Id
+    @Column(length = 64)
+    private String name; // e.g. "escalation", "email-outbox"
+    
+    @Column(nullable = false, length = 128)
+    private String owner = "";
+    
+    @Column(name = "lease_until", nullable = false)
+    private Long leaseUntil = 0L;
+    
+    @Column(name = "acquired_at", nullable = false)
+    private Long acquiredAt = 0L;
+    
+    public SchedulerLease() {}
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    
+    public Long getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(Long leaseUntil) { this.leaseUntil = leaseUntil; }
+    
+    public Long getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(Long acquiredAt) { this.acquiredAt = acquiredAt; }
+}
@@ -0,0 +1,45 @@
+package com.grievance.repository;
+
+import com.grievance.model.BlobRef;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface BlobRefRepository extends JpaRepository<BlobRef, String> {
+
+    // One statement, so concurrent uploads of the same file count correctly
+    @Modifying
+    @Query(value = "INSERT INTO blob_refs (sha256, size, ref_count, created_at, released_at) " +
+                   "VALUES (:sha256, :size, 1, :now, NULL) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, released_at = NULL", nativeQuery = true)
+    int acquire(@Param("sha256") String sha256, @Param("size") long size, @Param("now") Date now);
+
+    // released_at is assigned first: MySQL evaluates SET left to right with updated values
+    @Modifying
+    @Query(value = "UPDATE blob_refs SET released_at = CASE WHEN ref_count <= 1 THEN :now ELSE released_at END, " +
+                   "ref_count = ref_count - 1 WHERE sha256 = :sha256 AND ref_count > 0", nativeQuery = true)
+    int release(@Param("sha256") String sha256, @Param("now") Date now);
+
+    @Query("SELECT b.sha256 FROM BlobRef b WHERE b.refCount = 0 AND b.releasedAt < :cutoff")
+    List<String> findUnreferencedBefore(@Param("cutoff") Date cutoff, Pageable pageable);
+
+    // No-op if the blob was referenced again since it was found
+    @Modifying
+    @Query(value = "DELETE FROM blob_refs WHERE sha256 = :sha256 AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+
+    @Query("SELECT b.sha256 FROM BlobRef b WHERE b.sha256 IN :hashes")
+    List<String> findExisting(@Param("hashes") Collection<String> hashes);
+
+    // [blobs, bytes, references]
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.size), 0), COALESCE(SUM(b.refCount), 0) FROM BlobRef b")
+    List<Object[]> summarize();
+}
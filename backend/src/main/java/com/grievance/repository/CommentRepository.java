@@ -1,17 +1,54 @@
 package com.grievance.repository;
 
+import com.grievance.dto.CommentResponse;
 import com.grievance.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
-    List<Comment> findByComplaintId(Long complaintId);
+    // Timeline rows: only the columns of CommentResponse, joined to the author and complaint
+    String RESPONSE_SELECT = "SELECT new com.grievance.dto.CommentResponse(" +
+            "cm.id, cm.content, cm.type, cm.createdAt, cm.isAdminOnly, cm.attachmentPath, " +
+            "u.id, u.name, u.role, u.email, c.id, c.title) " +
+            "FROM Comment cm JOIN cm.complaint c LEFT JOIN cm.user u ";
     
-    List<Comment> findByComplaintIdAndIsAdminOnlyFalse(Long complaintId);
+    String TIMELINE_CURSOR = "(:cursorCreatedAt IS NULL OR cm.createdAt < :cursorCreatedAt " +
+            "   OR (cm.createdAt = :cursorCreatedAt AND cm.id < :cursorId)) " +
+            "ORDER BY cm.createdAt DESC, cm.id DESC";
+    
+    // Keyset page of all of a complaint's comments ordered by (createdAt, id) descending;
+    // pass a null cursor for the first page and limit the rows through the Pageable.
+    @Query(RESPONSE_SELECT + "WHERE c.id = :complaintId AND " + TIMELINE_CURSOR)
+    List<CommentResponse> findTimelinePage(@Param("complaintId") Long complaintId,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+    
+    // Same, without admin-only comments
+    @Query(RESPONSE_SELECT + "WHERE c.id = :complaintId AND cm.isAdminOnly = false AND " + TIMELINE_CURSOR)
+    List<CommentResponse> findPublicTimelinePage(@Param("complaintId") Long complaintId,
+                                                 @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
     
     List<Comment> findByUserId(Long userId);
+    
+    // Search index source rows: [complaintId, content, isAdminOnly]
+    @Query("SELECT c.complaint.id, c.content, c.isAdminOnly FROM Comment c WHERE c.complaint.id IN :complaintIds")
+    List<Object[]> findSearchRowsByComplaintIdIn(@Param("complaintIds") Collection<Long> complaintIds);
+    
+    @Query("SELECT c.attachmentHash FROM Comment c WHERE c.complaint.id = :complaintId AND c.attachmentHash IS NOT NULL")
+    List<String> findAttachmentHashesByComplaintId(@Param("complaintId") Long complaintId);
+    
+    @Query("SELECT DISTINCT c.complaint.id FROM Comment c WHERE c.createdAt >= :since")
+    List<Long> findComplaintIdsCommentedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
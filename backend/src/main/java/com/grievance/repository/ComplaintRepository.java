@@ -1,17 +1,33 @@
 package com.grievance.repository;
 
+import com.grievance.dto.ComplaintDTO;
 import com.grievance.model.Complaint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     
+    // Flat read model: one statement joined to users, no managed entities
+    String DTO_SELECT = "SELECT new com.grievance.dto.ComplaintDTO(" +
+            "c.id, c.title, c.description, c.category, c.status, c.priority, " +
+            "u.id, u.name, u.username, u.email, c.assignedTo, c.createdAt, c.updatedAt, c.resolvedAt, " +
+            "c.fileName, c.filePath, c.fileType, c.fileSize, c.escalationLevel, c.escalatedAt, " +
+            "c.escalationRecipients, c.nextEscalationTime, c.escalationNotes, c.department, c.duplicateOf) " +
+            "FROM Complaint c JOIN c.user u ";
+    
     List<Complaint> findByUserId(Long userId);
     
     List<Complaint> findByAssignedTo(String assignedTo);
@@ -41,12 +57,179 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     @Query("SELECT COUNT(c) FROM Complaint c WHERE c.category = :category")
     long countByCategory(@Param("category") String category);
     
-    @Query("SELECT c FROM Complaint c WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND (c.escalationLevel IS NULL OR c.escalationLevel = 0) AND c.nextEscalationTime <= CURRENT_TIMESTAMP")
+    @Query("SELECT c.status, COUNT(c) FROM Complaint c GROUP BY c.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT c.priority, COUNT(c) FROM Complaint c GROUP BY c.priority")
+    List<Object[]> countGroupedByPriority();
+    
+    @Query("SELECT c.category, COUNT(c) FROM Complaint c GROUP BY c.category")
+    List<Object[]> countGroupedByCategory();
+    
+    // Created and resolved counts per calendar day in [from, to), one row per day
+    @Query(value = "SELECT t.bucket_day, SUM(t.created_count), SUM(t.resolved_count) FROM (" +
+                   "  SELECT CAST(created_at AS DATE) AS bucket_day, 1 AS created_count, 0 AS resolved_count FROM complaints " +
+                   "  WHERE created_at >= :from AND created_at < :to " +
+                   "  UNION ALL " +
+                   "  SELECT CAST(resolved_at AS DATE) AS bucket_day, 0 AS created_count, 1 AS resolved_count FROM complaints " +
+                   "  WHERE resolved_at >= :from AND resolved_at < :to" +
+                   ") t GROUP BY t.bucket_day", nativeQuery = true)
+    List<Object[]> countCreatedAndResolvedPerDay(@Param("from") Date from, @Param("to") Date to);
+    
+    // Narrow forward-only scan for the performance aggregation; must run inside a transaction
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT c.department, c.assignedTo, c.createdAt, c.resolvedAt, c.escalationLevel, c.status FROM Complaint c")
+    Stream<Object[]> streamPerformanceRows();
+    
+    @Query("SELECT COUNT(c) FROM Complaint c WHERE c.escalationLevel > 0")
+    long countEscalated();
+    
+    @Query("SELECT c FROM Complaint c WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') AND c.escalationLevel = 0 AND c.nextEscalationTime <= CURRENT_TIMESTAMP")
     List<Complaint> findComplaintsForEscalation();
     
+    // One chunk of due complaints for the batch escalation run, keyed by id:
+    // [id, title, priority, escalationLevel, userEmail, username]
+    @Query("SELECT c.id, c.title, c.priority, c.escalationLevel, u.email, u.username FROM Complaint c JOIN c.user u " +
+           "WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') " +
+           "AND c.escalationLevel = 0 " +
+           "AND c.nextEscalationTime <= :now AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findEscalationCandidates(@Param("now") Date now, @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Pending escalation deadlines in (from, until], keyed by id: [id, nextEscalationTime]
+    @Query("SELECT c.id, c.nextEscalationTime FROM Complaint c " +
+           "WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') " +
+           "AND c.escalationLevel = 0 " +
+           "AND c.nextEscalationTime > :from AND c.nextEscalationTime <= :until AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findEscalationDeadlines(@Param("from") Date from, @Param("until") Date until,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Same, limited to rows changed since a point in time (picks up writes made by other nodes)
+    @Query("SELECT c.id, c.nextEscalationTime FROM Complaint c " +
+           "WHERE c.status IN ('OPEN', 'IN_PROGRESS', 'NEW', 'UNDER_REVIEW') " +
+           "AND c.escalationLevel = 0 " +
+           "AND c.updatedAt >= :since AND c.nextEscalationTime <= :until AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findEscalationDeadlinesUpdatedSince(@Param("since") Date since, @Param("until") Date until,
+                                                       @Param("afterId") Long afterId, Pageable pageable);
+    
     @Query("SELECT c FROM Complaint c WHERE c.escalationLevel > 0 ORDER BY c.escalatedAt DESC")
     List<Complaint> findAllEscalatedComplaints();
     
     @Query("SELECT c FROM Complaint c WHERE c.status = :status AND c.escalationLevel > 0")
     List<Complaint> findEscalatedComplaintsByStatus(@Param("status") com.grievance.model.Complaint.Status status);
+    
+    // Keyset page ordered by (createdAt, id) descending. Null filters are ignored;
+    // pass a null cursor for the first page and limit the rows through the Pageable.
+    @Query(DTO_SELECT + "WHERE " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:priority IS NULL OR c.priority = :priority) AND " +
+           "(:category IS NULL OR c.category = :category) AND " +
+           "(:assignedTo IS NULL OR c.assignedTo = :assignedTo) AND " +
+           "(:escalationLevel IS NULL OR c.escalationLevel = :escalationLevel) AND " +
+           "(:createdFrom IS NULL OR c.createdAt >= :createdFrom) AND " +
+           "(:createdTo IS NULL OR c.createdAt <= :createdTo) AND " +
+           "(:cursorCreatedAt IS NULL OR c.createdAt < :cursorCreatedAt " +
+           "   OR (c.createdAt = :cursorCreatedAt AND c.id < :cursorId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ComplaintDTO> findPageAfter(@Param("status") com.grievance.model.Complaint.Status status,
+                                  @Param("priority") com.grievance.model.Complaint.Priority priority,
+                                  @Param("category") String category,
+                                  @Param("assignedTo") String assignedTo,
+                                  @Param("escalationLevel") Integer escalationLevel,
+                                  @Param("createdFrom") Date createdFrom,
+                                  @Param("createdTo") Date createdTo,
+                                  @Param("cursorCreatedAt") Date cursorCreatedAt,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE c.id IN :ids")
+    List<ComplaintDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(DTO_SELECT + "WHERE c.id = :id")
+    Optional<ComplaintDTO> findDtoById(@Param("id") Long id);
+    
+    // ComplaintDTO carries the owner's display name; the complaint view also shows the username
+    @Query("SELECT u.username FROM Complaint c JOIN c.user u WHERE c.id = :id")
+    Optional<String> findOwnerUsername(@Param("id") Long id);
+    
+    // Search index source rows: [id, title, description, status, priority, category, userId, createdAt]
+    String SEARCH_SELECT = "SELECT c.id, c.title, c.description, c.status, c.priority, c.category, u.id, c.createdAt " +
+            "FROM Complaint c LEFT JOIN c.user u ";
+    
+    @Query(SEARCH_SELECT + "WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SEARCH_SELECT + "WHERE c.id IN :ids")
+    List<Object[]> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT c.id FROM Complaint c WHERE c.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") Date since);
+    
+    // Duplicate detection source rows: [id, title, description, status]
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT c.id, c.title, c.description, c.status FROM Complaint c WHERE c.status IN :statuses")
+    Stream<Object[]> streamDuplicateRows(@Param("statuses") Collection<Complaint.Status> statuses);
+    
+    @Query("SELECT c.id, c.title, c.description, c.status FROM Complaint c WHERE c.id IN :ids")
+    List<Object[]> findDuplicateRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Trend days a complaint counts towards: [id, createdAt, resolvedAt]
+    @Query("SELECT c.id, c.createdAt, c.resolvedAt FROM Complaint c WHERE c.id IN :ids")
+    List<Object[]> findTrendDaysByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Attachment download row: [userId, fileName, fileType, filePath, fileHash]
+    @Query("SELECT u.id, c.fileName, c.fileType, c.filePath, c.fileHash FROM Complaint c JOIN c.user u WHERE c.id = :id")
+    List<Object[]> findAttachmentRow(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM Complaint c WHERE c.duplicateOf = :duplicateOf")
+    List<Long> findIdsByDuplicateOf(@Param("duplicateOf") Long duplicateOf);
+    
+    List<Complaint> findByDuplicateOfAndStatusInOrderByIdAsc(Long duplicateOf, Collection<Complaint.Status> statuses);
+    
+    @Modifying
+    @Query("UPDATE Complaint c SET c.duplicateOf = :to WHERE c.duplicateOf = :from")
+    int relinkDuplicates(@Param("from") Long from, @Param("to") Long to);
+    
+    // [row count, latest updated_at]; changes whenever any complaint is created, updated or deleted
+    @Query("SELECT COUNT(c), MAX(c.updatedAt) FROM Complaint c")
+    List<Object[]> findDataVersion();
+    
+    // Forward-only export scan with the same filters as findPageAfter; must run inside a transaction
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query(DTO_SELECT + "WHERE " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:priority IS NULL OR c.priority = :priority) AND " +
+           "(:category IS NULL OR c.category = :category) AND " +
+           "(:assignedTo IS NULL OR c.assignedTo = :assignedTo) AND " +
+           "(:escalationLevel IS NULL OR c.escalationLevel = :escalationLevel) AND " +
+           "(:createdFrom IS NULL OR c.createdAt >= :createdFrom) AND " +
+           "(:createdTo IS NULL OR c.createdAt <= :createdTo) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Stream<ComplaintDTO> streamForExport(@Param("status") com.grievance.model.Complaint.Status status,
+                                         @Param("priority") com.grievance.model.Complaint.Priority priority,
+                                         @Param("category") String category,
+                                         @Param("assignedTo") String assignedTo,
+                                         @Param("escalationLevel") Integer escalationLevel,
+                                         @Param("createdFrom") Date createdFrom,
+                                         @Param("createdTo") Date createdTo);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId")
+    List<ComplaintDTO> findDtosByUserId(@Param("userId") Long userId);
+    
+    @Query(DTO_SELECT + "WHERE c.assignedTo = :assignedTo")
+    List<ComplaintDTO> findDtosByAssignedTo(@Param("assignedTo") String assignedTo);
+    
+    @Query(DTO_SELECT + "WHERE c.priority = :priority")
+    List<ComplaintDTO> findDtosByPriority(@Param("priority") com.grievance.model.Complaint.Priority priority);
+    
+    @Query(DTO_SELECT + "WHERE c.escalatedAt IS NOT NULL")
+    List<ComplaintDTO> findEscalatedDtos();
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.grievance.repository;
+
+import com.grievance.model.ComplaintStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ComplaintStatRepository extends JpaRepository<ComplaintStat, String> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO complaint_stats (stat_key, stat_value) VALUES (:statKey, :delta) " +
+                   "ON DUPLICATE KEY UPDATE stat_value = stat_value + :delta", nativeQuery = true)
+    int addDelta(@Param("statKey") String statKey, @Param("delta") long delta);
+
+    /** Adds delta only while the row still holds expected; 0 if it has moved since. */
+    @Modifying
+    @Query(value = "UPDATE complaint_stats SET stat_value = stat_value + :delta " +
+                   "WHERE stat_key = :statKey AND stat_value = :expected", nativeQuery = true)
+    int addDeltaIfUnchanged(@Param("statKey") String statKey, @Param("expected") long expected,
+                            @Param("delta") long delta);
+}
@@ -0,0 +1,62 @@
+package com.grievance.repository;
+
+import com.grievance.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    
+    long countByStatus(EmailOutbox.Status status);
+    
+    /**
+     * Claims up to limit due rows, oldest first: pending ones whose retry
+     * time has come, and rows whose previous claim ran out. Returns the
+     * number claimed; findByClaimIdOrderById reads them.
+     */
+    @Modifying
+    @Query(value = "UPDATE email_outbox SET status = 'SENDING', claim_id = :claimId, claimed_until = :until " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "OR (status = 'SENDING' AND claimed_until < :nowMillis) " +
+                   "ORDER BY id LIMIT :limit", nativeQuery = true)
+    int claimDue(@Param("claimId") String claimId, @Param("now") Date now, @Param("nowMillis") long nowMillis,
+                 @Param("until") long until, @Param("limit") int limit);
+    
+    List<EmailOutbox> findByClaimIdOrderById(String claimId);
+    
+    // Extends a claim that has not run out yet; 0 means it was lost
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.claimedUntil = :until " +
+           "WHERE e.claimId = :claimId AND e.status = 'SENDING' AND e.claimedUntil >= :nowMillis")
+    int extendClaim(@Param("claimId") String claimId, @Param("nowMillis") long nowMillis, @Param("until") long until);
+    
+    // Writes a send result, provided the row is still under this claim
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :lastError, e.sentAt = :sentAt, e.claimId = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id = :id AND e.claimId = :claimId")
+    int completeClaimed(@Param("id") Long id, @Param("claimId") String claimId, @Param("status") EmailOutbox.Status status,
+                        @Param("attempts") Integer attempts, @Param("nextAttemptAt") Date nextAttemptAt,
+                        @Param("lastError") String lastError, @Param("sentAt") Date sentAt);
+    
+    // Hands the unsent rest of a batch back
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'PENDING', e.claimId = NULL, e.claimedUntil = NULL " +
+           "WHERE e.claimId = :claimId AND e.status = 'SENDING'")
+    int releaseClaim(@Param("claimId") String claimId);
+    
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :cutoff")
+    int deleteByStatusBefore(@Param("status") EmailOutbox.Status status, @Param("cutoff") Date cutoff);
+    
+    // email_dedupe has no entity; its keys are claimed by EmailService with INSERT IGNORE
+    @Modifying
+    @Query(value = "DELETE FROM email_dedupe WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteDedupeKeysBefore(@Param("cutoff") Date cutoff);
+}
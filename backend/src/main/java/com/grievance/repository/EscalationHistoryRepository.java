@@ -2,10 +2,17 @@ package com.grievance.repository;
 
 import com.grievance.model.EscalationHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface EscalationHistoryRepository extends JpaRepository<EscalationHistory, Long> {
     List<EscalationHistory> findByComplaintIdOrderByEscalatedAtDesc(Long complaintId);
+    
+    // Complaint view rows: [escalatedAt, escalationLevel, reason, recipients]
+    @Query("SELECT h.escalatedAt, h.escalationLevel, h.reason, h.recipients FROM EscalationHistory h " +
+           "WHERE h.complaint.id = :complaintId ORDER BY h.escalatedAt DESC")
+    List<Object[]> findViewRowsByComplaintId(@Param("complaintId") Long complaintId);
 }
\ No newline at end of file
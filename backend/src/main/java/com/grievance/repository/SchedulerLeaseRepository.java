@@ -0,0 +1,30 @@
+package com.grievance.repository;
+
+import com.grievance.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lease (name, owner, lease_until, acquired_at) VALUES (:name, '', 0, 0) " +
+                   "ON DUPLICATE KEY UPDATE name = name", nativeQuery = true)
+    int createIfAbsent(@Param("name") String name);
+    
+    // Takes the lease when it is free or expired, or extends it for its current owner
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET " +
+           "l.acquiredAt = CASE WHEN l.owner = :owner THEN l.acquiredAt ELSE :now END, " +
+           "l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.leaseUntil < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") long now, @Param("until") long until);
+    
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.leaseUntil = 0 WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -1,7 +1,9 @@
 package com.grievance.security;
 
+import com.grievance.config.CorrelationIdFilter;
 import com.grievance.model.User;
-import com.grievance.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,13 +18,14 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Component
+@Slf4j
 public class JwtFilter extends OncePerRequestFilter {
     
     @Autowired
     private JwtUtil jwtUtil;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,37 +33,41 @@ public class JwtFilter extends OncePerRequestFilter {
                                 FilterChain filterChain)
             throws ServletException, IOException {
         
-        // Comment out or remove this debug print
-        // System.out.println("🔍 JwtFilter processing: " + request.getServletPath() + " [" + request.getMethod() + "]");
-        
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
         
-        // Extract JWT token
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+        // Resolve the principal once per request: the token's signature is checked
+        // the first time it is seen and the user is built from its claims, so a
+        // warm request costs neither a verification nor a lookup. Tokens issued
+        // before they carried the role fall back to UserCache. A role change
+        // therefore reaches a user's requests with their next token.
+        // Controllers read the User back from the SecurityContext.
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("JWT token validation failed: " + e.getMessage());
-            }
-        }
-        
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByUsername(username).orElse(null);
-            
-            if (user != null && jwtUtil.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        java.util.Collections.singletonList(() -> "ROLE_" + user.getRole().name())
-                    );
+                // Throws for a bad signature, an unknown key or an expired token
+                User user = jwtUtil.extractUser(jwt);
+                if (user == null) {
+                    user = userCache.get(jwtUtil.extractUsername(jwt)).orElse(null);
+                }
                 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (user != null) {
+                    String role = "ROLE_" + user.getRole().name();
+                    UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            java.util.Collections.singletonList(() -> role)
+                        );
+                    
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    MDC.put(CorrelationIdFilter.MDC_USER, user.getUsername());
+                }
+            } catch (Exception e) {
+                // INFO, not ERROR: a bad token is the client's problem, and the
+                // security loggers are sampled so a flood of them stays cheap
+                log.info("JWT token validation failed: {}", e.getMessage());
             }
         }
         
@@ -70,7 +77,7 @@ public class JwtFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        // Skip filter for public endpoints
-        return path.startsWith("/api/auth/") || path.equals("/api/test");
+        // Skip filter for public endpoints (/api/auth/me needs the principal)
+        return path.equals("/api/auth/login") || path.equals("/api/auth/register") || path.equals("/api/test");
     }
 }
\ No newline at end of file
@@ -1,36 +1,142 @@
 package com.grievance.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.grievance.model.Role;
+import com.grievance.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the API's tokens (HS256).
+ *
+ * Keys form a ring, so they can be rotated without logging everyone out:
+ * jwt.secret is the key with id "default", jwt.key-ids lists further ids
+ * whose secrets are jwt.keys.&lt;id&gt;, and jwt.signing-key-id picks the one
+ * new tokens are signed with. A token names its key in the kid header and
+ * is accepted while that key is in the ring; tokens without a kid were
+ * issued before the ring existed and use "default".
+ *
+ * Tokens carry the user's id, role, email and name, so JwtFilter can build
+ * the principal without loading the user.
+ */
 @Component
+@Slf4j
 public class JwtUtil {
     
-    @Value("${jwt.secret}")
+    public static final String DEFAULT_KEY_ID = "default";
+    
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_NAME = "name";
+    
+    @Autowired
+    private Environment env;
+    
+    @Value("${jwt.secret:}")
     private String secret;
     
+    @Value("${jwt.key-ids:}")
+    private String keyIds;
+    
+    @Value("${jwt.signing-key-id:" + DEFAULT_KEY_ID + "}")
+    private String signingKeyId;
+    
     @Value("${jwt.expiration}")
     private long expiration;
     
-    private Key key;
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+    
+    private Map<String, Key> keys;
+    private Key signingKey;
+    
+    // Immutable and thread-safe; picks the key by the token's kid
+    private JwtParser parser;
+    
+    // Claims of tokens whose signature has been checked, keyed by SHA-256 of the
+    // token and dropped when the token expires, so each token is verified once
+    private Cache<String, Claims> verifiedClaims;
     
     @PostConstruct
     public void init() {
-        System.out.println("🔑 JWT Configuration:");
-        System.out.println("   Secret length: " + (secret != null ? secret.length() : 0));
-        System.out.println("   Expiration: " + expiration + "ms (" + (expiration / 1000 / 60 / 60) + " hours)");
+        Map<String, Key> ring = new LinkedHashMap<>();
+        if (secret != null && !secret.isEmpty()) {
+            ring.put(DEFAULT_KEY_ID, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        }
+        for (String id : keyIds.split(",")) {
+            id = id.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            String keySecret = env.getProperty("jwt.keys." + id);
+            if (keySecret == null || keySecret.isEmpty()) {
+                throw new IllegalStateException("jwt.key-ids names " + id + " but jwt.keys." + id + " is not set");
+            }
+            ring.put(id, Keys.hmacShaKeyFor(keySecret.getBytes(StandardCharsets.UTF_8)));
+        }
+        this.keys = ring;
+        this.signingKey = ring.get(signingKeyId);
+        if (signingKey == null) {
+            throw new IllegalStateException("jwt.signing-key-id " + signingKeyId + " is not among the keys " + ring.keySet());
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String id = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KEY_ID;
+                        Key key = keys.get(id);
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key " + id);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        
+        log.info("JWT configuration: keys {}, signing with {}, expiration {} ms ({} hours)",
+                ring.keySet(), signingKeyId, expiration, expiration / 1000 / 60 / 60);
         
-        // Convert secret to key
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        return nanosUntilExpiry(claims);
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntilExpiry(claims);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
     
     public String extractUsername(String token) {
@@ -46,69 +152,114 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * The user the token was issued to, built from its claims and not attached
+     * to any session; null for a token issued without them (before tokens
+     * carried the role). Throws for an invalid or expired token.
+     */
+    public User extractUser(String token) {
+        Claims claims = extractAllClaims(token);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        user.setEmail(claims.get(CLAIM_EMAIL, String.class));
+        user.setName(claims.get(CLAIM_NAME, String.class));
+        return user;
+    }
+    
+    /**
+     * Verified claims of the token; the signature is only checked the first
+     * time a token is seen. Throws for an invalid or expired token.
+     */
     private Claims extractAllClaims(String token) {
+        String tokenHash = hash(token);
+        Claims cached = verifiedClaims.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
-            System.out.println("❌ JWT Parsing Error: " + e.getMessage());
+            log.info("JWT Parsing Error: {}", e.getMessage());
             throw new RuntimeException("Invalid JWT token: " + e.getMessage());
         }
+        verifiedClaims.put(tokenHash, claims);
+        return claims;
     }
     
     public boolean validateToken(String token) {
         try {
-            System.out.println("🔍 Validating token...");
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = extractAllClaims(token);
             
             boolean isExpired = claims.getExpiration().before(new Date());
             if (isExpired) {
-                System.out.println("❌ Token expired at: " + claims.getExpiration());
+                log.info("Token expired at: {}", claims.getExpiration());
                 return false;
             }
             
-            System.out.println("✅ Token valid for user: " + claims.getSubject());
-            System.out.println("   Expires at: " + claims.getExpiration());
+            log.debug("Token valid for user: {}, expires at {}", claims.getSubject(), claims.getExpiration());
             return true;
             
         } catch (Exception e) {
-            System.out.println("❌ Token validation failed: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+            log.info("Token validation failed: {} - {}", e.getClass().getSimpleName(), e.getMessage());
             return false;
         }
     }
     
-    public String generateToken(String username) {
+    public Map<String, Object> getClaimsCacheStats() {
+        return UserCache.statsOf(verifiedClaims.stats(), verifiedClaims.estimatedSize());
+    }
+    
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_EMAIL, user.getEmail());
+        claims.put(CLAIM_NAME, user.getName());
+        return createToken(claims, user.getUsername());
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
-        System.out.println("🔐 Generating JWT token for: " + subject);
-        System.out.println("   Issued at: " + now);
-        System.out.println("   Expires at: " + expiryDate);
-        System.out.println("   Secret key length: " + secret.length());
         
         String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
         
-        System.out.println("✅ Token generated successfully");
-        System.out.println("   Token length: " + token.length());
+        log.debug("Generated JWT token for {}, expires at {}", subject, expiryDate);
         
         return token;
     }
-}
\ No newline at end of file
+    
+    // ========== PRIVATE HELPER METHODS ==========
+    
+    private long nanosUntilExpiry(Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        long millis = expiresAt != null ? expiresAt.getTime() - System.currentTimeMillis() : expiration;
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, millis));
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.grievance.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window limits on failed logins, held in memory on each node. Each
+ * key keeps the times of its most recent failures (at most its limit) within
+ * app.security.login-throttle.window-ms.
+ *
+ * The hard limits are per (username, client address) pair and per client
+ * address: at the limit further attempts are turned away until the oldest
+ * failure leaves the window, before any BCrypt work is done. A username on
+ * its own is never locked, since anyone who knows it could then lock its
+ * owner out; past max-failures-per-username it is only paced to one attempt
+ * per username-delay-ms, which slows guessing spread over many addresses.
+ * An attempt sooner than that is turned away like the others, with the
+ * remaining pause as its retry time, so no request thread is held waiting.
+ * The client address is the one Tomcat resolves from a trusted
+ * X-Forwarded-For (server.forward-headers-strategy).
+ *
+ * A successful login clears its username and pair but not its address, so
+ * one valid account cannot be used to reset the count for a guessing client.
+ * Keys untouched for a whole window are dropped, and at most max-tracked are
+ * kept.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    @Value("${app.security.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.login-throttle.window-ms:300000}")
+    private long windowMillis;
+
+    @Value("${app.security.login-throttle.max-failures-per-user-address:5}")
+    private int maxPerUserAddress;
+
+    @Value("${app.security.login-throttle.max-failures-per-username:20}")
+    private int maxPerUsername;
+
+    @Value("${app.security.login-throttle.username-delay-ms:1000}")
+    private long usernameDelayMillis;
+
+    @Value("${app.security.login-throttle.max-failures-per-address:50}")
+    private int maxPerAddress;
+
+    @Value("${app.security.login-throttle.max-tracked:100000}")
+    private long maxTracked;
+
+    private Cache<String, Deque<Long>> failures;
+
+    // Earliest next attempt on a username past its limit
+    private Cache<String, AtomicLong> usernamePace;
+
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder slowed = new LongAdder();
+    private final LongAdder failuresRecorded = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        failures = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(windowMillis, TimeUnit.MILLISECONDS)
+                .build();
+        usernamePace = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(windowMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Seconds until this username may be tried again from this address, or
+     * 0 if it may be tried now. A 0 for a username past its limit uses up
+     * its next paced attempt.
+     */
+    public long retryAfterSeconds(String username, String address) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long waitMillis = Math.max(
+                waitMillis(pairKey(username, address), maxPerUserAddress, now),
+                waitMillis(addressKey(address), maxPerAddress, now));
+        if (waitMillis > 0) {
+            throttled.increment();
+            log.warn("Login throttled for username {} from {} for {} ms", username, address, waitMillis);
+            return toRetrySeconds(waitMillis);
+        }
+        if (waitMillis(usernameKey(username), maxPerUsername, now) <= 0) {
+            return 0;
+        }
+        long paceMillis = takePacedAttempt(usernameKey(username), now);
+        if (paceMillis <= 0) {
+            return 0;
+        }
+        slowed.increment();
+        log.warn("Login paced for username {} from {} for {} ms", username, address, paceMillis);
+        return toRetrySeconds(paceMillis);
+    }
+
+    public void recordFailure(String username, String address) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        record(pairKey(username, address), maxPerUserAddress, now);
+        record(usernameKey(username), maxPerUsername, now);
+        record(addressKey(address), maxPerAddress, now);
+        failuresRecorded.increment();
+    }
+
+    public void recordSuccess(String username, String address) {
+        if (enabled) {
+            failures.invalidate(pairKey(username, address));
+            failures.invalidate(usernameKey(username));
+            usernamePace.invalidate(usernameKey(username));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("tracked", failures.estimatedSize());
+        stats.put("failures", failuresRecorded.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("slowed", slowed.sum());
+        return stats;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    // 0 if an attempt may go ahead now (and the next one is pushed back), else the millis until it may
+    private long takePacedAttempt(String key, long now) {
+        AtomicLong next = usernamePace.get(key, k -> new AtomicLong());
+        while (true) {
+            long allowedAt = next.get();
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (next.compareAndSet(allowedAt, now + usernameDelayMillis)) {
+                return 0;
+            }
+        }
+    }
+
+    private static long toRetrySeconds(long waitMillis) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+    }
+
+    private long waitMillis(String key, int limit, long now) {
+        Deque<Long> times = failures.getIfPresent(key);
+        if (times == null) {
+            return 0;
+        }
+        synchronized (times) {
+            expire(times, now);
+            if (times.size() < limit) {
+                return 0;
+            }
+            return times.peekFirst() + windowMillis - now;
+        }
+    }
+
+    private void record(String key, int limit, long now) {
+        Deque<Long> times = failures.get(key, k -> new ArrayDeque<>());
+        synchronized (times) {
+            expire(times, now);
+            times.addLast(now);
+            while (times.size() > limit) {
+                times.removeFirst();
+            }
+        }
+    }
+
+    private void expire(Deque<Long> times, long now) {
+        while (!times.isEmpty() && times.peekFirst() <= now - windowMillis) {
+            times.removeFirst();
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + normalize(username);
+    }
+
+    private static String pairKey(String username, String address) {
+        return "pair:" + address + ":" + normalize(username);
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String addressKey(String address) {
+        return "addr:" + address;
+    }
+}
@@ -0,0 +1,123 @@
+package com.grievance.security;
+
+import com.grievance.config.InstrumentedExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt checks and hashes, run on the password executor instead of the
+ * request thread. The pool is bounded and aborts when full, and a caller
+ * waits at most app.security.password.max-wait-ms; either way it gets a
+ * RejectedExecutionException, which the endpoints answer with 429.
+ *
+ * A password that matches a hash weaker than app.security.bcrypt-strength is
+ * rehashed in the same task, while the plain text is still at hand, so the
+ * cost goes up one login at a time.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordExecutor")
+    private InstrumentedExecutor passwordExecutor;
+
+    @Value("${app.security.password.max-wait-ms:3000}")
+    private long maxWaitMillis;
+
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder upgraded = new LongAdder();
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /** Outcome of a check; upgradedHash is set when the stored hash should be replaced. */
+    public static final class Verification {
+        private final boolean matches;
+        private final String upgradedHash;
+
+        Verification(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() { return matches; }
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+
+    public Verification verify(String rawPassword, String encodedPassword) {
+        return run(() -> {
+            if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                mismatched.increment();
+                return new Verification(false, null);
+            }
+            matched.increment();
+            if (!passwordEncoder.upgradeEncoding(encodedPassword)) {
+                return new Verification(true, null);
+            }
+            upgraded.increment();
+            return new Verification(true, passwordEncoder.encode(rawPassword));
+        });
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> {
+            encoded.increment();
+            return passwordEncoder.encode(rawPassword);
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("matched", matched.sum());
+        stats.put("mismatched", mismatched.sum());
+        stats.put("upgraded", upgraded.sum());
+        stats.put("encoded", encoded.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        return stats;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many password checks in progress, try again shortly");
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Queued too long; drop it so the pool does not work for a client that has gone
+            future.cancel(true);
+            timedOut.increment();
+            throw new RejectedExecutionException("Too many password checks in progress, try again shortly");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Password check failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RuntimeException("Interrupted while checking password", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.grievance.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.grievance.model.User;
+import com.grievance.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users resolved by logins, and by JwtFilter for tokens issued without role
+ * claims, keyed by username, so neither loads its user from the database.
+ * Entries are detached entities and must be treated as read-only.
+ *
+ * Whatever changes a user's password or role must call evict(username) after
+ * saving; app.security.user-cache.ttl-ms only bounds how long a missed
+ * eviction can go unnoticed. Tokens carry the role they were issued with.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.user-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private Cache<String, User> users;
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The user with this username, loaded on a miss. Unknown usernames are
+     * not cached, so a user registered afterwards is found at once.
+     */
+    public Optional<User> get(String username) {
+        return Optional.ofNullable(users.get(username, name -> userRepository.findByUsername(name).orElse(null)));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            users.invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        return statsOf(users.stats(), users.estimatedSize());
+    }
+
+    static Map<String, Object> statsOf(CacheStats stats, long size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,407 @@
+package com.grievance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves complaint attachments with HTTP caching and byte ranges, so a
+ * repeated download costs a 304 and an interrupted one resumes where it
+ * stopped.
+ *
+ * What a download needs (owner, name, type, file, size, modification time
+ * and ETag) is cached per complaint for app.attachments.cache-ttl-ms, so a
+ * hit touches neither the database nor the filesystem metadata. Attachments
+ * never change once uploaded; the entry is evicted when the complaint is
+ * deleted, and the ttl stays below app.storage.gc-grace-ms so an entry on
+ * another node cannot outlive its blob.
+ *
+ * Blob store attachments carry a strong ETag, the SHA-256 of their content.
+ * Files uploaded before the blob store get a weak one from size and
+ * modification time, which still allows 304s but not If-Range.
+ *
+ * Bodies of app.attachments.sendfile-min-bytes or more are handed to
+ * Tomcat's sendfile, which copies file to socket in the kernel once the
+ * request returns; that is the only zero-copy path. Smaller ones, and
+ * connectors without sendfile (TLS terminated in Tomcat, say), are copied
+ * through the servlet output stream in 256 KB chunks.
+ */
+@Service
+@Slf4j
+public class AttachmentDownloadService {
+
+    // Tomcat's sendfile request attributes, see org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    // Browsers may keep the file but must revalidate it, which is a 304 when unchanged
+    private static final String CACHE_CONTROL = "private, no-cache";
+    // Large enough that a chunk bypasses the connector's response buffer
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${app.attachments.cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.attachments.cache-ttl-ms:600000}")
+    private long cacheTtlMillis;
+
+    @Value("${app.attachments.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    private Cache<Long, Attachment> attachments;
+
+    private final LongAdder downloads = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder unsatisfiable = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    /** Everything needed to authorise and serve one complaint's attachment. */
+    public static class Attachment {
+        private final Long ownerId;
+        private final String fileName;
+        private final String contentType;
+        private final Resource resource;
+        private final File file;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+
+        Attachment(Long ownerId, String fileName, String contentType, Resource resource,
+                   File file, long length, long lastModified, String etag) {
+            this.ownerId = ownerId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.resource = resource;
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+
+        public Long getOwnerId() { return ownerId; }
+        public String getFileName() { return fileName; }
+        public String getContentType() { return contentType; }
+        public long getLength() { return length; }
+        public long getLastModified() { return lastModified; }
+        public String getEtag() { return etag; }
+        public boolean hasStrongEtag() { return !etag.startsWith("W/"); }
+    }
+
+    @PostConstruct
+    public void init() {
+        attachments = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The complaint's attachment, loaded on a miss. Throws if the complaint
+     * does not exist, has no attachment or its file is missing.
+     */
+    public Attachment resolve(Long complaintId) {
+        Attachment attachment = attachments.getIfPresent(complaintId);
+        if (attachment == null) {
+            attachment = load(complaintId);
+            attachments.put(complaintId, attachment);
+        }
+        return attachment;
+    }
+
+    public void evict(Long complaintId) {
+        attachments.invalidate(complaintId);
+    }
+
+    /**
+     * Writes the attachment as the response to a GET or HEAD, answering
+     * conditional requests with 304 and a single byte range with 206.
+     * Several ranges in one request are served as the whole file.
+     */
+    public void send(Attachment attachment, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        downloads.increment();
+        response.setHeader(HttpHeaders.ETAG, attachment.etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attachment.lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(attachment, request)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = attachment.length;
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0 && rangeApplies(attachment, request)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                unsatisfiable.increment();
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                partial.increment();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+
+        response.setContentType(attachment.contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(attachment.fileName, StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (attachment.file != null && count >= sendfileMinBytes
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, attachment.file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            sendfile.increment();
+            bytesServed.add(count);
+            return;
+        }
+        try {
+            writeBody(attachment, start, count, response.getOutputStream());
+            bytesServed.add(count);
+        } catch (IOException e) {
+            // Almost always the client going away mid-download; it resumes with a Range
+            aborted.increment();
+            log.debug("Download of {} ended early: {}", attachment.fileName, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats cache = attachments.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("downloads", downloads.sum());
+        stats.put("notModified", notModified.sum());
+        stats.put("partial", partial.sum());
+        stats.put("unsatisfiable", unsatisfiable.sum());
+        stats.put("sendfile", sendfile.sum());
+        stats.put("aborted", aborted.sum());
+        stats.put("bytesServed", bytesServed.sum());
+        stats.put("cachedEntries", attachments.estimatedSize());
+        stats.put("cacheHitRate", cache.hitRate());
+        return stats;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Attachment load(Long complaintId) {
+        List<Object[]> rows = complaintRepository.findAttachmentRow(complaintId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Complaint not found");
+        }
+        // [userId, fileName, fileType, filePath, fileHash]
+        Object[] row = rows.get(0);
+        String fileName = (String) row[1];
+        if (fileName == null || fileName.isEmpty()) {
+            throw new RuntimeException("No file attached to this complaint");
+        }
+        String contentType = row[2] != null && !((String) row[2]).isEmpty() ? (String) row[2] : DEFAULT_CONTENT_TYPE;
+        String fileHash = (String) row[4];
+
+        try {
+            if (fileHash != null) {
+                Resource resource = blobStore.get(fileHash);
+                File file = resource.isFile() ? resource.getFile() : null;
+                return new Attachment((Long) row[0], fileName, contentType, resource, file,
+                        resource.contentLength(), resource.lastModified(), "\"" + fileHash + "\"");
+            }
+            Path path = legacyPath((String) row[3]);
+            long length = Files.size(path);
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            String etag = "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+            return new Attachment((Long) row[0], fileName, contentType, new FileSystemResource(path),
+                    path.toFile(), length, lastModified, etag);
+        } catch (IOException e) {
+            throw new RuntimeException("File not found on server");
+        }
+    }
+
+    // Uploaded before the blob store: the stored path, or the same name under file.upload-dir
+    private Path legacyPath(String filePath) throws IOException {
+        if (filePath == null) {
+            throw new IOException("No stored path");
+        }
+        Path path = Paths.get(filePath);
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+        Path alternative = Paths.get(uploadDir).resolve(path.getFileName());
+        if (Files.isRegularFile(alternative)) {
+            return alternative;
+        }
+        throw new IOException("Missing " + filePath);
+    }
+
+    // If-None-Match wins over If-Modified-Since (RFC 7232, section 6)
+    private static boolean isNotModified(Attachment attachment, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String ours = opaqueTag(attachment.etag);
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*") || opaqueTag(tag).equals(ours)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && attachment.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // If-Range needs a strong match; otherwise the client gets the whole, changed file
+    private static boolean rangeApplies(Attachment attachment, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return attachment.hasStrongEtag() && ifRange.equals(attachment.etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && attachment.lastModified / 1000 == date / 1000;
+    }
+
+    /**
+     * [start, end] of a single "bytes=" range, UNSATISFIABLE if it starts
+     * past the end, or null if the header is malformed or asks for several
+     * ranges, in which case it is ignored.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new long[] { start, Math.min(end, length - 1) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeBody(Attachment attachment, long start, long count, OutputStream out) throws IOException {
+        try (InputStream in = openAt(attachment, start)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("Attachment shorter than expected");
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    // Local files seek to the start; a blob store without local files has to skip
+    private static InputStream openAt(Attachment attachment, long start) throws IOException {
+        if (attachment.file != null) {
+            FileChannel channel = FileChannel.open(attachment.file.toPath(), StandardOpenOption.READ);
+            return Channels.newInputStream(channel.position(start));
+        }
+        InputStream in = attachment.resource.getInputStream();
+        long skipped = 0;
+        while (skipped < start) {
+            long n = in.skip(start - skipped);
+            if (n <= 0) {
+                in.close();
+                throw new IOException("Blob shorter than expected");
+            }
+            skipped += n;
+        }
+        return in;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -4,52 +4,63 @@ import com.grievance.model.User;
 import com.grievance.model.Role;
 import com.grievance.dto.RegisterRequest;
 import com.grievance.repository.UserRepository;
+import com.grievance.security.PasswordHasher;
+import com.grievance.security.UserCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
+@Slf4j
 public class AuthService {
     
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
     
-    // Validate login credentials
+    @Autowired
+    private UserCache userCache;
+    
+    // Validate login credentials; RejectedExecutionException when password checks are saturated
     public Optional<User> validateLogin(String username, String password) {
-        System.out.println("🔐 AuthService: Validating login for username: " + username);
+        log.debug("AuthService: Validating login for username: {}", username);
         
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        // From the cache JwtFilter uses, so a login waiting for the password executor
+        // does not hold a database connection (open-in-view keeps it to the end of the request)
+        Optional<User> userOpt = username == null ? Optional.empty() : userCache.get(username);
         
         if (userOpt.isEmpty()) {
-            System.out.println("❌ AuthService: User not found: " + username);
+            log.warn("AuthService: User not found: {}", username);
             return Optional.empty();
         }
         
         User user = userOpt.get();
-        System.out.println("✅ AuthService: User found: " + user.getUsername());
+        log.debug("AuthService: User found: {}", user.getUsername());
         
         // Check password with BCrypt
-        boolean passwordMatches = passwordEncoder.matches(password, user.getPassword());
-        System.out.println("✅ AuthService: BCrypt match: " + passwordMatches);
+        PasswordHasher.Verification verification = passwordHasher.verify(password, user.getPassword());
+        log.debug("AuthService: BCrypt match: {}", verification.matches());
         
-        if (passwordMatches) {
+        if (verification.matches()) {
+            if (verification.getUpgradedHash() != null) {
+                log.info("AuthService: Upgrading password hash cost for {}", user.getUsername());
+                updatePassword(user, verification.getUpgradedHash());
+            }
             return Optional.of(user);
         }
         
         // For backward compatibility: check if password is stored in plain text
         if (password.equals(user.getPassword())) {
-            System.out.println("⚠️ AuthService: Plain text match detected - re-encrypting...");
-            user.setPassword(passwordEncoder.encode(password));
-            userRepository.save(user);
+            log.warn("AuthService: Plain text match detected - re-encrypting...");
+            updatePassword(user, passwordHasher.encode(password));
             return Optional.of(user);
         }
         
-        System.out.println("❌ AuthService: Password doesn't match");
+        log.warn("AuthService: Password doesn't match");
         return Optional.empty();
     }
     
@@ -76,7 +87,7 @@ public class AuthService {
     // ================== REGISTRATION METHOD ==================
     // Register new user
     public User registerUser(RegisterRequest request) {
-        System.out.println("📝 AuthService.registerUser() called for: " + request.getUsername());
+        log.debug("AuthService.registerUser() called for: {}", request.getUsername());
         
         // Check if username exists
         if (usernameExists(request.getUsername())) {
@@ -93,14 +104,24 @@ public class AuthService {
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setName(request.getFullName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setRole(Role.USER); // Uses Role.USER enum
         
         User savedUser = userRepository.save(user);
-        System.out.println("✅ User registered successfully: " + savedUser.getUsername());
-        System.out.println("✅ User ID: " + savedUser.getId());
-        System.out.println("✅ Role: " + savedUser.getRole());
+        log.debug("User registered successfully: {}", savedUser.getUsername());
+        log.debug("User ID: {}", savedUser.getId());
+        log.debug("Role: {}", savedUser.getRole());
         return savedUser;
     }
     // =========================================================
+    
+    // Cached users are shared and read-only, so the change goes to a fresh copy
+    private void updatePassword(User user, String encodedPassword) {
+        userRepository.findById(user.getId()).ifPresent(stored -> {
+            stored.setPassword(encodedPassword);
+            userRepository.save(stored);
+        });
+        // Authenticated requests must not keep seeing the old password
+        userCache.evict(user.getUsername());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.grievance.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Content-addressed storage for uploaded files. A blob is named by the
+ * SHA-256 of its bytes, so storing the same file twice keeps one copy.
+ *
+ * Every put() adds a reference and every release() drops one, both in the
+ * caller's transaction, so a complaint or comment that is rolled back never
+ * keeps a reference. Blobs without references are deleted by the store
+ * after a grace period.
+ *
+ * LocalBlobStore keeps blobs on the local filesystem; another implementation
+ * (an S3-compatible object store, say) can replace it through
+ * app.storage.backend.
+ */
+public interface BlobStore {
+
+    /** Streams the content into the store and adds a reference to it. */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /** The blob's content; throws if there is no such blob. */
+    Resource get(String sha256) throws IOException;
+
+    boolean exists(String sha256);
+
+    /** Drops one reference; the blob is deleted once none are left. */
+    void release(String sha256);
+
+    Map<String, Object> getStats();
+
+    /** Name and size of a stored blob. */
+    class StoredBlob {
+        private final String sha256;
+        private final long size;
+        private final boolean deduplicated;
+
+        public StoredBlob(String sha256, long size, boolean deduplicated) {
+            this.sha256 = sha256;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getSha256() { return sha256; }
+        public long getSize() { return size; }
+        /** True if the content was already stored and no new copy was written. */
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.grievance.service;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Receives the complaints changed since the last cluster sync, by any node,
+ * from ClusterSyncService. Implementations drop or reload whatever they keep
+ * in memory for those complaints.
+ */
+public interface ClusterSyncListener {
+
+    /**
+     * @param changedComplaintIds complaints updated or commented on since {@code since}
+     * @param since               start of the window read, overlap included
+     */
+    void syncFromCluster(Set<Long> changedComplaintIds, Date since);
+}
@@ -0,0 +1,89 @@
+package com.grievance.service;
+
+import com.grievance.repository.CommentRepository;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cluster mode: every app.cluster.sync-interval-ms, reads the complaints
+ * updated or commented on since the previous run and hands them to each
+ * ClusterSyncListener, so in-memory state on this node catches up with
+ * writes made on the others. One pair of queries per interval, however
+ * many listeners there are. Does nothing on a single node.
+ */
+@Service
+@Slf4j
+public class ClusterSyncService {
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired(required = false)
+    private List<ClusterSyncListener> listeners = Collections.emptyList();
+
+    private volatile long lastSync = System.currentTimeMillis();
+
+    private final AtomicLong lastChanged = new AtomicLong();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Scheduled(fixedDelayString = "${app.cluster.sync-interval-ms:10000}")
+    public void sync() {
+        if (!schedulerLeaseService.isClusterEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Overlap by one lease period so a write committed late on another node is not missed
+        Date since = new Date(lastSync - schedulerLeaseService.getLeaseTtlMillis());
+        Set<Long> changed;
+        try {
+            changed = new HashSet<>(complaintRepository.findIdsUpdatedSince(since));
+            changed.addAll(commentRepository.findComplaintIdsCommentedSince(
+                    LocalDateTime.ofInstant(since.toInstant(), ZoneId.systemDefault())));
+        } catch (Exception e) {
+            // lastSync stays put, so the next run reads this window again
+            failures.increment();
+            log.warn("Cluster sync failed, will retry: {}", e.getMessage());
+            return;
+        }
+        lastSync = now;
+        runs.increment();
+        lastChanged.set(changed.size());
+
+        Set<Long> readOnly = Collections.unmodifiableSet(changed);
+        for (ClusterSyncListener listener : listeners) {
+            try {
+                listener.syncFromCluster(readOnly, since);
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Cluster sync of {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", schedulerLeaseService.isClusterEnabled());
+        stats.put("listeners", listeners.size());
+        stats.put("runs", runs.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastChanged", lastChanged.get());
+        stats.put("lastSync", new Date(lastSync));
+        return stats;
+    }
+}
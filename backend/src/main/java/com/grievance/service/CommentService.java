@@ -1,5 +1,6 @@
 package com.grievance.service;
 
+import com.grievance.dto.CommentPageDTO;
 import com.grievance.dto.CommentRequest;
 import com.grievance.dto.CommentResponse;
 import com.grievance.model.Comment;
@@ -8,22 +9,23 @@ import com.grievance.model.User;
 import com.grievance.repository.CommentRepository;
 import com.grievance.repository.ComplaintRepository;
 import com.grievance.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class CommentService {
     
     @Autowired
@@ -38,31 +40,42 @@ public class CommentService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private ComplaintSearchService complaintSearchService;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private ComplaintViewService complaintViewService;
+    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     // ========== ADD COMMENT WITH FILE ==========
     @Transactional
     public CommentResponse addComment(CommentRequest request, MultipartFile file) throws IOException {
-        System.out.println("\n💬 ========== ADDING COMMENT ==========");
-        System.out.println("Complaint ID: " + request.getComplaintId());
-        System.out.println("Content: " + (request.getContent() != null && request.getContent().length() > 50 ? 
-            request.getContent().substring(0, 50) + "..." : request.getContent()));
-        System.out.println("Type: " + request.getType());
-        System.out.println("Is Admin Only: " + request.getIsAdminOnly());
+        log.debug("Adding comment");
+        log.debug("Complaint ID: {}", request.getComplaintId());
+        log.debug("Content: {}", request.getContent() != null && request.getContent().length() > 50
+                ? request.getContent().substring(0, 50) + "..." : request.getContent());
+        log.debug("Type: {}", request.getType());
+        log.debug("Is Admin Only: {}", request.getIsAdminOnly());
         
         try {
             // Validate complaint exists
             Complaint complaint = complaintRepository.findById(request.getComplaintId())
                     .orElseThrow(() -> new RuntimeException("Complaint not found with ID: " + request.getComplaintId()));
-            System.out.println("✅ Complaint found: " + complaint.getId() + " - " + complaint.getTitle());
+            log.debug("Complaint found: {} - {}", complaint.getId(), complaint.getTitle());
             
             // Get current user (temporary - hardcoded as admin)
             String currentUsername = "admin";
-            System.out.println("👤 Using username: " + currentUsername);
+            log.debug("Using username: {}", currentUsername);
             
             User user = userRepository.findByUsername(currentUsername)
                     .orElseThrow(() -> new RuntimeException("User not found: " + currentUsername));
-            System.out.println("✅ User found: " + user.getId() + " - " + user.getUsername());
+            log.debug("User found: {} - {}", user.getId(), user.getUsername());
             
             // Create and save comment
             Comment comment = new Comment();
@@ -79,43 +92,36 @@ public class CommentService {
             }
             comment.setType(type);
             
-            System.out.println("✅ Comment type set to: " + type);
+            log.debug("Comment type set to: {}", type);
             
             comment.setIsAdminOnly(request.getIsAdminOnly() != null && request.getIsAdminOnly());
             comment.setCreatedAt(LocalDateTime.now());
             comment.setComplaint(complaint);
             comment.setUser(user);
             
-            System.out.println("📝 Comment details:");
-            System.out.println("   - Content: " + comment.getContent());
-            System.out.println("   - Type: " + comment.getType());
-            System.out.println("   - IsAdminOnly: " + comment.getIsAdminOnly());
-            System.out.println("   - CreatedAt: " + comment.getCreatedAt());
+            log.debug("Comment details:");
+            log.debug("Content: {}", comment.getContent());
+            log.debug("Type: {}", comment.getType());
+            log.debug("IsAdminOnly: {}", comment.getIsAdminOnly());
+            log.debug("CreatedAt: {}", comment.getCreatedAt());
             
             // Handle file upload if provided
             if (file != null && !file.isEmpty()) {
-                System.out.println("📎 Processing file: " + file.getOriginalFilename());
-                String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                Path uploadDir = Paths.get("uploads/comments").toAbsolutePath().normalize();
-                
-                // Create directory if it doesn't exist
-                if (!Files.exists(uploadDir)) {
-                    Files.createDirectories(uploadDir);
-                    System.out.println("📁 Created directory: " + uploadDir);
-                }
+                log.debug("Processing file: {}", file.getOriginalFilename());
+                BlobStore.StoredBlob blob = blobStore.put(file.getInputStream());
                 
-                Path targetLocation = uploadDir.resolve(fileName);
-                Files.copy(file.getInputStream(), targetLocation);
-                
-                comment.setAttachmentPath(targetLocation.toString());
-                System.out.println("✅ File saved to: " + targetLocation);
+                comment.setAttachmentPath(file.getOriginalFilename());
+                comment.setAttachmentHash(blob.getSha256());
+                log.debug("File stored as blob {}", blob.getSha256());
             } else {
-                System.out.println("📎 No file attached");
+                log.debug("No file attached");
             }
             
             // Save the comment
             Comment savedComment = commentRepository.save(comment);
-            System.out.println("💾 Comment saved successfully! ID: " + savedComment.getId());
+            complaintSearchService.complaintChanged(complaint.getId());
+            complaintViewService.complaintChanged(complaint.getId());
+            log.debug("Comment saved successfully! ID: {}", savedComment.getId());
             
             // Send notification if email service is available
             try {
@@ -123,19 +129,17 @@ public class CommentService {
                     sendNotification(savedComment, complaint, user);
                 }
             } catch (Exception e) {
-                System.out.println("⚠️ Notification failed: " + e.getMessage());
+                log.warn("Notification failed: {}", e.getMessage());
             }
             
             // Convert to response and return
             CommentResponse response = convertToResponse(savedComment);
-            System.out.println("✅ CommentResponse created");
-            System.out.println("==========================================\n");
+            log.debug("CommentResponse created");
             
             return response;
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR in addComment: " + e.getMessage());
-            e.printStackTrace();
+            log.error("ERROR in addComment: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to add comment: " + e.getMessage(), e);
         }
     }
@@ -143,8 +147,8 @@ public class CommentService {
     // ========== ADD COMMENT WITH USER ID ==========
     @Transactional
     public CommentResponse addComment(CommentRequest request, Long userId) {
-        System.out.println("\n💬 ========== ADDING COMMENT WITH USER ID ==========");
-        System.out.println("User ID: " + userId);
+        log.debug("Adding comment with user id");
+        log.debug("User ID: {}", userId);
         
         try {
             // Validate complaint exists
@@ -181,7 +185,9 @@ public class CommentService {
             }
             
             Comment savedComment = commentRepository.save(comment);
-            System.out.println("✅ Comment saved with ID: " + savedComment.getId());
+            complaintSearchService.complaintChanged(complaint.getId());
+            complaintViewService.complaintChanged(complaint.getId());
+            log.debug("Comment saved with ID: {}", savedComment.getId());
             
             // Send notification
             try {
@@ -189,52 +195,85 @@ public class CommentService {
                     sendNotification(savedComment, complaint, user);
                 }
             } catch (Exception e) {
-                System.out.println("⚠️ Notification failed: " + e.getMessage());
+                log.warn("Notification failed: {}", e.getMessage());
             }
             
             return convertToResponse(savedComment);
             
         } catch (Exception e) {
-            System.out.println("❌ ERROR in addComment with user ID: " + e.getMessage());
+            log.warn("ERROR in addComment with user ID: {}", e.getMessage());
             throw new RuntimeException("Failed to add comment: " + e.getMessage(), e);
         }
     }
     
     // ========== GET COMMENTS ==========
-    public List<CommentResponse> getCommentsByComplaintId(Long complaintId, boolean adminView) {
-        System.out.println("📋 Getting comments for complaint: " + complaintId);
-        System.out.println("Admin view: " + adminView);
-        
-        List<Comment> comments;
+    
+    /**
+     * One page of the complaint's comments, newest first. The order and the
+     * admin-only filter are applied in the query; pass the previous page's
+     * nextCursor to continue.
+     */
+    public CommentPageDTO getCommentTimeline(Long complaintId, boolean adminView, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
         
-        if (adminView) {
-            // Admin view: show all comments
-            comments = commentRepository.findByComplaintId(complaintId);
-            System.out.println("👨‍💼 Showing all comments (admin view)");
-        } else {
-            // User view: only show non-admin-only comments
-            comments = commentRepository.findByComplaintIdAndIsAdminOnlyFalse(complaintId);
-            System.out.println("👤 Showing only public comments (user view)");
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                cursorCreatedAt = LocalDateTime.parse(raw.substring(0, sep));
+                cursorId = Long.parseLong(raw.substring(sep + 1));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
         }
         
-        // Sort by creation date descending (newest first)
-        comments.sort((c1, c2) -> c2.getCreatedAt().compareTo(c1.getCreatedAt()));
+        log.debug("Getting comments for complaint: {} (adminView={}, limit={}, cursor={})",
+                complaintId, adminView, pageSize, cursor);
+        
+        // Fetch one extra row to find out whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CommentResponse> rows = adminView
+                ? commentRepository.findTimelinePage(complaintId, cursorCreatedAt, cursorId, page)
+                : commentRepository.findPublicTimelinePage(complaintId, cursorCreatedAt, cursorId, page);
         
-        System.out.println("✅ Found " + comments.size() + " comments");
+        CommentPageDTO result = toPage(rows, pageSize);
+        log.debug("Found {} comments, hasMore={}", result.getItems().size(), result.isHasMore());
+        return result;
+    }
+    
+    /**
+     * The page for rows fetched with a limit of pageSize + 1; the extra row
+     * only tells whether another page exists. Also used by ComplaintViewService.
+     */
+    static CommentPageDTO toPage(List<CommentResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        for (CommentResponse row : rows) {
+            if (row.getCreatedAt() != null) {
+                row.setFormattedCreatedAt(row.getCreatedAt().format(DATE_FORMATTER));
+            }
+        }
         
-        return comments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            CommentResponse last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CommentPageDTO(rows, nextCursor, hasMore, pageSize);
     }
     
     // ========== DELETE COMMENT ==========
     @Transactional
     public boolean deleteComment(Long commentId, String username) {
-        System.out.println("🗑️ Deleting comment ID: " + commentId);
+        log.debug("Deleting comment ID: {}", commentId);
         
         Optional<Comment> commentOpt = commentRepository.findById(commentId);
         if (commentOpt.isEmpty()) {
-            System.out.println("❌ Comment not found with ID: " + commentId);
+            log.warn("Comment not found with ID: {}", commentId);
             return false;
         }
         
@@ -247,23 +286,29 @@ public class CommentService {
         boolean isOwner = comment.getUser().getId().equals(user.getId());
         
         if (!isAdmin && !isOwner) {
-            System.out.println("❌ Permission denied - not admin or owner");
+            log.warn("Permission denied - not admin or owner");
             throw new RuntimeException("You don't have permission to delete this comment");
         }
         
         commentRepository.delete(comment);
-        System.out.println("✅ Comment deleted successfully");
+        if (comment.getAttachmentHash() != null) {
+            blobStore.release(comment.getAttachmentHash());
+        }
+        complaintSearchService.complaintChanged(comment.getComplaint().getId());
+        complaintViewService.complaintChanged(comment.getComplaint().getId());
+        log.debug("Comment deleted successfully");
         return true;
     }
     
     // ========== GET COMMENT BY ID ==========
+    @Transactional(readOnly = true)
     public CommentResponse getCommentById(Long commentId) {
-        System.out.println("🔍 Getting comment by ID: " + commentId);
+        log.debug("Getting comment by ID: {}", commentId);
         
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         
-        System.out.println("✅ Comment found");
+        log.debug("Comment found");
         return convertToResponse(comment);
     }
     
@@ -279,21 +324,20 @@ public class CommentService {
             // If commenter is admin, notify the complaint creator
             if ("ADMIN".equals(commenter.getRole().name())) {
                 recipient = complaint.getUser();
-                System.out.println("📧 Sending notification to complaint creator: " + 
-                    (recipient != null ? recipient.getEmail() : "null"));
+                log.debug("Sending notification to complaint creator: {}", (recipient != null ? recipient.getEmail() : "null"));
             } else {
                 // If user commented, notify assigned admin (if any)
                 if (complaint.getAssignedTo() != null && !complaint.getAssignedTo().isEmpty()) {
                     try {
                         Long assignedToId = Long.parseLong(complaint.getAssignedTo());
                         recipient = userRepository.findById(assignedToId).orElse(null);
-                        System.out.println("📧 Sending notification to assigned admin ID: " + assignedToId);
+                        log.debug("Sending notification to assigned admin ID: {}", assignedToId);
                     } catch (NumberFormatException e) {
                         recipient = null;
                     }
                 } else {
                     // No assigned admin, skip notification
-                    System.out.println("📧 No assigned admin, skipping notification");
+                    log.debug("No assigned admin, skipping notification");
                     return;
                 }
             }
@@ -313,14 +357,22 @@ public class CommentService {
                 );
                 
                 emailService.sendCommentNotification(recipient.getEmail(), subject, message);
-                System.out.println("✅ Notification sent to: " + recipient.getEmail());
+                log.debug("Notification sent to: {}", recipient.getEmail());
             }
         } catch (Exception e) {
-            System.out.println("⚠️ Failed to send notification: " + e.getMessage());
+            log.warn("Failed to send notification: {}", e.getMessage());
         }
     }
     
-    private CommentResponse convertToResponse(Comment comment) {
+    // createdAt in ISO form keeps the microseconds of created_at
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Package-private for the benchmarks module (DtoMappingBenchmark)
+    CommentResponse convertToResponse(Comment comment) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setContent(comment.getContent());
@@ -0,0 +1,153 @@
+package com.grievance.service;
+
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintFilter;
+import com.grievance.repository.ComplaintRepository;
+import com.opencsv.CSVWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Raw complaint-level CSV export. Rows are read through a forward-only
+ * projection stream and written straight to the response, flushing every
+ * {@link #FLUSH_EVERY} rows, so heap use does not grow with the row count.
+ */
+@Service
+@Slf4j
+public class ComplaintExportService {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    // Column name -> value extractor, in default output order
+    private static final Map<String, Function<ComplaintDTO, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", ComplaintDTO::getId);
+        COLUMNS.put("title", ComplaintDTO::getTitle);
+        COLUMNS.put("description", ComplaintDTO::getDescription);
+        COLUMNS.put("category", ComplaintDTO::getCategory);
+        COLUMNS.put("status", ComplaintDTO::getStatus);
+        COLUMNS.put("priority", ComplaintDTO::getPriority);
+        COLUMNS.put("department", ComplaintDTO::getDepartment);
+        COLUMNS.put("assignedTo", ComplaintDTO::getAssignedTo);
+        COLUMNS.put("userId", ComplaintDTO::getUserId);
+        COLUMNS.put("userName", ComplaintDTO::getUserName);
+        COLUMNS.put("userEmail", ComplaintDTO::getUserEmail);
+        COLUMNS.put("createdAt", ComplaintDTO::getCreatedAt);
+        COLUMNS.put("updatedAt", ComplaintDTO::getUpdatedAt);
+        COLUMNS.put("resolvedAt", ComplaintDTO::getResolvedAt);
+        COLUMNS.put("escalationLevel", ComplaintDTO::getEscalationLevel);
+        COLUMNS.put("escalatedAt", ComplaintDTO::getEscalatedAt);
+        COLUMNS.put("nextEscalationTime", ComplaintDTO::getNextEscalationTime);
+        COLUMNS.put("fileName", ComplaintDTO::getFileName);
+    }
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Resolves a comma-separated column list against the known columns.
+     * An empty selection means every column.
+     */
+    public List<String> resolveColumns(String columns) {
+        if (columns == null || columns.trim().isEmpty()) {
+            return new ArrayList<>(COLUMNS.keySet());
+        }
+        List<String> selected = new ArrayList<>();
+        for (String column : columns.split(",")) {
+            String name = column.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!COLUMNS.containsKey(name)) {
+                throw new RuntimeException("Unknown export column: " + name + ". Allowed: " + COLUMNS.keySet());
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new RuntimeException("No export columns selected");
+        }
+        return selected;
+    }
+
+    /**
+     * Writes the filtered complaints as CSV to the given stream. Called from the
+     * response-writing thread, so it opens its own read-only transaction.
+     */
+    public long writeCsv(ComplaintFilter filter, List<String> columns, OutputStream out) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        Long rows = tx.execute(status -> stream(filter, columns, out));
+        return rows != null ? rows : 0L;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private long stream(ComplaintFilter filter, List<String> columns, OutputStream out) {
+        long started = System.currentTimeMillis();
+        List<Function<ComplaintDTO, Object>> extractors = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            extractors.add(COLUMNS.get(column));
+        }
+
+        long rows = 0;
+        // Not closed: closing the writer would close the servlet output stream
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        try (Stream<ComplaintDTO> stream = complaintRepository.streamForExport(
+                filter.getStatus(),
+                filter.getPriority(),
+                filter.getCategory(),
+                filter.getAssignedTo(),
+                filter.getEscalationLevel(),
+                filter.getCreatedFrom(),
+                filter.getCreatedTo())) {
+
+            writer.writeNext(columns.toArray(new String[0]));
+            String[] line = new String[extractors.size()];
+            Iterator<ComplaintDTO> it = stream.iterator();
+            while (it.hasNext()) {
+                ComplaintDTO dto = it.next();
+                for (int i = 0; i < line.length; i++) {
+                    line[i] = format(extractors.get(i).apply(dto));
+                }
+                writer.writeNext(line);
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing complaint export", e);
+        }
+
+        log.info("Exported {} complaints ({} columns) in {} ms",
+                rows, columns.size(), System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().toString();
+        }
+        return value.toString();
+    }
+}
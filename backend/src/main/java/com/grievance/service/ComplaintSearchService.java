@@ -0,0 +1,564 @@
+package com.grievance.service;
+
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintSearchPage;
+import com.grievance.repository.CommentRepository;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Full-text search over complaint titles, descriptions and comments, kept in
+ * an embedded Lucene index under app.search.index-dir (one document per
+ * complaint, its comments included).
+ *
+ * Writers call complaintChanged(id); after their transaction commits the id
+ * is queued and the next refresh tick (app.search.refresh-interval-ms)
+ * re-reads the queued complaints in batches and replaces their documents,
+ * so a burst of comments on one complaint costs one re-index. Searches see
+ * changes from that tick on; the index is committed to disk every
+ * app.search.commit-interval-ms and on shutdown, together with the time up
+ * to which it is complete. On startup complaints updated or commented on
+ * since then are re-indexed; an empty index is built from scratch.
+ *
+ * Each node keeps its own index. In cluster mode ClusterSyncService queues
+ * the complaints other nodes changed, by updated_at and comment created_at,
+ * every app.cluster.sync-interval-ms. Deletions on another node are not seen until
+ * the next rebuild, but search results are read back from the database, so
+ * a deleted complaint never shows up; it only inflates total and facets.
+ *
+ * rebuild() re-indexes everything while searches keep using the previous
+ * view; SearchIndexRebuild runs it offline.
+ */
+@Service
+@Slf4j
+public class ComplaintSearchService implements ClusterSyncListener {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_COMMENTS = "comments";
+    static final String FIELD_ADMIN_COMMENTS = "adminComments";
+    static final String FIELD_USER = "userId";
+    static final String FIELD_CREATED = "createdAt";
+    static final String FACET_STATUS = "status";
+    static final String FACET_PRIORITY = "priority";
+    static final String FACET_CATEGORY = "category";
+    private static final List<String> FACETS = Arrays.asList(FACET_STATUS, FACET_PRIORITY, FACET_CATEGORY);
+
+    private static final String COMMIT_SYNCED_AT = "syncedAt";
+    // Re-read this much before the recorded sync time, for writes committed late
+    private static final long CATCH_UP_OVERLAP_MS = 60_000L;
+    // Deepest result reachable by paging; refine the query instead
+    private static final int MAX_RESULT_WINDOW = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FACET_VALUES = 50;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    @Qualifier("reportsExecutor")
+    private Executor reportsExecutor;
+
+    @Value("${app.search.index-dir:./search-index}")
+    private String indexDir;
+
+    @Value("${app.search.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.search.commit-interval-ms:30000}")
+    private long commitIntervalMillis;
+
+    @Value("${app.search.startup-sync:true}")
+    private boolean startupSync;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Complaints to re-index on the next tick
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Held by the refresh tick and by rebuild, which must not interleave
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile long syncedAt;           // index is complete up to here (ms)
+    private volatile long uncommittedSince;   // 0 when everything is on disk
+    private volatile long lastRefreshMillis;
+
+    // Facet ordinals of the current reader; rebuilt when the reader changes
+    private volatile IndexReader facetReader;
+    private volatile SortedSetDocValuesReaderState facetState;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir).toAbsolutePath().normalize());
+        openWriter();
+        log.info("Search index at {}: {} document(s), complete up to {}",
+                indexDir, writer.getDocStats().numDocs, syncedAt > 0 ? new Date(syncedAt) : "never");
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (uncommittedSince > 0) {
+                commit(uncommittedSince);
+            }
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() {
+        if (!startupSync) {
+            return;
+        }
+        if (writer.getDocStats().numDocs == 0 && syncedAt == 0) {
+            log.info("Search index is empty, building it in the background");
+            reportsExecutor.execute(this::rebuildQuietly);
+        } else if (syncedAt > 0) {
+            int changed = queueChangedSince(syncedAt - CATCH_UP_OVERLAP_MS);
+            log.info("Search index: {} complaint(s) changed since {} queued for re-indexing", changed, new Date(syncedAt));
+        }
+    }
+
+    // ========== WRITES ==========
+
+    /** Re-index the complaint (created, updated, commented on or deleted) once the caller's transaction commits. */
+    public void complaintChanged(Long complaintId) {
+        if (complaintId != null) {
+            AfterCommit.run(() -> pending.add(complaintId));
+        }
+    }
+
+    @Override
+    public void syncFromCluster(Set<Long> changedComplaintIds, Date since) {
+        pending.addAll(changedComplaintIds);
+    }
+
+    /**
+     * Applies queued changes and makes them searchable; commits to disk every
+     * commit interval. Skipped while a rebuild holds the index.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public void refreshIndex() {
+        if (!writeLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (!pending.isEmpty()) {
+                long started = System.nanoTime();
+                List<Long> ids = new ArrayList<>(pending);
+                pending.removeAll(ids);
+                try {
+                    index(ids);
+                } catch (IOException | RuntimeException e) {
+                    pending.addAll(ids);
+                    throw e;
+                }
+                if (uncommittedSince == 0) {
+                    uncommittedSince = now;
+                }
+                searcherManager.maybeRefresh();
+                lastRefreshMillis = (System.nanoTime() - started) / 1_000_000;
+                log.debug("Search index: re-indexed {} complaint(s) in {} ms", ids.size(), lastRefreshMillis);
+            }
+
+            if (uncommittedSince > 0 && now - uncommittedSince >= commitIntervalMillis) {
+                // Everything queued before this tick is in the index
+                commit(now);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Search index refresh failed, will retry: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Searches keep using the
+     * previous index until it is complete; writes made meanwhile are applied
+     * afterwards. Returns the number of complaints indexed.
+     */
+    public long rebuild() throws IOException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("A search index rebuild is already running");
+        }
+        writeLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            log.info("Rebuilding search index");
+            writer.deleteAll();
+            long indexed = 0;
+            Long afterId = 0L;
+            while (true) {
+                List<Object[]> rows = complaintRepository.findSearchRowsAfter(afterId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                writeDocuments(rows, true);
+                indexed += rows.size();
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+                if (indexed % 100_000 < batchSize) {
+                    log.info("Search index rebuild: {} complaint(s) so far", indexed);
+                }
+            }
+            commit(started);
+            searcherManager.maybeRefreshBlocking();
+            log.info("Search index rebuilt: {} complaint(s) in {} ms", indexed, System.currentTimeMillis() - started);
+            return indexed;
+        } catch (IOException | RuntimeException e) {
+            log.error("Search index rebuild failed, keeping the previous index: {}", e.getMessage(), e);
+            // Drops deleteAll and the partial rebuild; the last commit is intact
+            searcherManager.close();
+            writer.rollback();
+            openWriter();
+            throw e;
+        } finally {
+            writeLock.unlock();
+            rebuilding.set(false);
+        }
+    }
+
+    /** rebuild() on a background thread, for the admin endpoint and startup. */
+    public void rebuildInBackground() {
+        if (rebuilding.get()) {
+            throw new RuntimeException("A search index rebuild is already running");
+        }
+        reportsExecutor.execute(this::rebuildQuietly);
+    }
+
+    // ========== SEARCH ==========
+
+    /**
+     * Ranked search (or newest first with sort=newest) over title (weighted
+     * 3x), description and public comments; internal comments too when
+     * includeAdminComments. The query uses simple syntax: all words must
+     * match, "quoted phrases", -excluded, prefix*. Blank queries match
+     * everything. Null filters are ignored; ownerId restricts the results to
+     * one user's complaints. Facet counts cover all matches.
+     */
+    public ComplaintSearchPage search(String text, String status, String priority, String category,
+                                      Long ownerId, boolean includeAdminComments,
+                                      String sort, int page, int size) throws IOException {
+        long started = System.nanoTime();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        int window = Math.min((pageNumber + 1) * pageSize + 1, MAX_RESULT_WINDOW);
+
+        Query query = buildQuery(text, status, priority, category, ownerId, includeAdminComments);
+
+        List<Long> ids = new ArrayList<>();
+        long total;
+        Map<String, Map<String, Long>> facets;
+        boolean hasMore;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs top = "newest".equalsIgnoreCase(sort)
+                    ? FacetsCollector.search(searcher, query, window,
+                            new Sort(new SortField(FIELD_CREATED, SortField.Type.LONG, true)), facetsCollector)
+                    : FacetsCollector.search(searcher, query, window, facetsCollector);
+            total = top.totalHits.value;
+            ScoreDoc[] hits = top.scoreDocs;
+            int from = pageNumber * pageSize;
+            int to = Math.min(hits.length, from + pageSize);
+            for (int i = from; i < to; i++) {
+                ids.add(Long.valueOf(searcher.doc(hits[i].doc).get(FIELD_ID)));
+            }
+            hasMore = hits.length > to && to < MAX_RESULT_WINDOW;
+            facets = facetCounts(searcher.getIndexReader(), facetsCollector);
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        // Current data comes from the database, in rank order
+        List<ComplaintDTO> items = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            Map<Long, ComplaintDTO> byId = new HashMap<>();
+            for (ComplaintDTO dto : complaintRepository.findDtosByIdIn(ids)) {
+                byId.put(dto.getId(), dto);
+            }
+            for (Long id : ids) {
+                ComplaintDTO dto = byId.get(id);
+                if (dto != null) {
+                    items.add(dto);
+                }
+            }
+        }
+
+        long tookMs = (System.nanoTime() - started) / 1_000_000;
+        log.debug("Search '{}' matched {} complaint(s) in {} ms", text, total, tookMs);
+        return new ComplaintSearchPage(items, total, pageNumber, pageSize, hasMore, facets, tookMs);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("documents", writer.getDocStats().numDocs);
+        stats.put("pending", pending.size());
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("syncedAt", syncedAt > 0 ? new Date(syncedAt) : null);
+        stats.put("lastRefreshMs", lastRefreshMillis);
+        return stats;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private Query buildQuery(String text, String status, String priority, String category,
+                             Long ownerId, boolean includeAdminComments) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (text == null || text.trim().isEmpty()) {
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        } else {
+            Map<String, Float> fields = new LinkedHashMap<>();
+            fields.put(FIELD_TITLE, 3.0f);
+            fields.put(FIELD_DESCRIPTION, 1.0f);
+            fields.put(FIELD_COMMENTS, 1.0f);
+            if (includeAdminComments) {
+                fields.put(FIELD_ADMIN_COMMENTS, 1.0f);
+            }
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, fields);
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            Query parsed = parser.parse(text.trim());
+            // A query of stop words only ("the", "and") parses to nothing
+            query.add(parsed != null ? parsed : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        addFilter(query, FACET_STATUS, upper(status));
+        addFilter(query, FACET_PRIORITY, upper(priority));
+        addFilter(query, FACET_CATEGORY, category);
+        if (ownerId != null) {
+            addFilter(query, FIELD_USER, ownerId.toString());
+        }
+        return query.build();
+    }
+
+    private static void addFilter(BooleanQuery.Builder query, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            query.add(new TermQuery(new Term(field, value)), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private Map<String, Map<String, Long>> facetCounts(IndexReader reader, FacetsCollector collector) throws IOException {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        SortedSetDocValuesReaderState state = facetState(reader);
+        Facets counts = state != null ? new SortedSetDocValuesFacetCounts(state, collector) : null;
+        for (String dimension : FACETS) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            if (counts != null) {
+                try {
+                    FacetResult facet = counts.getTopChildren(MAX_FACET_VALUES, dimension);
+                    if (facet != null) {
+                        for (LabelAndValue value : facet.labelValues) {
+                            values.put(value.label, value.value.longValue());
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    // No document has this dimension yet
+                }
+            }
+            result.put(dimension, values);
+        }
+        return result;
+    }
+
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        if (facetReader != reader) {
+            synchronized (this) {
+                if (facetReader != reader) {
+                    SortedSetDocValuesReaderState state;
+                    try {
+                        state = new DefaultSortedSetDocValuesReaderState(reader);
+                    } catch (IllegalArgumentException e) {
+                        state = null; // empty index
+                    }
+                    facetState = state;
+                    facetReader = reader;
+                }
+            }
+        }
+        return facetState;
+    }
+
+    /** Replaces the documents of these complaints, deleting those no longer in the database. */
+    private void index(List<Long> ids) throws IOException {
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            List<Object[]> rows = complaintRepository.findSearchRowsByIdIn(chunk);
+            Set<Long> missing = new HashSet<>(chunk);
+            for (Object[] row : rows) {
+                missing.remove((Long) row[0]);
+            }
+            writeDocuments(rows, false);
+            for (Long id : missing) {
+                writer.deleteDocuments(new Term(FIELD_ID, id.toString()));
+            }
+        }
+    }
+
+    private void writeDocuments(List<Object[]> rows, boolean append) throws IOException {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        Map<Long, List<Object[]>> comments = new HashMap<>();
+        for (Object[] comment : commentRepository.findSearchRowsByComplaintIdIn(ids)) {
+            comments.computeIfAbsent((Long) comment[0], id -> new ArrayList<>()).add(comment);
+        }
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Document document = facetsConfig.build(toDocument(row, comments.getOrDefault(id, Collections.emptyList())));
+            if (append) {
+                writer.addDocument(document);
+            } else {
+                writer.updateDocument(new Term(FIELD_ID, id.toString()), document);
+            }
+        }
+    }
+
+    // row: [id, title, description, status, priority, category, userId, createdAt]; package-private for the benchmarks
+    static Document toDocument(Object[] row, List<Object[]> comments) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, row[0].toString(), Field.Store.YES));
+        addText(document, FIELD_TITLE, (String) row[1]);
+        addText(document, FIELD_DESCRIPTION, (String) row[2]);
+        for (Object[] comment : comments) {
+            addText(document, Boolean.TRUE.equals(comment[2]) ? FIELD_ADMIN_COMMENTS : FIELD_COMMENTS, (String) comment[1]);
+        }
+        addFacet(document, FACET_STATUS, row[3] != null ? ((Enum<?>) row[3]).name() : null);
+        addFacet(document, FACET_PRIORITY, row[4] != null ? ((Enum<?>) row[4]).name() : null);
+        addFacet(document, FACET_CATEGORY, (String) row[5]);
+        if (row[6] != null) {
+            document.add(new StringField(FIELD_USER, row[6].toString(), Field.Store.NO));
+        }
+        Date createdAt = (Date) row[7];
+        document.add(new NumericDocValuesField(FIELD_CREATED, createdAt != null ? createdAt.getTime() : 0L));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        if (text != null && !text.isEmpty()) {
+            document.add(new TextField(field, text, Field.Store.NO));
+        }
+    }
+
+    private static void addFacet(Document document, String dimension, String value) {
+        if (value != null && !value.isEmpty()) {
+            document.add(new StringField(dimension, value, Field.Store.NO));
+            document.add(new SortedSetDocValuesFacetField(dimension, value));
+        }
+    }
+
+    private int queueChangedSince(long sinceMillis) {
+        Set<Long> changed = new HashSet<>(complaintRepository.findIdsUpdatedSince(new Date(sinceMillis)));
+        changed.addAll(commentRepository.findComplaintIdsCommentedSince(
+                LocalDateTime.ofInstant(new Date(sinceMillis).toInstant(), ZoneId.systemDefault())));
+        pending.addAll(changed);
+        return changed.size();
+    }
+
+    private void commit(long completeUpTo) throws IOException {
+        writer.setLiveCommitData(Collections.singletonMap(COMMIT_SYNCED_AT, Long.toString(completeUpTo)).entrySet());
+        writer.commit();
+        syncedAt = completeUpTo;
+        uncommittedSince = 0;
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        syncedAt = 0;
+        uncommittedSince = 0;
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (COMMIT_SYNCED_AT.equals(entry.getKey())) {
+                    syncedAt = Long.parseLong(entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            // Already logged by rebuild()
+        }
+    }
+
+    private static String upper(String value) {
+        return value != null ? value.trim().toUpperCase() : null;
+    }
+}
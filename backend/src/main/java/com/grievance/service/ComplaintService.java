@@ -1,22 +1,25 @@
 package com.grievance.service;
 
 import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintFilter;
+import com.grievance.dto.ComplaintPageDTO;
 import com.grievance.model.Complaint;
 import com.grievance.model.Complaint.Priority;
 import com.grievance.model.Complaint.Status;
 import com.grievance.model.User;
+import com.grievance.repository.CommentRepository;
 import com.grievance.repository.ComplaintRepository;
 import com.grievance.repository.UserRepository;
+import com.grievance.security.UserCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,36 +33,76 @@ public class ComplaintService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserCache userCache;
+    
     @Autowired
     private EmailService emailService;
     
     @Autowired
     private EscalationService escalationService;
     
-    private final Path fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    @Autowired
+    private ComplaintStatsService complaintStatsService;
     
-    public ComplaintService() {
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (IOException e) {
-            log.error("Could not create upload directory", e);
-        }
-    }
+    @Autowired
+    private TrendService trendService;
+    
+    @Autowired
+    private ComplaintSearchService complaintSearchService;
+    
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private AttachmentDownloadService attachmentDownloadService;
+    
+    @Autowired
+    private ComplaintViewService complaintViewService;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    private static final int MAX_PAGE_SIZE = 500;
     
     // ========== BASIC COMPLAINT METHODS ==========
     
-    public List<ComplaintDTO> getAllComplaints() {
-        log.info("Fetching all complaints");
-        try {
-            List<Complaint> complaints = complaintRepository.findAll();
-            log.info("Found {} complaints", complaints.size());
-            return complaints.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Error fetching complaints: {}", e.getMessage());
-            throw new RuntimeException("Error fetching complaints: " + e.getMessage());
+    public ComplaintPageDTO getComplaintsPage(ComplaintFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ComplaintFilter f = filter != null ? filter : new ComplaintFilter();
+        
+        Date cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] decoded = decodeCursor(cursor);
+            cursorCreatedAt = new Date(decoded[0]);
+            cursorId = decoded[1];
         }
+        
+        log.info("Fetching complaints page: limit={}, cursor={}", pageSize, cursor);
+        
+        // Fetch one extra row to find out whether another page exists
+        List<ComplaintDTO> rows = complaintRepository.findPageAfter(
+                f.getStatus(), f.getPriority(), f.getCategory(), f.getAssignedTo(),
+                f.getEscalationLevel(), f.getCreatedFrom(), f.getCreatedTo(),
+                cursorCreatedAt, cursorId, PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ComplaintDTO last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        
+        log.info("Returning {} complaints, hasMore={}", rows.size(), hasMore);
+        return new ComplaintPageDTO(rows, nextCursor, hasMore, pageSize);
     }
     
     public ComplaintDTO getComplaintById(Long id) {
@@ -71,15 +114,13 @@ public class ComplaintService {
     
     public List<ComplaintDTO> getUserComplaints(String username) {
         log.info("Fetching complaints for user: {}", username);
-        User user = userRepository.findByUsername(username)
+        User user = userCache.get(username)
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
         
-        List<Complaint> userComplaints = complaintRepository.findByUserId(user.getId());
+        List<ComplaintDTO> userComplaints = complaintRepository.findDtosByUserId(user.getId());
         log.info("Found {} complaints for user {}", userComplaints.size(), username);
         
-        return userComplaints.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userComplaints;
     }
     
     @Transactional
@@ -129,21 +170,28 @@ public class ComplaintService {
         complaint.setCreatedAt(now);
         complaint.setUpdatedAt(now);
         
-        // Handle file upload
+        // Handle file upload: streamed into the blob store, identical files are kept once
         if (file != null && !file.isEmpty()) {
             String originalFilename = file.getOriginalFilename();
-            String fileName = System.currentTimeMillis() + "_" + originalFilename;
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation);
+            BlobStore.StoredBlob blob = blobStore.put(file.getInputStream());
             
             complaint.setFileName(originalFilename);
-            complaint.setFilePath(targetLocation.toString());
+            complaint.setFileHash(blob.getSha256());
             complaint.setFileType(file.getContentType());
-            complaint.setFileSize(file.getSize());
-            log.info("File uploaded: {}", originalFilename);
+            complaint.setFileSize(blob.getSize());
+            log.info("File uploaded: {} (blob {}{})", originalFilename, blob.getSha256(),
+                    blob.isDeduplicated() ? ", already stored" : "");
         }
         
+        // A repeat of an open complaint is linked to it and shares its escalation
+        DuplicateDetectionService.Detection detection =
+                duplicateDetectionService.detect(complaint.getTitle(), complaint.getDescription());
+        complaint.setDuplicateOf(detection.getDuplicateOf());
+        
         Complaint savedComplaint = complaintRepository.save(complaint);
+        complaintStatsService.recordCreated(savedComplaint);
+        complaintSearchService.complaintChanged(savedComplaint.getId());
+        duplicateDetectionService.complaintCreated(savedComplaint.getId(), detection);
         log.info("Complaint created with ID: {}", savedComplaint.getId());
         
         // Initialize escalation
@@ -162,7 +210,12 @@ public class ComplaintService {
             log.error("Failed to send email: {}", e.getMessage());
         }
         
-        return convertToDTO(savedComplaint);
+        ComplaintDTO created = convertToDTO(savedComplaint);
+        List<Long> possibleDuplicates = detection.getPossibleDuplicates();
+        if (!possibleDuplicates.isEmpty()) {
+            created.setPossibleDuplicates(possibleDuplicates);
+        }
+        return created;
     }
     
     @Transactional
@@ -175,10 +228,13 @@ public class ComplaintService {
         if (status != null) {
             try {
                 Status newStatus = Status.valueOf(status.toUpperCase());
+                complaintStatsService.recordStatusChange(complaint.getStatus(), newStatus);
                 complaint.setStatus(newStatus);
                 
                 // If resolved, stop escalation
                 if (newStatus == Status.RESOLVED) {
+                    // Resolved before and reopened: it leaves its old resolved day
+                    trendService.evict(complaint.getResolvedAt());
                     complaint.setResolvedAt(new Date());
                     complaint.setNextEscalationTime(null);
                     
@@ -204,6 +260,13 @@ public class ComplaintService {
         }
         
         Complaint updatedComplaint = complaintRepository.save(complaint);
+        escalationService.updateEscalationTimer(updatedComplaint);
+        complaintSearchService.complaintChanged(id);
+        complaintViewService.complaintChanged(id);
+        duplicateDetectionService.complaintChanged(updatedComplaint);
+        if (updatedComplaint.getStatus() == Status.RESOLVED && updatedComplaint.getDuplicateOf() == null) {
+            resolveDuplicatesOf(updatedComplaint, assignedTo != null ? assignedTo : "System");
+        }
         log.info("Complaint {} status updated successfully", id);
         
         return convertToDTO(updatedComplaint);
@@ -217,6 +280,7 @@ public class ComplaintService {
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
         
         if (escalationLevel != null) {
+            complaintStatsService.recordEscalationChange(complaint.getEscalationLevel(), escalationLevel);
             complaint.setEscalationLevel(escalationLevel);
             complaint.setEscalatedAt(new Date());
             log.info("Escalation level set to {}", escalationLevel);
@@ -229,6 +293,8 @@ public class ComplaintService {
         complaint.setUpdatedAt(new Date());
         
         Complaint updatedComplaint = complaintRepository.save(complaint);
+        escalationService.updateEscalationTimer(updatedComplaint);
+        complaintViewService.complaintChanged(id);
         log.info("Complaint {} escalation updated", id);
         
         return convertToDTO(updatedComplaint);
@@ -257,11 +323,9 @@ public class ComplaintService {
     public List<ComplaintDTO> getEscalatedComplaints() {
         log.info("Fetching escalated complaints");
         try {
-            List<Complaint> escalated = complaintRepository.findEscalatedComplaints();
+            List<ComplaintDTO> escalated = complaintRepository.findEscalatedDtos();
             log.info("Found {} escalated complaints", escalated.size());
-            return escalated.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return escalated;
         } catch (Exception e) {
             log.error("Error fetching escalated complaints: {}", e.getMessage());
             throw new RuntimeException("Error fetching escalated complaints: " + e.getMessage());
@@ -285,11 +349,9 @@ public class ComplaintService {
     public List<ComplaintDTO> getHighPriorityComplaints() {
         log.info("Fetching high priority complaints");
         try {
-            List<Complaint> highPriority = complaintRepository.findByPriority(Priority.HIGH);
+            List<ComplaintDTO> highPriority = complaintRepository.findDtosByPriority(Priority.HIGH);
             log.info("Found {} high priority complaints", highPriority.size());
-            return highPriority.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return highPriority;
         } catch (Exception e) {
             log.error("Error fetching high priority complaints: {}", e.getMessage());
             throw new RuntimeException("Error fetching high priority complaints: " + e.getMessage());
@@ -298,10 +360,7 @@ public class ComplaintService {
     
     public List<ComplaintDTO> getComplaintsByAssignedTo(String assignedTo) {
         log.info("Fetching complaints assigned to: {}", assignedTo);
-        List<Complaint> complaints = complaintRepository.findByAssignedTo(assignedTo);
-        return complaints.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return complaintRepository.findDtosByAssignedTo(assignedTo);
     }
     
     public List<ComplaintDTO> getComplaintsNeedingAttention() {
@@ -431,13 +490,80 @@ public class ComplaintService {
     @Transactional
     public void deleteComplaint(Long id) {
         log.info("Deleting complaint ID: {}", id);
-        if (!complaintRepository.existsById(id)) {
-            throw new RuntimeException("Complaint not found");
+        Complaint complaint = complaintRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Complaint not found"));
+        // Comments go with the complaint (cascade), and so do their attachment references
+        commentRepository.findAttachmentHashesByComplaintId(id).forEach(blobStore::release);
+        if (complaint.getFileHash() != null) {
+            blobStore.release(complaint.getFileHash());
+        }
+        complaintRepository.delete(complaint);
+        complaintStatsService.recordDeleted(complaint);
+        escalationService.cancelEscalationTimer(id);
+        complaintSearchService.complaintChanged(id);
+        duplicateDetectionService.complaintDeleted(id);
+        complaintViewService.complaintChanged(id);
+        attachmentDownloadService.evict(id);
+        if (complaint.getDuplicateOf() == null) {
+            promoteDuplicatesOf(id);
         }
-        complaintRepository.deleteById(id);
+        trendService.evict(complaint.getCreatedAt(), complaint.getResolvedAt());
         log.info("Complaint {} deleted", id);
     }
     
+    /**
+     * Marks the complaint as a duplicate of primaryId, or, with a null
+     * primaryId, makes it a complaint of its own again with its own
+     * escalation. Duplicates of the complaint follow it to the new primary.
+     * A link set here (also re-setting an automatic one) is confirmed: the
+     * complaint is resolved together with its primary.
+     */
+    @Transactional
+    public ComplaintDTO setDuplicateOf(Long id, Long primaryId) {
+        Complaint complaint = complaintRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Complaint not found"));
+        
+        if (primaryId == null) {
+            if (complaint.getDuplicateOf() != null) {
+                log.info("Complaint {} is no longer a duplicate of {}", id, complaint.getDuplicateOf());
+                complaint.setDuplicateOf(null);
+                complaint.setDuplicateConfirmed(false);
+                complaint.setUpdatedAt(new Date());
+                complaintRepository.save(complaint);
+                complaintViewService.complaintChanged(id);
+                if (DuplicateDetectionService.OPEN_STATUSES.contains(complaint.getStatus())) {
+                    escalationService.initializeEscalation(complaint);
+                }
+            }
+            return convertToDTO(complaint);
+        }
+        
+        Complaint primary = complaintRepository.findById(primaryId)
+                .orElseThrow(() -> new RuntimeException("Primary complaint not found"));
+        if (primary.getDuplicateOf() != null) {
+            primary = complaintRepository.findById(primary.getDuplicateOf())
+                    .orElseThrow(() -> new RuntimeException("Primary complaint not found"));
+        }
+        if (primary.getId().equals(id)) {
+            throw new RuntimeException("A complaint cannot be a duplicate of itself");
+        }
+        
+        log.info("Complaint {} marked as duplicate of {}", id, primary.getId());
+        complaintViewService.complaintsChanged(complaintRepository.findIdsByDuplicateOf(id));
+        int moved = complaintRepository.relinkDuplicates(id, primary.getId());
+        if (moved > 0) {
+            log.info("{} duplicate(s) of complaint {} moved to {}", moved, id, primary.getId());
+        }
+        complaint.setDuplicateOf(primary.getId());
+        complaint.setDuplicateConfirmed(true);
+        complaint.setNextEscalationTime(null);
+        complaint.setUpdatedAt(new Date());
+        Complaint updated = complaintRepository.save(complaint);
+        escalationService.updateEscalationTimer(updated);
+        complaintViewService.complaintChanged(id);
+        return convertToDTO(updated);
+    }
+    
     @Transactional
     public ComplaintDTO reassignComplaint(Long complaintId, String newAssignee) {
         log.info("Reassigning complaint {} to: {}", complaintId, newAssignee);
@@ -449,6 +575,7 @@ public class ComplaintService {
         complaint.setUpdatedAt(new Date());
         
         Complaint updated = complaintRepository.save(complaint);
+        complaintViewService.complaintChanged(complaintId);
         log.info("Complaint {} reassigned successfully", complaintId);
         
         return convertToDTO(updated);
@@ -465,6 +592,7 @@ public class ComplaintService {
         complaint.setUpdatedAt(new Date());
         
         Complaint updated = complaintRepository.save(complaint);
+        complaintViewService.complaintChanged(complaintId);
         log.info("Comment added to complaint {}", complaintId);
         
         return convertToDTO(updated);
@@ -472,7 +600,8 @@ public class ComplaintService {
     
     // ========== PRIVATE HELPER METHODS ==========
     
-    private ComplaintDTO convertToDTO(Complaint complaint) {
+    // Package-private for the benchmarks module (DtoMappingBenchmark)
+    ComplaintDTO convertToDTO(Complaint complaint) {
         if (complaint == null) {
             return null;
         }
@@ -515,6 +644,7 @@ public class ComplaintService {
         dto.setNextEscalationTime(complaint.getNextEscalationTime());
         dto.setEscalationNotes(complaint.getEscalationNotes());
         dto.setDepartment(complaint.getDepartment());
+        dto.setDuplicateOf(complaint.getDuplicateOf());
         
         dto.setIsEscalated(complaint.isEscalated());
         
@@ -527,6 +657,83 @@ public class ComplaintService {
         return dto;
     }
     
+    /**
+     * Confirmed duplicates are the same problem: they are resolved with
+     * their primary and their reporters told. Automatic links are only a
+     * MinHash estimate, so those duplicates stay open: they leave the
+     * resolved primary, get their own escalation from now on, and their
+     * reporters are told the complaint theirs matched was resolved.
+     */
+    private void resolveDuplicatesOf(Complaint primary, String resolvedBy) {
+        List<Complaint> duplicates = complaintRepository.findByDuplicateOfAndStatusInOrderByIdAsc(
+                primary.getId(), DuplicateDetectionService.OPEN_STATUSES);
+        int resolved = 0;
+        for (Complaint duplicate : duplicates) {
+            if (!duplicate.isDuplicateConfirmed()) {
+                duplicate.setDuplicateOf(null);
+                duplicate.setUpdatedAt(new Date());
+                complaintRepository.save(duplicate);
+                complaintViewService.complaintChanged(duplicate.getId());
+                escalationService.initializeEscalation(duplicate);
+                escalationService.sendPrimaryResolvedEmail(duplicate.getId(), primary.getId(),
+                        primary.getResolvedAt(), resolvedBy);
+                continue;
+            }
+            complaintStatsService.recordStatusChange(duplicate.getStatus(), Status.RESOLVED);
+            duplicate.setStatus(Status.RESOLVED);
+            trendService.evict(duplicate.getResolvedAt(), primary.getResolvedAt());
+            duplicate.setResolvedAt(primary.getResolvedAt());
+            duplicate.setNextEscalationTime(null);
+            duplicate.setUpdatedAt(new Date());
+            complaintRepository.save(duplicate);
+            escalationService.updateEscalationTimer(duplicate);
+            complaintSearchService.complaintChanged(duplicate.getId());
+            complaintViewService.complaintChanged(duplicate.getId());
+            duplicateDetectionService.complaintChanged(duplicate);
+            escalationService.sendComplaintResolvedEmail(duplicate.getId(), resolvedBy);
+            resolved++;
+        }
+        if (!duplicates.isEmpty()) {
+            log.info("Resolved {} confirmed duplicate(s) of complaint {}, {} unconfirmed left open",
+                    resolved, primary.getId(), duplicates.size() - resolved);
+        }
+    }
+    
+    // The oldest open duplicate of a deleted primary takes over, with its own escalation
+    private void promoteDuplicatesOf(Long deletedId) {
+        complaintViewService.complaintsChanged(complaintRepository.findIdsByDuplicateOf(deletedId));
+        List<Complaint> duplicates = complaintRepository.findByDuplicateOfAndStatusInOrderByIdAsc(
+                deletedId, DuplicateDetectionService.OPEN_STATUSES);
+        if (duplicates.isEmpty()) {
+            complaintRepository.relinkDuplicates(deletedId, null);
+            return;
+        }
+        Complaint primary = duplicates.get(0);
+        primary.setDuplicateOf(null);
+        primary.setDuplicateConfirmed(false);
+        complaintRepository.save(primary);
+        complaintRepository.relinkDuplicates(deletedId, primary.getId());
+        escalationService.initializeEscalation(primary);
+        log.info("Complaint {} replaces deleted complaint {} as primary of {} duplicate(s)",
+                primary.getId(), deletedId, duplicates.size() - 1);
+    }
+    
+    private String encodeCursor(Date createdAt, Long id) {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new long[] { Long.parseLong(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)) };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+    
     private long calculateHoursUntil(Date futureDate) {
         if (futureDate == null) {
             return -1;
@@ -0,0 +1,314 @@
+package com.grievance.service;
+
+import com.grievance.model.Complaint;
+import com.grievance.model.ComplaintStat;
+import com.grievance.repository.ComplaintRepository;
+import com.grievance.repository.ComplaintStatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running complaint counters for the dashboard. Every write path that changes
+ * a counted attribute adds a delta to the complaint_stats table inside its own
+ * transaction; the in-memory LongAdders are only bumped after that transaction
+ * commits, so the dashboard can be answered without touching the complaints table.
+ *
+ * In cluster mode the adders would only see this node's writes, so reads
+ * come from the table instead: one SELECT of complaint_stats (a few dozen
+ * rows), reused for app.cluster.stats-ttl-ms and refreshed by one thread
+ * while the others keep the previous copy.
+ */
+@Service
+@Slf4j
+public class ComplaintStatsService {
+
+    static final String TOTAL = "total";
+    static final String ESCALATED = "escalated";
+    static final String STATUS = "status:";
+    static final String PRIORITY = "priority:";
+    static final String CATEGORY = "category:";
+
+    private static final String RECONCILE_LEASE = "stats-reconcile";
+
+    @Autowired
+    private ComplaintStatRepository complaintStatRepository;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cluster.stats-ttl-ms:2000}")
+    private long clusterStatsTtlMillis;
+
+    @Value("${analytics.stats.load-on-startup:true}")
+    private boolean loadOnStartup;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Cluster mode: last copy of complaint_stats and when it was read
+    private volatile Map<String, Long> storedCounters;
+    private volatile long storedCountersReadAt;
+    private final ReentrantLock storedCountersLock = new ReentrantLock();
+
+    // ========== WRITE HOOKS ==========
+
+    @Transactional
+    public void recordCreated(Complaint complaint) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(TOTAL, 1L);
+        deltas.put(STATUS + complaint.getStatus().name(), 1L);
+        deltas.put(PRIORITY + complaint.getPriority().name(), 1L);
+        deltas.put(CATEGORY + complaint.getCategory(), 1L);
+        if (complaint.isEscalated()) {
+            deltas.put(ESCALATED, 1L);
+        }
+        apply(deltas);
+    }
+
+    @Transactional
+    public void recordDeleted(Complaint complaint) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(TOTAL, -1L);
+        deltas.put(STATUS + complaint.getStatus().name(), -1L);
+        deltas.put(PRIORITY + complaint.getPriority().name(), -1L);
+        deltas.put(CATEGORY + complaint.getCategory(), -1L);
+        if (complaint.isEscalated()) {
+            deltas.put(ESCALATED, -1L);
+        }
+        apply(deltas);
+    }
+
+    @Transactional
+    public void recordStatusChange(Complaint.Status from, Complaint.Status to) {
+        if (from == to) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(STATUS + from.name(), -1L);
+        deltas.put(STATUS + to.name(), 1L);
+        apply(deltas);
+    }
+
+    @Transactional
+    public void recordEscalationChange(Integer fromLevel, Integer toLevel) {
+        boolean wasEscalated = fromLevel != null && fromLevel > 0;
+        boolean isEscalated = toLevel != null && toLevel > 0;
+        if (wasEscalated == isEscalated) {
+            return;
+        }
+        apply(Collections.singletonMap(ESCALATED, isEscalated ? 1L : -1L));
+    }
+
+    /**
+     * Bulk form of recordEscalationChange for complaints that went from
+     * not escalated to escalated in one batch.
+     */
+    @Transactional
+    public void recordEscalated(long count) {
+        if (count > 0) {
+            apply(Collections.singletonMap(ESCALATED, count));
+        }
+    }
+    
+    // ========== READS (O(1); memory only on a single node) ==========
+
+    public long getTotal() {
+        return get(TOTAL);
+    }
+
+    public long getEscalated() {
+        return get(ESCALATED);
+    }
+
+    public long getStatusCount(Complaint.Status status) {
+        return get(STATUS + status.name());
+    }
+
+    public Map<String, Long> getStatusDistribution() {
+        return getByPrefix(STATUS);
+    }
+
+    public Map<String, Long> getPriorityDistribution() {
+        return getByPrefix(PRIORITY);
+    }
+
+    public Map<String, Long> getCategoryDistribution() {
+        return getByPrefix(CATEGORY);
+    }
+
+    // ========== LOAD AND RECONCILIATION ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!loadOnStartup) {
+            return;
+        }
+        if (complaintStatRepository.count() == 0) {
+            log.info("complaint_stats is empty, building counters from complaints table");
+            repairTable();
+        }
+        counters.clear();
+        List<ComplaintStat> stored = complaintStatRepository.findAll();
+        for (ComplaintStat stat : stored) {
+            adder(stat.getStatKey()).add(stat.getStatValue());
+        }
+        log.info("Loaded {} complaint counters", stored.size());
+    }
+
+    /**
+     * Recomputes every counter with GROUP BY queries and repairs the table
+     * where it has drifted. Runs on the node holding the reconcile lease.
+     */
+    @Scheduled(fixedDelayString = "${analytics.stats.reconcile-interval:900000}",
+               initialDelayString = "${analytics.stats.reconcile-interval:900000}")
+    public void reconcile() {
+        if (!schedulerLeaseService.holds(RECONCILE_LEASE)) {
+            return;
+        }
+        Map<String, Long> repaired = repairTable();
+        // Only the repairs: writes made meanwhile are already in the adders
+        repaired.forEach((key, diff) -> adder(key).add(diff));
+    }
+
+    /**
+     * Moves each drifted row by the difference between the counted and the
+     * stored value, and only if the row still holds the value read here. The
+     * stored values are read before the counts; a write committed after that
+     * read has moved its row, so its repair is skipped and left to the next
+     * run rather than applied on top of a delta the count already includes.
+     * Returns the differences that were applied.
+     */
+    private Map<String, Long> repairTable() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Map<String, Long> repaired = new HashMap<>();
+        int[] skipped = new int[1];
+        int keyCount = tx.execute(status -> {
+            Map<String, Long> stored = new HashMap<>();
+            for (ComplaintStat stat : complaintStatRepository.findAll()) {
+                stored.put(stat.getStatKey(), stat.getStatValue());
+            }
+            Map<String, Long> actual = computeFromComplaints();
+
+            Set<String> keys = new HashSet<>(actual.keySet());
+            keys.addAll(stored.keySet());
+            for (String key : keys) {
+                Long current = stored.get(key);
+                long diff = actual.getOrDefault(key, 0L) - (current != null ? current : 0L);
+                if (diff == 0) {
+                    continue;
+                }
+                if (current == null) {
+                    // Creates the row at 0, or leaves one a writer has just added
+                    complaintStatRepository.addDelta(key, 0L);
+                }
+                if (complaintStatRepository.addDeltaIfUnchanged(key, current != null ? current : 0L, diff) > 0) {
+                    repaired.put(key, diff);
+                    if (current != null) {
+                        log.warn("Counter drift on '{}': stored={}, actual={}", key, current, current + diff);
+                    }
+                } else {
+                    skipped[0]++;
+                }
+            }
+            return keys.size();
+        });
+        log.info("Complaint counters reconciled: {} keys, {} repaired, {} changed meanwhile and left for the next run",
+                keyCount, repaired.size(), skipped[0]);
+        return repaired;
+    }
+
+    private Map<String, Long> computeFromComplaints() {
+        Map<String, Long> actual = new HashMap<>();
+        actual.put(TOTAL, complaintRepository.count());
+        actual.put(ESCALATED, complaintRepository.countEscalated());
+        for (Object[] row : complaintRepository.countGroupedByStatus()) {
+            actual.put(STATUS + ((Complaint.Status) row[0]).name(), (Long) row[1]);
+        }
+        for (Object[] row : complaintRepository.countGroupedByPriority()) {
+            actual.put(PRIORITY + ((Complaint.Priority) row[0]).name(), (Long) row[1]);
+        }
+        for (Object[] row : complaintRepository.countGroupedByCategory()) {
+            actual.put(CATEGORY + row[0], (Long) row[1]);
+        }
+        return actual;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private void apply(Map<String, Long> deltas) {
+        deltas.forEach(complaintStatRepository::addDelta);
+        AfterCommit.run(() -> deltas.forEach((key, delta) -> adder(key).add(delta)));
+    }
+
+    private LongAdder adder(String key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private long get(String key) {
+        if (schedulerLeaseService.isClusterEnabled()) {
+            return storedCounters().getOrDefault(key, 0L);
+        }
+        LongAdder adder = counters.get(key);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    private Map<String, Long> getByPrefix(String prefix) {
+        Map<String, Long> values = new HashMap<>();
+        if (schedulerLeaseService.isClusterEnabled()) {
+            values.putAll(storedCounters());
+        } else {
+            counters.forEach((key, adder) -> values.put(key, adder.sum()));
+        }
+        Map<String, Long> result = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith(prefix) && value > 0) {
+                result.put(key.substring(prefix.length()), value);
+            }
+        });
+        return result;
+    }
+
+    private Map<String, Long> storedCounters() {
+        Map<String, Long> stored = storedCounters;
+        if (stored != null && System.currentTimeMillis() - storedCountersReadAt < clusterStatsTtlMillis) {
+            return stored;
+        }
+        if (stored == null) {
+            storedCountersLock.lock();
+        } else if (!storedCountersLock.tryLock()) {
+            // Another thread is reading the table; the previous copy will do meanwhile
+            return stored;
+        }
+        try {
+            if (storedCounters == null || System.currentTimeMillis() - storedCountersReadAt >= clusterStatsTtlMillis) {
+                Map<String, Long> fresh = new HashMap<>();
+                for (ComplaintStat stat : complaintStatRepository.findAll()) {
+                    fresh.put(stat.getStatKey(), stat.getStatValue());
+                }
+                storedCounters = fresh;
+                storedCountersReadAt = System.currentTimeMillis();
+            }
+            return storedCounters;
+        } finally {
+            storedCountersLock.unlock();
+        }
+    }
+}
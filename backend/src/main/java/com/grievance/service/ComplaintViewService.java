@@ -0,0 +1,160 @@
+package com.grievance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.grievance.config.InstrumentedExecutor;
+import com.grievance.dto.CommentPageDTO;
+import com.grievance.dto.CommentResponse;
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintViewDTO;
+import com.grievance.repository.CommentRepository;
+import com.grievance.repository.ComplaintRepository;
+import com.grievance.repository.EscalationHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The complaint details page (/complaints/{id}/view) in one call.
+ *
+ * On a miss the complaint with its owner is read on the calling thread while
+ * the newest comment page and the escalation history are read in parallel on
+ * the general executor, all as flat projections. The result is cached per
+ * complaint and viewer role (admins also see admin-only comments) for
+ * app.complaint-view.cache-ttl-ms.
+ *
+ * Every write to a complaint, its comments or its escalation history calls
+ * complaintChanged(), which evicts the complaint's views after the commit;
+ * a load racing with the eviction is discarded by it. In cluster mode
+ * ClusterSyncService passes on the complaints changed or commented on other
+ * nodes every app.cluster.sync-interval-ms; comments deleted there, and the hours until
+ * escalation, may lag by up to the ttl.
+ */
+@Service
+@Slf4j
+public class ComplaintViewService implements ClusterSyncListener {
+
+    // Comments included with the view, same as the comments endpoint default
+    public static final int COMMENT_PAGE_SIZE = 50;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EscalationHistoryRepository escalationHistoryRepository;
+
+    @Autowired
+    @Qualifier("generalExecutor")
+    private InstrumentedExecutor generalExecutor;
+
+    @Value("${app.complaint-view.cache-max-size:5000}")
+    private long cacheMaxSize;
+
+    @Value("${app.complaint-view.cache-ttl-ms:60000}")
+    private long cacheTtlMillis;
+
+    private Cache<String, ComplaintViewDTO> views;
+
+    @PostConstruct
+    public void init() {
+        views = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The complaint's view for an admin or a regular user, loaded on a miss.
+     * Throws if there is no such complaint; the caller checks that the viewer
+     * may see it (ComplaintDTO.getUserId()).
+     */
+    public ComplaintViewDTO getView(Long complaintId, boolean adminView) {
+        return views.get(key(complaintId, adminView), k -> load(complaintId, adminView));
+    }
+
+    /** Evicts the complaint's views once the current transaction commits. */
+    public void complaintChanged(Long complaintId) {
+        AfterCommit.run(() -> evict(complaintId));
+    }
+
+    public void complaintsChanged(Collection<Long> complaintIds) {
+        List<Long> ids = new ArrayList<>(complaintIds);
+        AfterCommit.run(() -> ids.forEach(this::evict));
+    }
+
+    /** Cluster mode: evicts complaints changed or commented on by other nodes. */
+    @Override
+    public void syncFromCluster(Set<Long> changedComplaintIds, Date since) {
+        changedComplaintIds.forEach(this::evict);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats cache = views.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedViews", views.estimatedSize());
+        stats.put("hits", cache.hitCount());
+        stats.put("misses", cache.missCount());
+        stats.put("hitRate", cache.hitRate());
+        stats.put("avgLoadMicros", (long) (cache.averageLoadPenalty() / 1000));
+        return stats;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private ComplaintViewDTO load(Long complaintId, boolean adminView) {
+        PageRequest commentPage = PageRequest.of(0, COMMENT_PAGE_SIZE + 1);
+        CompletableFuture<List<CommentResponse>> comments = CompletableFuture.supplyAsync(() -> adminView
+                ? commentRepository.findTimelinePage(complaintId, null, null, commentPage)
+                : commentRepository.findPublicTimelinePage(complaintId, null, null, commentPage), generalExecutor);
+        CompletableFuture<List<Object[]>> history = CompletableFuture.supplyAsync(
+                () -> escalationHistoryRepository.findViewRowsByComplaintId(complaintId), generalExecutor);
+
+        ComplaintDTO complaint = complaintRepository.findDtoById(complaintId)
+                .orElseThrow(() -> new RuntimeException("Complaint not found with ID: " + complaintId));
+        String ownerUsername = complaintRepository.findOwnerUsername(complaintId).orElse("Unknown");
+
+        try {
+            CommentPageDTO page = CommentService.toPage(comments.join(), COMMENT_PAGE_SIZE);
+            return new ComplaintViewDTO(complaint, page, toHistory(history.join()), ownerUsername);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // row: [escalatedAt, escalationLevel, reason, recipients]
+    private static List<Map<String, Object>> toHistory(List<Object[]> rows) {
+        List<Map<String, Object>> history = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("escalatedAt", row[0]);
+            entry.put("escalationLevel", row[1]);
+            entry.put("notes", row[2]);
+            entry.put("recipients", row[3]);
+            history.add(entry);
+        }
+        return history;
+    }
+
+    private void evict(Long complaintId) {
+        views.invalidate(key(complaintId, true));
+        views.invalidate(key(complaintId, false));
+    }
+
+    private static String key(Long complaintId, boolean adminView) {
+        return complaintId + (adminView ? ":admin" : ":user");
+    }
+}
@@ -0,0 +1,260 @@
+package com.grievance.service;
+
+import com.grievance.model.Complaint;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Spots new complaints that repeat an open one, so that one outage reported
+ * many times escalates and notifies once.
+ *
+ * Open complaints are kept in an in-memory MinHashIndex of title and
+ * description, filled by a streaming scan on startup and updated after each
+ * commit. A new complaint whose closest match reaches
+ * app.duplicates.link-threshold is linked to that match's primary complaint
+ * (duplicate_of) and gets no escalation timer of its own. Such a link is
+ * unconfirmed: resolving the primary leaves the complaint open on its own
+ * escalation unless an admin confirmed the link; matches above
+ * app.duplicates.flag-threshold are only reported back as possible
+ * duplicates. The index only proposes: the primary is read from the
+ * database before linking, so a stale entry never links to a closed one.
+ *
+ * Each node keeps its own index; in cluster mode ClusterSyncService passes on
+ * the complaints changed on other nodes every app.cluster.sync-interval-ms.
+ */
+@Service
+@Slf4j
+public class DuplicateDetectionService implements ClusterSyncListener {
+
+    // Complaints that can still be duplicated; same set that escalates
+    public static final Set<Complaint.Status> OPEN_STATUSES = EnumSet.of(
+        Complaint.Status.OPEN, Complaint.Status.IN_PROGRESS, Complaint.Status.NEW, Complaint.Status.UNDER_REVIEW);
+
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("reportsExecutor")
+    private Executor reportsExecutor;
+
+    @Value("${app.duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.duplicates.link-threshold:0.7}")
+    private double linkThreshold;
+
+    @Value("${app.duplicates.flag-threshold:0.5}")
+    private double flagThreshold;
+
+    @Value("${app.duplicates.max-suggestions:5}")
+    private int maxSuggestions;
+
+    private final MinHashIndex index = new MinHashIndex();
+    private final AtomicBoolean loaded = new AtomicBoolean();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder checkNanos = new LongAdder();
+    private final LongAdder linked = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    /** Outcome of checking a new complaint against the open ones. */
+    public static class Detection {
+        private final int[] signature;
+        private final List<MinHashIndex.Match> matches;
+        private Long duplicateOf;
+
+        Detection(int[] signature, List<MinHashIndex.Match> matches) {
+            this.signature = signature;
+            this.matches = matches;
+        }
+
+        /** Primary complaint to link to, or null. */
+        public Long getDuplicateOf() { return duplicateOf; }
+
+        /** Similar open complaints other than the primary, most similar first. */
+        public List<Long> getPossibleDuplicates() {
+            List<Long> ids = new ArrayList<>();
+            for (MinHashIndex.Match match : matches) {
+                if (duplicateOf == null || match.getId() != duplicateOf) {
+                    ids.add(match.getId());
+                }
+            }
+            return ids;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reportsExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Refills the index from the open complaints in one forward-only scan.
+     * New complaints are checked against whatever has been loaded so far.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        index.clear();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        Long count = tx.execute(status -> {
+            long rows = 0;
+            try (Stream<Object[]> stream = complaintRepository.streamDuplicateRows(OPEN_STATUSES)) {
+                Iterator<Object[]> it = stream.iterator();
+                while (it.hasNext()) {
+                    put(it.next());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        loaded.set(true);
+        log.info("Duplicate index: loaded {} open complaint(s) in {} ms",
+                count, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Checks a complaint that is about to be created. Reads the matched
+     * primary complaint, so call it inside the creating transaction.
+     */
+    public Detection detect(String title, String description) {
+        if (!enabled) {
+            return new Detection(null, Collections.emptyList());
+        }
+        long started = System.nanoTime();
+        int[] signature = MinHashIndex.signature(text(title, description));
+        List<MinHashIndex.Match> matches = signature != null
+                ? index.query(signature, flagThreshold, maxSuggestions)
+                : Collections.emptyList();
+        Detection detection = new Detection(signature, matches);
+        checks.increment();
+        checkNanos.add(System.nanoTime() - started);
+
+        if (!matches.isEmpty() && matches.get(0).getSimilarity() >= linkThreshold) {
+            detection.duplicateOf = openPrimaryOf(matches.get(0).getId());
+        }
+        if (detection.duplicateOf != null) {
+            linked.increment();
+            log.info("New complaint repeats complaint {} (similarity {})",
+                    detection.duplicateOf, matches.get(0).getSimilarity());
+        } else if (!matches.isEmpty()) {
+            flagged.increment();
+        }
+        return detection;
+    }
+
+    /** Adds the newly created complaint once its transaction commits. */
+    public void complaintCreated(Long complaintId, Detection detection) {
+        if (enabled && detection.signature != null) {
+            AfterCommit.run(() -> index.put(complaintId, detection.signature));
+        }
+    }
+
+    /** Keeps the complaint in the index while it is open; call after a status change. */
+    public void complaintChanged(Complaint complaint) {
+        if (!enabled) {
+            return;
+        }
+        Long complaintId = complaint.getId();
+        int[] signature = OPEN_STATUSES.contains(complaint.getStatus())
+                ? MinHashIndex.signature(text(complaint.getTitle(), complaint.getDescription()))
+                : null;
+        AfterCommit.run(() -> {
+            if (signature != null) {
+                index.put(complaintId, signature);
+            } else {
+                index.remove(complaintId);
+            }
+        });
+    }
+
+    public void complaintDeleted(Long complaintId) {
+        if (enabled) {
+            AfterCommit.run(() -> index.remove(complaintId));
+        }
+    }
+
+    /** Cluster mode: applies complaints created, closed or reopened on other nodes. */
+    @Override
+    public void syncFromCluster(Set<Long> changedComplaintIds, Date since) {
+        if (!enabled || !loaded.get()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedComplaintIds);
+        for (int from = 0; from < ids.size(); from += SYNC_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + SYNC_BATCH_SIZE));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (Object[] row : complaintRepository.findDuplicateRowsByIdIn(chunk)) {
+                missing.remove((Long) row[0]);
+                put(row);
+            }
+            missing.forEach(index::remove);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long checked = checks.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("loaded", loaded.get());
+        stats.put("openComplaints", index.size());
+        stats.put("buckets", index.bucketCount());
+        stats.put("checks", checked);
+        stats.put("linked", linked.sum());
+        stats.put("flagged", flagged.sum());
+        stats.put("avgCheckMicros", checked > 0 ? checkNanos.sum() / checked / 1000 : 0);
+        return stats;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    // row: [id, title, description, status]
+    private void put(Object[] row) {
+        Long id = (Long) row[0];
+        int[] signature = OPEN_STATUSES.contains((Complaint.Status) row[3])
+                ? MinHashIndex.signature(text((String) row[1], (String) row[2]))
+                : null;
+        if (signature != null) {
+            index.put(id, signature);
+        } else {
+            index.remove(id);
+        }
+    }
+
+    // The complaint a match belongs to: itself or its primary, if that is still open
+    private Long openPrimaryOf(long matchId) {
+        Complaint match = complaintRepository.findById(matchId).orElse(null);
+        if (match == null) {
+            return null;
+        }
+        Complaint primary = match.getDuplicateOf() != null
+                ? complaintRepository.findById(match.getDuplicateOf()).orElse(null)
+                : match;
+        return primary != null && OPEN_STATUSES.contains(primary.getStatus()) ? primary.getId() : null;
+    }
+
+    private static String text(String title, String description) {
+        return (title != null ? title : "") + " " + (description != null ? description : "");
+    }
+}
@@ -0,0 +1,376 @@
+package com.grievance.service;
+
+import com.grievance.model.EmailOutbox;
+import com.grievance.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Drains email_outbox. Each round claims up to batch-size due rows (status
+ * SENDING under a fresh claim id, until app.email.outbox.claim-ttl-ms) and
+ * sends them over one SMTP connection. Failed rows are retried with
+ * exponential backoff until max-attempts, then marked FAILED. No database
+ * transaction is held while talking to SMTP.
+ *
+ * With several nodes only the holder of the "email-outbox" lease delivers,
+ * but the claim is what keeps two nodes from sending the same row: before
+ * each message the lease is checked and the claim extended, and each result
+ * is written only while the row is still under that claim. A node that
+ * loses either stops and hands the rest of its batch back. The claim ttl is
+ * shorter than the lease ttl, so the claims of a node that died have run out
+ * by the time another node takes its lease. It must also be longer than one
+ * message can take with the SMTP timeouts; delivery is at least once only
+ * if a single send stalls past it.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.mail.username:no-reply@grievance.com}")
+    private String fromEmail;
+
+    @Value("${app.email.enabled:false}")
+    private boolean emailEnabled;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMillis;
+
+    @Value("${app.email.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMillis;
+
+    @Value("${app.email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.email.dedupe-retention-days:30}")
+    private int dedupeRetentionDays;
+
+    @Value("${app.email.outbox.claim-ttl-ms:20000}")
+    private long claimTtlMillis;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong claimsLost = new AtomicLong();
+    private final AtomicLong sendMillis = new AtomicLong();
+    private volatile long lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private static final String OUTBOX_LEASE = "email-outbox";
+
+    @PostConstruct
+    public void checkClaimTtl() {
+        if (schedulerLeaseService.isClusterEnabled() && claimTtlMillis >= schedulerLeaseService.getLeaseTtlMillis()) {
+            log.warn("app.email.outbox.claim-ttl-ms ({}) should be below app.cluster.lease-ttl-ms ({})",
+                    claimTtlMillis, schedulerLeaseService.getLeaseTtlMillis());
+        }
+    }
+
+    // Triggered by the scheduler, executed on the mail pool
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:5000}")
+    @Async("mailExecutor")
+    public void dispatch() {
+        // One round at a time per node; the claims keep nodes apart
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private void drain() {
+        for (int round = 0; round < maxBatchesPerRun; round++) {
+            if (!schedulerLeaseService.holds(OUTBOX_LEASE)) {
+                return;
+            }
+            String claimId = UUID.randomUUID().toString();
+            List<EmailOutbox> batch = inTransaction(() -> {
+                long now = System.currentTimeMillis();
+                int claimed = emailOutboxRepository.claimDue(claimId, new Date(now), now, now + claimTtlMillis, batchSize);
+                return claimed > 0 ? emailOutboxRepository.findByClaimIdOrderById(claimId) : Collections.<EmailOutbox>emptyList();
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            BatchResult result = sendBatch(batch, claimId);
+            // Stop early when the claim was lost, the batch was short or SMTP rejected all of it
+            if (result.stopped || batch.size() < batchSize || result.failures == batch.size()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops delivered rows older than retention-days, and email_dedupe keys
+     * older than dedupe-retention-days. Keys name one event (a resolution,
+     * an escalation), so they only have to outlive the retries and races of
+     * that event; a key kept shorter than its outbox row is harmless.
+     */
+    @Scheduled(cron = "${app.email.outbox.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeSent() {
+        long now = System.currentTimeMillis();
+        Date cutoff = new Date(now - retentionDays * 24L * 60L * 60L * 1000L);
+        int removed = emailOutboxRepository.deleteByStatusBefore(EmailOutbox.Status.SENT, cutoff);
+        if (removed > 0) {
+            log.info("Purged {} delivered outbox mails", removed);
+        }
+        Date dedupeCutoff = new Date(now - dedupeRetentionDays * 24L * 60L * 60L * 1000L);
+        int keys = emailOutboxRepository.deleteDedupeKeysBefore(dedupeCutoff);
+        if (keys > 0) {
+            log.info("Purged {} mail dedupe keys", keys);
+        }
+    }
+
+    public void recordDeduplicated() {
+        deduplicated.incrementAndGet();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        metrics.put("sending", emailOutboxRepository.countByStatus(EmailOutbox.Status.SENDING));
+        metrics.put("failedRows", emailOutboxRepository.countByStatus(EmailOutbox.Status.FAILED));
+        metrics.put("sent", sent.get());
+        metrics.put("retried", retried.get());
+        metrics.put("failed", failed.get());
+        metrics.put("deduplicated", deduplicated.get());
+        metrics.put("batches", batches.get());
+        metrics.put("claimsLost", claimsLost.get());
+        metrics.put("lastBatchSize", lastBatchSize);
+        metrics.put("lastBatchMillis", lastBatchMillis);
+        long millis = sendMillis.get();
+        metrics.put("messagesPerSecond", millis > 0 ? Math.round(sent.get() * 1000.0 / millis * 100.0) / 100.0 : 0.0);
+        metrics.put("deliveryEnabled", emailEnabled && mailSender != null);
+        return metrics;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private BatchResult sendBatch(List<EmailOutbox> batch, String claimId) {
+        long started = System.currentTimeMillis();
+        BatchResult result = new BatchResult();
+        int done = 0;
+
+        try (Delivery delivery = new Delivery()) {
+            for (EmailOutbox mail : batch) {
+                if (!holdsClaim(claimId)) {
+                    result.stopped = true;
+                    break;
+                }
+                Exception error = delivery.send(mail);
+                Date now = new Date();
+                if (error == null) {
+                    mail.setStatus(EmailOutbox.Status.SENT);
+                    mail.setSentAt(now);
+                    mail.setLastError(null);
+                } else {
+                    scheduleRetry(mail, error, now);
+                    result.failures++;
+                }
+                done++;
+                if (!complete(mail, claimId)) {
+                    // Sent, but another node had already taken the row over
+                    claimsLost.incrementAndGet();
+                    log.warn("Outbox claim {} lost while sending mail {}", claimId, mail.getId());
+                    result.stopped = true;
+                    break;
+                }
+                if (error == null) {
+                    sent.incrementAndGet();
+                }
+            }
+        }
+        if (result.stopped) {
+            int released = inTransaction(() -> emailOutboxRepository.releaseClaim(claimId));
+            log.info("Outbox batch stopped after {} of {} mails, {} handed back", done, batch.size(), released);
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        batches.incrementAndGet();
+        sendMillis.addAndGet(elapsed);
+        lastBatchSize = done;
+        lastBatchMillis = elapsed;
+        log.info("Outbox batch: {} mails, {} failed, {} ms", done, result.failures, elapsed);
+        return result;
+    }
+
+    // Checks the lease and extends the claim before a message goes out
+    private boolean holdsClaim(String claimId) {
+        if (!schedulerLeaseService.holds(OUTBOX_LEASE)) {
+            log.info("Outbox lease lost, stopping claim {}", claimId);
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (inTransaction(() -> emailOutboxRepository.extendClaim(claimId, now, now + claimTtlMillis)) > 0) {
+            return true;
+        }
+        claimsLost.incrementAndGet();
+        log.warn("Outbox claim {} ran out before its batch was sent", claimId);
+        return false;
+    }
+
+    private boolean complete(EmailOutbox mail, String claimId) {
+        return inTransaction(() -> emailOutboxRepository.completeClaimed(mail.getId(), claimId, mail.getStatus(),
+                mail.getAttempts(), mail.getNextAttemptAt(), mail.getLastError(), mail.getSentAt())) > 0;
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private static final class BatchResult {
+        int failures;
+        boolean stopped;
+    }
+
+    /**
+     * Sends one message at a time over a single SMTP connection, opened on
+     * the first message. After a connection or authentication failure the
+     * rest of the batch fails with the same error without further attempts.
+     * Other JavaMailSender implementations send each message on their own.
+     */
+    private final class Delivery implements AutoCloseable {
+        private Transport transport;
+        private Exception connectionError;
+
+        Exception send(EmailOutbox mail) {
+            if (!emailEnabled || mailSender == null) {
+                log.info("[SIMULATED] Mail to {}: {}", mail.getRecipient(), mail.getSubject());
+                return null;
+            }
+            if (connectionError != null) {
+                return connectionError;
+            }
+            MimeMessage message;
+            try {
+                message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+                helper.setFrom(fromEmail);
+                helper.setTo(mail.getRecipient());
+                helper.setSubject(mail.getSubject());
+                helper.setText(mail.getBody());
+            } catch (Exception e) {
+                return e;
+            }
+            if (!(mailSender instanceof JavaMailSenderImpl)) {
+                try {
+                    mailSender.send(message);
+                    return null;
+                } catch (Exception e) {
+                    return e;
+                }
+            }
+            try {
+                connect((JavaMailSenderImpl) mailSender);
+            } catch (Exception e) {
+                connectionError = e;
+                return e;
+            }
+            try {
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new Date());
+                }
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                return null;
+            } catch (Exception e) {
+                // A dropped connection is opened again for the next message
+                if (!transport.isConnected()) {
+                    close();
+                }
+                return e;
+            }
+        }
+
+        private void connect(JavaMailSenderImpl sender) throws MessagingException {
+            if (transport != null) {
+                return;
+            }
+            Transport opened = sender.getSession().getTransport(
+                    sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+            opened.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            transport = opened;
+        }
+
+        @Override
+        public void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Closing SMTP connection failed: {}", e.getMessage());
+                }
+                transport = null;
+            }
+        }
+    }
+
+    private void scheduleRetry(EmailOutbox mail, Exception error, Date now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        mail.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(EmailOutbox.Status.FAILED);
+            failed.incrementAndGet();
+            log.warn("Giving up on mail {} to {} after {} attempts: {}",
+                    mail.getId(), mail.getRecipient(), attempts, message);
+            return;
+        }
+
+        long delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempts - 1, 20));
+        mail.setNextAttemptAt(new Date(now.getTime() + delay));
+        retried.incrementAndGet();
+        log.warn("Mail {} to {} failed (attempt {}), retrying in {} s: {}",
+                mail.getId(), mail.getRecipient(), attempts, delay / 1000, message);
+    }
+}
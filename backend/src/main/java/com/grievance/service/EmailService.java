@@ -1,43 +1,159 @@
 package com.grievance.service;
 
 import com.grievance.model.Complaint;
+import com.grievance.model.EmailOutbox;
+import com.grievance.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Builds notification mails and queues them in email_outbox. Nothing here talks
+ * to SMTP: rows are written in the caller's transaction, so a mail exists only
+ * if the change that triggered it committed, and EmailOutboxDispatcher delivers
+ * them in batches afterwards.
+ */
 @Service
+@Slf4j
 public class EmailService {
     
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
     
-    @Value("${spring.mail.username:no-reply@grievance.com}")
-    private String fromEmail;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     
-    @Value("${app.email.enabled:false}")
-    private boolean emailEnabled;
+    // Matches hibernate.jdbc.time_zone for rows written outside Hibernate
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    
+    // A key already claimed is ignored; one being claimed by an open transaction waits for it
+    private static final String CLAIM_DEDUPE_KEY =
+        "INSERT IGNORE INTO email_dedupe (dedupe_key, claim_id, created_at) VALUES (?, ?, ?)";
     
     public EmailService() {
-        System.out.println("📧 EmailService initialized");
-        System.out.println("   Email enabled: " + emailEnabled);
-        System.out.println("   From email: " + fromEmail);
+        log.info("EmailService initialized (outbox delivery)");
     }
     
-    // ========== ADD THIS NEW METHOD ==========
-    @Async
-    public void sendComplaintNotification(Complaint complaint) {
-        if (!emailEnabled || mailSender == null) {
-            System.out.println("📧 [SIMULATED] Complaint created: ID=" + complaint.getId() + 
-                             ", Title=" + complaint.getTitle() + 
-                             ", User=" + (complaint.getUser() != null ? complaint.getUser().getEmail() : "Unknown"));
+    // ========== OUTBOX ==========
+    
+    /**
+     * Queues a mail. When dedupeKey is set and a mail with the same key was
+     * already queued, the call is a no-op. The key is claimed in email_dedupe
+     * by INSERT IGNORE, so of two concurrent calls only one queues its mail.
+     */
+    @Transactional
+    public void enqueue(String toEmail, String subject, String body, String dedupeKey) {
+        if (toEmail == null || toEmail.trim().isEmpty()) {
+            log.warn("No recipient, mail not queued: {}", subject);
+            return;
+        }
+        if (dedupeKey != null && claimDedupeKeys(Collections.singletonList(dedupeKey)).isEmpty()) {
+            emailOutboxDispatcher.recordDeduplicated();
+            log.info("Duplicate notification skipped: {}", dedupeKey);
             return;
         }
         
+        String trimmedSubject = subject.length() > 500 ? subject.substring(0, 500) : subject;
+        emailOutboxRepository.save(new EmailOutbox(toEmail.trim(), trimmedSubject, body, dedupeKey));
+        log.info("Mail queued for {}: {}", toEmail.trim(), trimmedSubject);
+    }
+    
+    public void enqueue(EmailOutbox mail) {
+        enqueue(mail.getRecipient(), mail.getSubject(), mail.getBody(), mail.getDedupeKey());
+    }
+    
+    /**
+     * Queues many mails with one batched key claim and one batched insert.
+     * Used by the batch escalation run, which builds its mails with the
+     * build* methods. Returns the number of rows queued.
+     */
+    @Transactional
+    public int enqueueAll(List<EmailOutbox> mails) {
+        Map<String, EmailOutbox> unique = new LinkedHashMap<>();
+        List<EmailOutbox> toInsert = new ArrayList<>();
+        for (EmailOutbox mail : mails) {
+            if (mail.getRecipient() == null || mail.getRecipient().trim().isEmpty()) {
+                continue;
+            }
+            mail.setRecipient(mail.getRecipient().trim());
+            if (mail.getSubject().length() > 500) {
+                mail.setSubject(mail.getSubject().substring(0, 500));
+            }
+            if (mail.getDedupeKey() == null) {
+                toInsert.add(mail);
+            } else if (unique.putIfAbsent(mail.getDedupeKey(), mail) != null) {
+                emailOutboxDispatcher.recordDeduplicated();
+            }
+        }
+        if (!unique.isEmpty()) {
+            Set<String> claimed = claimDedupeKeys(unique.keySet());
+            unique.forEach((key, mail) -> {
+                if (claimed.contains(key)) {
+                    toInsert.add(mail);
+                } else {
+                    emailOutboxDispatcher.recordDeduplicated();
+                }
+            });
+        }
+        if (toInsert.isEmpty()) {
+            return 0;
+        }
+        
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Calendar utc = Calendar.getInstance(UTC);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO email_outbox (recipient, subject, body, dedupe_key, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)",
+            toInsert, toInsert.size(), (ps, mail) -> {
+                ps.setString(1, mail.getRecipient());
+                ps.setString(2, mail.getSubject());
+                ps.setString(3, mail.getBody());
+                ps.setString(4, mail.getDedupeKey());
+                ps.setTimestamp(5, now, utc);
+                ps.setTimestamp(6, now, utc);
+            });
+        return toInsert.size();
+    }
+    
+    /**
+     * Claims the keys not claimed before and returns them. A single insert
+     * reports its own count; batched counts are not reliable with
+     * rewriteBatchedStatements, so a batch reads its keys back by claim id.
+     */
+    private Set<String> claimDedupeKeys(Collection<String> keys) {
+        String claimId = UUID.randomUUID().toString();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Calendar utc = Calendar.getInstance(UTC);
+        if (keys.size() == 1) {
+            String key = keys.iterator().next();
+            int inserted = jdbcTemplate.update(CLAIM_DEDUPE_KEY, ps -> {
+                ps.setString(1, key);
+                ps.setString(2, claimId);
+                ps.setTimestamp(3, now, utc);
+            });
+            return inserted > 0 ? Collections.singleton(key) : Collections.emptySet();
+        }
+        jdbcTemplate.batchUpdate(CLAIM_DEDUPE_KEY, keys, keys.size(), (ps, key) -> {
+            ps.setString(1, key);
+            ps.setString(2, claimId);
+            ps.setTimestamp(3, now, utc);
+        });
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT dedupe_key FROM email_dedupe WHERE claim_id = ?", String.class, claimId));
+    }
+    
+    // ========== ADD THIS NEW METHOD ==========
+    public void sendComplaintNotification(Complaint complaint) {
         try {
-            String userEmail = complaint.getUser() != null ? complaint.getUser().getEmail() : "no-email";
+            String userEmail = complaint.getUser() != null ? complaint.getUser().getEmail() : null;
             String subject = "✅ Complaint #" + complaint.getId() + " Created Successfully";
             
             String body = String.format(
@@ -65,48 +181,27 @@ public class EmailService {
                 complaint.getCreatedAt()
             );
             
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(userEmail);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            System.out.println("✅ Complaint creation email sent to: " + userEmail);
+            enqueue(userEmail, subject, body, "complaint-created:" + complaint.getId() + ":" + userEmail);
         } catch (Exception e) {
-            System.out.println("❌ Failed to send complaint creation email: " + e.getMessage());
+            log.warn("Failed to queue complaint creation email: {}", e.getMessage());
         }
     }
     // ========== END OF NEW METHOD ==========
     
-    @Async
     public void sendEscalationEmail(String toEmail, String subject, String body) {
-        if (!emailEnabled || mailSender == null) {
-            System.out.println("📧 [SIMULATED] Email would be sent to: " + toEmail);
-            System.out.println("   Subject: " + subject);
-            System.out.println("   Body: " + body.substring(0, Math.min(100, body.length())) + "...");
-            return;
-        }
-        
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            System.out.println("✅ Email sent to: " + toEmail);
-        } catch (Exception e) {
-            System.out.println("❌ Failed to send email to " + toEmail + ": " + e.getMessage());
-            System.out.println("📧 [FALLBACK] Email content for " + toEmail + ":");
-            System.out.println("   Subject: " + subject);
-            System.out.println("   Body: " + body);
-        }
+        enqueue(toEmail, subject, body, null);
     }
     
-    @Async
     public void sendUserEscalationNotification(String userEmail, Long complaintId, 
                                               String complaintTitle, Integer escalationLevel,
-                                              String priority) {
+                                              String priority, Date escalatedAt) {
+        enqueue(buildUserEscalationNotification(userEmail, complaintId, complaintTitle, escalationLevel, priority,
+                escalatedAt));
+    }
+    
+    public EmailOutbox buildUserEscalationNotification(String userEmail, Long complaintId, 
+                                                       String complaintTitle, Integer escalationLevel,
+                                                       String priority, Date escalatedAt) {
         String subject = "🚨 Your " + priority + " Priority Complaint #" + complaintId + " Has Been Escalated!";
         
         String timeLimit = getTimeLimitByPriority(priority);
@@ -130,13 +225,20 @@ public class EmailService {
             priority, complaintId, complaintTitle, priority, timeLimit
         );
         
-        sendEscalationEmail(userEmail, subject, body);
+        return new EmailOutbox(userEmail, subject, body, escalationKey(complaintId, escalationLevel, escalatedAt, userEmail));
     }
     
-    @Async
     public void sendSuperAdminEscalationNotification(String superAdminEmail, Long complaintId, 
                                                     String complaintTitle, String userName, 
-                                                    Integer currentLevel, String priority) {
+                                                    Integer currentLevel, String priority, Date escalatedAt) {
+        enqueue(buildSuperAdminEscalationNotification(superAdminEmail, complaintId, complaintTitle, userName,
+                currentLevel, priority, escalatedAt));
+    }
+    
+    public EmailOutbox buildSuperAdminEscalationNotification(String superAdminEmail, Long complaintId, 
+                                                             String complaintTitle, String userName, 
+                                                             Integer currentLevel, String priority,
+                                                             Date escalatedAt) {
         String subject = "🔥 " + priority + " PRIORITY - Complaint #" + complaintId + " Escalated to SUPER ADMIN!";
         
         String timeLimit = getTimeLimitByPriority(priority);
@@ -168,13 +270,21 @@ public class EmailService {
             priority, timeLimit
         );
         
-        sendEscalationEmail(superAdminEmail, subject, body);
+        return new EmailOutbox(superAdminEmail, subject, body, escalationKey(complaintId, currentLevel, escalatedAt, superAdminEmail));
     }
     
-    @Async
     public void sendAdminEscalationNotification(String adminEmail, Long complaintId, 
                                                String complaintTitle, String userName, 
-                                               Integer escalationLevel, String assigneeRole) {
+                                               Integer escalationLevel, String assigneeRole,
+                                               Date escalatedAt) {
+        enqueue(buildAdminEscalationNotification(adminEmail, complaintId, complaintTitle, userName,
+                escalationLevel, assigneeRole, escalatedAt));
+    }
+    
+    public EmailOutbox buildAdminEscalationNotification(String adminEmail, Long complaintId, 
+                                                        String complaintTitle, String userName, 
+                                                        Integer escalationLevel, String assigneeRole,
+                                                        Date escalatedAt) {
         String subject = "⚠️ Complaint #" + complaintId + " Escalated to Level " + escalationLevel;
         
         String body = String.format(
@@ -199,12 +309,11 @@ public class EmailService {
             complaintId, complaintTitle, userName, escalationLevel, assigneeRole
         );
         
-        sendEscalationEmail(adminEmail, subject, body);
+        return new EmailOutbox(adminEmail, subject, body, escalationKey(complaintId, escalationLevel, escalatedAt, adminEmail));
     }
     
-    @Async
     public void sendComplaintResolvedNotification(String userEmail, Long complaintId, 
-                                                 String complaintTitle, String resolvedBy) {
+                                                 String complaintTitle, String resolvedBy, Date resolvedAt) {
         String subject = "✅ Your Complaint #" + complaintId + " Has Been Resolved!";
         
         String body = String.format(
@@ -221,43 +330,50 @@ public class EmailService {
             "IT Grievance System Team\n" +
             "----------------------------\n" +
             "This is an automated notification. Please do not reply to this email.",
-            complaintId, complaintTitle, resolvedBy, new java.util.Date().toString()
+            complaintId, complaintTitle, resolvedBy, (resolvedAt != null ? resolvedAt : new Date()).toString()
         );
         
-        sendEscalationEmail(userEmail, subject, body);
+        // Once per resolution: a complaint resolved again after a reopen mails again
+        String dedupeKey = resolvedAt != null
+            ? "resolved:" + complaintId + ":" + resolvedAt.getTime() / 1000 + ":" + userEmail
+            : null;
+        enqueue(userEmail, subject, body, dedupeKey);
     }
     
-    @Async
-    public void sendCommentNotification(String toEmail, String subject, String body) {
-        if (!emailEnabled || mailSender == null) {
-            System.out.println("📧 [SIMULATED] Comment email would be sent to: " + toEmail);
-            System.out.println("   Subject: " + subject);
-            System.out.println("   Body preview: " + (body != null && body.length() > 100 ? body.substring(0, 100) + "..." : body));
-            return;
-        }
+    public void sendPrimaryResolvedNotification(String userEmail, Long complaintId, String complaintTitle,
+                                                Long primaryId, String resolvedBy, Date primaryResolvedAt) {
+        String subject = "ℹ️ A Complaint Like Your Complaint #" + complaintId + " Has Been Resolved";
         
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-            System.out.println("✅ Comment email sent to: " + toEmail);
-        } catch (Exception e) {
-            System.out.println("❌ Failed to send comment email: " + e.getMessage());
-            System.out.println("📧 [FALLBACK] Comment email for " + toEmail + ":");
-            System.out.println("   Subject: " + subject);
-            System.out.println("   Body: " + body);
-        }
+        String body = String.format(
+            "Dear User,\n\n" +
+            "Your complaint looked like a repeat of complaint #%d, which has now been resolved by %s.\n\n" +
+            "📋 Your Complaint:\n" +
+            "   • Complaint ID: #%d\n" +
+            "   • Title: %s\n\n" +
+            "Your complaint stays open and is now handled and escalated on its own. If the fix solved " +
+            "your issue too, add a comment to your complaint so it can be closed.\n\n" +
+            "Best regards,\n" +
+            "IT Grievance System Team\n" +
+            "----------------------------\n" +
+            "This is an automated notification. Please do not reply to this email.",
+            primaryId, resolvedBy, complaintId, complaintTitle
+        );
+        
+        // Once per resolution of the primary
+        String dedupeKey = primaryResolvedAt != null
+            ? "primary-resolved:" + complaintId + ":" + primaryResolvedAt.getTime() / 1000 + ":" + userEmail
+            : null;
+        enqueue(userEmail, subject, body, dedupeKey);
+    }
+    
+    public void sendCommentNotification(String toEmail, String subject, String body) {
+        enqueue(toEmail, subject, body, null);
     }
     
-    @Async
     public void sendSimpleEmail(String toEmail, String subject, String body) {
         sendCommentNotification(toEmail, subject, body);
     }
     
-    @Async
     public void sendAnalyticsReportEmail(String toEmail, String reportData) {
         String subject = "📊 IT Grievance System - Analytics Report";
         
@@ -276,7 +392,6 @@ public class EmailService {
         sendEscalationEmail(toEmail, subject, body);
     }
     
-    @Async
     public void sendDailySummaryEmail(String adminEmail, long newComplaints, long resolvedToday, 
                                      long pendingEscalations, String topCategories) {
         String subject = "📋 IT Grievance System - Daily Summary (" + new java.util.Date().toString() + ")";
@@ -301,7 +416,6 @@ public class EmailService {
         sendEscalationEmail(adminEmail, subject, body);
     }
     
-    @Async
     public void sendWelcomeEmail(String userEmail, String userName) {
         String subject = "👋 Welcome to IT Grievance System!";
         
@@ -325,7 +439,6 @@ public class EmailService {
         sendEscalationEmail(userEmail, subject, body);
     }
     
-    @Async
     public void sendVerificationEmail(String userEmail, String userName, String verificationCode) {
         String subject = "🔐 Verify Your IT Grievance System Account";
         
@@ -346,7 +459,6 @@ public class EmailService {
         sendEscalationEmail(userEmail, subject, body);
     }
     
-    @Async
     public void sendPasswordResetEmail(String userEmail, String resetToken) {
         String subject = "🔑 Reset Your IT Grievance System Password";
         
@@ -366,6 +478,13 @@ public class EmailService {
         sendEscalationEmail(userEmail, subject, body);
     }
     
+    // One escalation event: the same level reached again (reopen, re-arm, unlinked duplicate) has a new escalated_at.
+    // Seconds, so the key is the same whether escalated_at was read back from a column with or without fractions.
+    private String escalationKey(Long complaintId, Integer level, Date escalatedAt, String recipient) {
+        return "escalation:" + complaintId + ":" + level + ":" + (escalatedAt != null ? escalatedAt.getTime() / 1000 : null)
+            + ":" + (recipient != null ? recipient.trim() : null);
+    }
+    
     private String getTimeLimitByPriority(String priority) {
         if (priority == null || priority.equalsIgnoreCase("MEDIUM")) {
             return "24 hours";
@@ -2,15 +2,30 @@ package com.grievance.service;
 
 import com.grievance.model.*;
 import com.grievance.repository.*;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Service
-public class EscalationService {
+@Slf4j
+public class EscalationService implements ClusterSyncListener {
     
     @Autowired
     private ComplaintRepository complaintRepository;
@@ -27,23 +42,450 @@ public class EscalationService {
     @Autowired
     private EmailService emailService;
     
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
+    @Autowired
+    private ComplaintStatsService complaintStatsService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EscalationTimingWheel escalationWheel;
+    
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+    
+    @Autowired
+    private ComplaintViewService complaintViewService;
+    
+    @Autowired
+    @Qualifier("escalationExecutor")
+    private Executor escalationExecutor;
+    
+    // Complaints escalated per transaction in the scheduled run
+    @Value("${app.escalation.batch-size:500}")
+    private int escalationBatchSize;
+    
+    // Deadlines further out than this are left in the database until the wheel gets close
+    @Value("${app.escalation.wheel.horizon-hours:168}")
+    private int wheelHorizonHours;
+    
+    // Due complaints with no escalation_config for their next level try again this much later
+    @Value("${app.escalation.default-interval-hours:24}")
+    private int defaultIntervalHours;
+    
+    // Matches hibernate.jdbc.time_zone for rows written outside Hibernate
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    
+    // Only the node holding this lease runs escalations
+    private static final String ESCALATION_LEASE = "escalation";
+    
+    // Same status filter as findEscalationCandidates
+    private static final Set<Complaint.Status> ESCALATABLE_STATUSES = EnumSet.of(
+        Complaint.Status.OPEN, Complaint.Status.IN_PROGRESS, Complaint.Status.NEW, Complaint.Status.UNDER_REVIEW);
+    
+    private final AtomicBoolean escalationRunning = new AtomicBoolean();
+    private final AtomicBoolean escalationRequested = new AtomicBoolean();
+    
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+    
+    // Deadlines up to this instant are in the wheel; 0 until this node becomes the escalation leader
+    private volatile long wheelLoadedUntil;
+    private volatile boolean escalationLeader;
+    // Oldest change time ClusterSyncService has reported that the wheel has not read yet
+    private final AtomicLong clusterChangesSince = new AtomicLong(Long.MAX_VALUE);
+    
+    @Async("escalationExecutor") // on its own pool, so mail or report load cannot delay it
     public void checkAndEscalateComplaints() {
-        System.out.println("\n🔄 ========== CHECKING FOR ESCALATIONS ==========");
+        // A request that arrives mid-run is picked up by the running thread once it finishes
+        escalationRequested.set(true);
+        while (escalationRequested.get() && escalationRunning.compareAndSet(false, true)) {
+            try {
+                escalationRequested.set(false);
+                runEscalationCheck();
+            } finally {
+                escalationRunning.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Advances the escalation timing wheel. Idle ticks are memory-only; the
+     * database is read only when a deadline has passed (one escalation run)
+     * or the loaded range is about to run out. In cluster mode only the
+     * holder of the escalation lease keeps a wheel; it rebuilds it when it
+     * takes the lease over and reads other nodes' changes every sync interval.
+     */
+    @Scheduled(fixedDelayString = "${app.escalation.check.interval:1000}")
+    public void advanceEscalationWheel() {
+        if (!schedulerLeaseService.holds(ESCALATION_LEASE)) {
+            if (escalationLeader) {
+                log.info("Escalation lease lost, another node takes over");
+                escalationLeader = false;
+                wheelLoadedUntil = 0L;
+                escalationWheel.clear();
+            }
+            return;
+        }
+        if (!escalationLeader) {
+            escalationLeader = true;
+            rebuildEscalationWheel();
+        }
         
-        List<Complaint> complaintsToEscalate = complaintRepository.findComplaintsForEscalation();
-        System.out.println("📋 Found " + complaintsToEscalate.size() + " complaints ready for escalation");
+        long now = System.currentTimeMillis();
+        List<Long> due = escalationWheel.advance(now);
+        if (!due.isEmpty()) {
+            log.info("Escalation deadline reached for {} complaint(s)", due.size());
+            escalationExecutor.execute(this::checkAndEscalateComplaints);
+        }
         
-        for (Complaint complaint : complaintsToEscalate) {
-            escalateComplaint(complaint);
+        long loadedUntil = wheelLoadedUntil;
+        long horizon = wheelHorizonMillis();
+        if (loadedUntil > 0 && now > loadedUntil - horizon / 2) {
+            wheelLoadedUntil = loadDeadlines(loadedUntil, now + horizon, null);
         }
         
-        if (complaintsToEscalate.isEmpty()) {
-            System.out.println("✅ No complaints need escalation at this time");
+        long changedSince = clusterChangesSince.getAndSet(Long.MAX_VALUE);
+        if (changedSince != Long.MAX_VALUE) {
+            loadDeadlines(0L, wheelLoadedUntil, new Date(changedSince));
         }
+    }
+    
+    /**
+     * Cluster mode: notes how far back other nodes' deadline changes go; the
+     * next tick reads them, so the wheel is only touched from the tick thread.
+     */
+    @Override
+    public void syncFromCluster(Set<Long> changedComplaintIds, Date since) {
+        if (escalationLeader) {
+            clusterChangesSince.accumulateAndGet(since.getTime(), Math::min);
+        }
+    }
+    
+    /**
+     * Fills the wheel from next_escalation_time, on the first tick and
+     * whenever this node takes over the escalation lease. Only deadlines
+     * within the horizon are read; anything already overdue fires on the
+     * next tick.
+     */
+    public void rebuildEscalationWheel() {
+        escalationWheel.clear();
+        long now = System.currentTimeMillis();
+        clusterChangesSince.set(Long.MAX_VALUE);
+        wheelLoadedUntil = loadDeadlines(0L, now + wheelHorizonMillis(), null);
+    }
+    
+    /**
+     * Puts the complaint's current deadline into the wheel, or takes it out
+     * when the complaint can no longer escalate. Applied after commit.
+     */
+    public void updateEscalationTimer(Complaint complaint) {
+        Long complaintId = complaint.getId();
+        boolean pending = complaint.getNextEscalationTime() != null
+            && ESCALATABLE_STATUSES.contains(complaint.getStatus())
+            && (complaint.getEscalationLevel() == null || complaint.getEscalationLevel() == 0);
+        Date deadline = pending ? complaint.getNextEscalationTime() : null;
         
-        System.out.println("================================================\n");
+        AfterCommit.run(() -> {
+            // Beyond the loaded range the next horizon load picks it up
+            if (deadline != null && deadline.getTime() <= wheelLoadedUntil) {
+                escalationWheel.schedule(complaintId, deadline);
+            } else {
+                escalationWheel.cancel(complaintId);
+            }
+        });
+    }
+    
+    public void cancelEscalationTimer(Long complaintId) {
+        AfterCommit.run(() -> escalationWheel.cancel(complaintId));
+    }
+    
+    /**
+     * Escalates every due complaint in chunks of app.escalation.batch-size.
+     * Each chunk is one transaction: a keyset read of the due rows, one
+     * batched UPDATE, one batched history INSERT and one batched outbox
+     * INSERT. Mails are only rows at this point; the outbox dispatcher sends
+     * them once the chunk has committed. Configs are read once per run.
+     * Complaints whose next level has no config are re-armed
+     * app.escalation.default-interval-hours later rather than dropped.
+     */
+    private void runEscalationCheck() {
+        if (!schedulerLeaseService.holds(ESCALATION_LEASE)) {
+            log.info("Escalation lease held by another node, skipping run");
+            return;
+        }
+        log.info("Checking for escalations");
+        long started = System.currentTimeMillis();
+        Date now = new Date();
+        
+        Map<Integer, EscalationConfig> configsByLevel = new HashMap<>();
+        for (EscalationConfig config : escalationConfigRepository.findAll()) {
+            if (config.getLevel() != null) {
+                configsByLevel.put(config.getLevel(), config);
+            }
+        }
+        
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ChunkResult total = new ChunkResult();
+        int chunks = 0;
+        long afterId = 0L;
+        
+        while (true) {
+            // The guarded UPDATE already prevents double escalation; this stops a node that lost the lease
+            if (chunks > 0 && !schedulerLeaseService.holds(ESCALATION_LEASE)) {
+                log.info("Escalation lease lost mid-run, stopping after {} chunk(s)", chunks);
+                break;
+            }
+            final long from = afterId;
+            ChunkResult chunk;
+            try {
+                chunk = tx.execute(status -> escalateChunk(configsByLevel, now, from));
+            } catch (Exception e) {
+                log.error("Escalation chunk after complaint {} failed: {}", from, e.getMessage(), e);
+                break;
+            }
+            if (chunk == null || chunk.due == 0) {
+                break;
+            }
+            chunks++;
+            total.add(chunk);
+            afterId = chunk.lastId;
+            if (chunk.due < escalationBatchSize) {
+                break;
+            }
+        }
+        
+        long elapsed = System.currentTimeMillis() - started;
+        double perSecond = elapsed > 0 ? Math.round(total.escalated * 1000.0 / elapsed * 100.0) / 100.0 : total.escalated;
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", new Date(started));
+        report.put("due", total.due);
+        report.put("escalated", total.escalated);
+        report.put("skipped", total.skipped);
+        report.put("rearmed", total.rearmed);
+        report.put("mailsQueued", total.mailsQueued);
+        report.put("chunks", chunks);
+        report.put("elapsedMs", elapsed);
+        report.put("complaintsPerSecond", perSecond);
+        lastRun = report;
+        
+        if (total.due == 0) {
+            log.info("No complaints need escalation at this time");
+        } else {
+            log.info("Escalated {} of {} due complaints in {} chunk(s), {} ms ({}/s), {} mails queued, {} skipped, {} re-armed",
+                    total.escalated, total.due, chunks, elapsed, perSecond, total.mailsQueued, total.skipped, total.rearmed);
+        }
+    }
+    
+    private ChunkResult escalateChunk(Map<Integer, EscalationConfig> configsByLevel, Date now, long afterId) {
+        List<Object[]> rows = complaintRepository.findEscalationCandidates(
+            now, afterId, PageRequest.of(0, escalationBatchSize));
+        ChunkResult result = new ChunkResult();
+        result.due = rows.size();
+        if (rows.isEmpty()) {
+            return result;
+        }
+        result.lastId = (Long) rows.get(rows.size() - 1)[0];
+        
+        List<PlannedEscalation> planned = new ArrayList<>(rows.size());
+        List<PlannedEscalation> unconfigured = new ArrayList<>();
+        for (Object[] row : rows) {
+            PlannedEscalation p = new PlannedEscalation(row);
+            p.config = configsByLevel.get(p.toLevel);
+            if (p.config == null) {
+                unconfigured.add(p);
+                continue;
+            }
+            if (configsByLevel.containsKey(p.toLevel + 1)) {
+                p.nextEscalationTime = new Date(now.getTime()
+                    + getHoursUntilNextEscalation(p.config, p.priority) * 60L * 60L * 1000L);
+            }
+            planned.add(p);
+        }
+        result.rearmed = rearm(unconfigured, now);
+        result.skipped += unconfigured.size() - result.rearmed;
+        if (planned.isEmpty()) {
+            return result;
+        }
+        
+        Timestamp escalatedAt = new Timestamp(now.getTime());
+        Calendar utc = Calendar.getInstance(UTC);
+        
+        // The level check makes a row that changed since the read a no-op instead of a double escalation
+        int[][] counts = jdbcTemplate.batchUpdate(
+            "UPDATE complaints SET escalation_level = ?, escalated_at = ?, " +
+            "escalation_recipients = COALESCE(?, escalation_recipients), assigned_to = COALESCE(?, assigned_to), " +
+            "next_escalation_time = ?, updated_at = ? WHERE id = ? AND COALESCE(escalation_level, 0) = ?",
+            planned, planned.size(), (ps, p) -> {
+                ps.setInt(1, p.toLevel);
+                ps.setTimestamp(2, escalatedAt, utc);
+                ps.setString(3, p.config.getRecipients());
+                ps.setString(4, p.config.getAssigneeRole());
+                ps.setTimestamp(5, p.nextEscalationTime != null ? new Timestamp(p.nextEscalationTime.getTime()) : null, utc);
+                ps.setTimestamp(6, escalatedAt, utc);
+                ps.setLong(7, p.id);
+                ps.setInt(8, p.fromLevel);
+            });
+        
+        List<PlannedEscalation> applied = new ArrayList<>(planned.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                PlannedEscalation p = planned.get(index++);
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    applied.add(p);
+                } else {
+                    result.skipped++;
+                }
+            }
+        }
+        if (applied.isEmpty()) {
+            return result;
+        }
+        
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO escalation_history (complaint_id, escalation_level, escalated_from, escalated_to, " +
+            "reason, escalated_at, recipients) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            applied, applied.size(), (ps, p) -> {
+                ps.setLong(1, p.id);
+                ps.setInt(2, p.toLevel);
+                ps.setString(3, getRoleForLevel(p.fromLevel));
+                ps.setString(4, p.config.getAssigneeRole());
+                ps.setString(5, p.priority + " priority complaint not resolved within time limit");
+                ps.setTimestamp(6, escalatedAt, utc);
+                ps.setString(7, p.config.getRecipients());
+            });
+        
+        // Candidates are all at level 0, so every applied row is newly escalated
+        complaintStatsService.recordEscalated(applied.size());
+        AfterCommit.run(() -> applied.forEach(p -> escalationWheel.cancel(p.id)));
+        complaintViewService.complaintsChanged(applied.stream().map(p -> p.id).collect(Collectors.toList()));
+        
+        List<EmailOutbox> mails = new ArrayList<>();
+        for (PlannedEscalation p : applied) {
+            mails.addAll(buildEscalationNotifications(p.id, p.title, p.userEmail, p.userName, p.config, p.priority,
+                escalatedAt));
+        }
+        result.mailsQueued = emailService.enqueueAll(mails);
+        result.escalated = applied.size();
+        return result;
+    }
+    
+    /**
+     * Moves the deadline of due complaints that have no config for their
+     * next level app.escalation.default-interval-hours ahead, so they stay
+     * in the wheel and escalate once a config exists. Same level guard as
+     * the escalation UPDATE; returns the number of rows moved.
+     */
+    private int rearm(List<PlannedEscalation> unconfigured, Date now) {
+        if (unconfigured.isEmpty()) {
+            return 0;
+        }
+        log.warn("No escalation config for level {}, re-arming {} due complaint(s) in {} h",
+                unconfigured.get(0).toLevel, unconfigured.size(), defaultIntervalHours);
+        Date deadline = new Date(now.getTime() + defaultIntervalHours * 60L * 60L * 1000L);
+        Calendar utc = Calendar.getInstance(UTC);
+        int[][] counts = jdbcTemplate.batchUpdate(
+            "UPDATE complaints SET next_escalation_time = ?, updated_at = ? WHERE id = ? AND escalation_level = ?",
+            unconfigured, unconfigured.size(), (ps, p) -> {
+                ps.setTimestamp(1, new Timestamp(deadline.getTime()), utc);
+                ps.setTimestamp(2, new Timestamp(now.getTime()), utc);
+                ps.setLong(3, p.id);
+                ps.setInt(4, p.fromLevel);
+            });
+        
+        List<Long> rearmed = new ArrayList<>(unconfigured.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                PlannedEscalation p = unconfigured.get(index++);
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    rearmed.add(p.id);
+                }
+            }
+        }
+        AfterCommit.run(() -> {
+            // Beyond the loaded range the next horizon load picks them up
+            if (deadline.getTime() <= wheelLoadedUntil) {
+                rearmed.forEach(id -> escalationWheel.schedule(id, deadline));
+            }
+        });
+        complaintViewService.complaintsChanged(rearmed);
+        return rearmed.size();
+    }
+    
+    // Loads deadlines in (from, until] into the wheel, optionally only rows updated since; returns until
+    private long loadDeadlines(long from, long until, Date updatedSince) {
+        long started = System.currentTimeMillis();
+        int loaded = 0;
+        long afterId = 0L;
+        while (true) {
+            PageRequest page = PageRequest.of(0, escalationBatchSize);
+            List<Object[]> rows = updatedSince != null
+                ? complaintRepository.findEscalationDeadlinesUpdatedSince(updatedSince, new Date(until), afterId, page)
+                : complaintRepository.findEscalationDeadlines(new Date(from), new Date(until), afterId, page);
+            for (Object[] row : rows) {
+                escalationWheel.schedule((Long) row[0], (Date) row[1]);
+            }
+            loaded += rows.size();
+            if (rows.size() < escalationBatchSize) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (updatedSince == null || loaded > 0) {
+            log.info("Escalation wheel: loaded {} deadline(s) up to {} in {} ms",
+                    loaded, new Date(until), System.currentTimeMillis() - started);
+        }
+        return until;
+    }
+    
+    private long wheelHorizonMillis() {
+        return Math.min(wheelHorizonHours * 60L * 60L * 1000L, escalationWheel.getSpanMillis() / 2);
+    }
+    
+    
+    // One due complaint, as read by findEscalationCandidates
+    private static class PlannedEscalation {
+        final long id;
+        final String title;
+        final String priority;
+        final int fromLevel;
+        final int toLevel;
+        final String userEmail;
+        final String userName;
+        EscalationConfig config;
+        Date nextEscalationTime;
+        
+        PlannedEscalation(Object[] row) {
+            this.id = (Long) row[0];
+            this.title = (String) row[1];
+            this.priority = row[2] != null ? row[2].toString() : "MEDIUM";
+            this.fromLevel = row[3] != null ? (Integer) row[3] : 0;
+            this.toLevel = fromLevel + 1;
+            this.userEmail = (String) row[4];
+            this.userName = (String) row[5];
+        }
+    }
+    
+    private static class ChunkResult {
+        int due;
+        int escalated;
+        int skipped;
+        int rearmed;
+        int mailsQueued;
+        long lastId;
+        
+        void add(ChunkResult other) {
+            due += other.due;
+            escalated += other.escalated;
+            skipped += other.skipped;
+            rearmed += other.rearmed;
+            mailsQueued += other.mailsQueued;
+        }
     }
     
     private boolean shouldEscalateComplaint(Complaint complaint) {
@@ -64,7 +506,7 @@ public class EscalationService {
     @Transactional
     public void escalateComplaint(Complaint complaint) {
         try {
-            System.out.println("⚠️ Escalating complaint ID: " + complaint.getId() + " - " + complaint.getTitle());
+            log.warn("Escalating complaint ID: {} - {}", complaint.getId(), complaint.getTitle());
             
             // Get current escalation level
             Integer currentLevel = complaint.getEscalationLevel() != null ? complaint.getEscalationLevel() : 0;
@@ -74,17 +516,18 @@ public class EscalationService {
             EscalationConfig config = escalationConfigRepository.findByLevel(nextLevel);
             
             if (config == null) {
-                System.out.println("❌ No escalation config found for level " + nextLevel);
+                log.warn("No escalation config found for level {}", nextLevel);
                 return;
             }
             
-            System.out.println("📈 Escalating from level " + currentLevel + " to level " + nextLevel);
-            System.out.println("🎯 Assignee Role: " + config.getAssigneeRole());
+            log.info("Escalating from level {} to level {}", currentLevel, nextLevel);
+            log.info("Assignee Role: {}", config.getAssigneeRole());
             
             // Get priority
             String priority = complaint.getPriority() != null ? complaint.getPriority().name() : "MEDIUM";
             
             // Update complaint
+            complaintStatsService.recordEscalationChange(currentLevel, nextLevel);
             complaint.setEscalationLevel(nextLevel);
             complaint.setEscalatedAt(new Date());
             
@@ -100,26 +543,27 @@ public class EscalationService {
             if (shouldSetNextEscalation(nextLevel)) {
                 Date nextEscalation = calculateNextEscalationTime(config, priority);
                 complaint.setNextEscalationTime(nextEscalation);
-                System.out.println("⏰ Next escalation scheduled for: " + nextEscalation);
+                log.info("Next escalation scheduled for: {}", nextEscalation);
             } else {
                 complaint.setNextEscalationTime(null);
-                System.out.println("🏁 Final escalation level reached");
+                log.info("Final escalation level reached");
             }
             
             // Save complaint
             complaintRepository.save(complaint);
+            updateEscalationTimer(complaint);
             
             // Create escalation history
             createEscalationHistory(complaint, config, currentLevel, nextLevel, priority);
+            complaintViewService.complaintChanged(complaint.getId());
             
             // Send notifications
             sendEscalationNotifications(complaint, config, priority);
             
-            System.out.println("✅ Complaint " + complaint.getId() + " escalated to level " + nextLevel);
+            log.info("Complaint {} escalated to level {}", complaint.getId(), nextLevel);
             
         } catch (Exception e) {
-            System.out.println("❌ Error escalating complaint " + complaint.getId() + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error escalating complaint {}: {}", complaint.getId(), e.getMessage(), e);
         }
     }
     
@@ -130,15 +574,17 @@ public class EscalationService {
     }
     
     private Date calculateNextEscalationTime(EscalationConfig config, String priority) {
-        // Use config time limit or priority-based time limit
-        int hoursToAdd = config.getTimeLimitHours() != null ? 
-            config.getTimeLimitHours() : getTimeLimitByPriority(priority);
-        
         Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.HOUR, hoursToAdd);
+        calendar.add(Calendar.HOUR, getHoursUntilNextEscalation(config, priority));
         return calendar.getTime();
     }
     
+    // Use config time limit or priority-based time limit
+    private int getHoursUntilNextEscalation(EscalationConfig config, String priority) {
+        return config.getTimeLimitHours() != null ? 
+            config.getTimeLimitHours() : getTimeLimitByPriority(priority);
+    }
+    
     @Transactional
     public void createEscalationHistory(Complaint complaint, EscalationConfig config, 
                                        Integer fromLevel, Integer toLevel, String priority) {
@@ -167,78 +613,71 @@ public class EscalationService {
     }
     
     private void sendEscalationNotifications(Complaint complaint, EscalationConfig config, String priority) {
-        System.out.println("📧 Sending escalation notifications...");
+        log.info("Sending escalation notifications...");
         
         try {
-            // Get user info
-            String userEmail = null;
-            String userName = null;
+            String userEmail = complaint.getUser() != null ? complaint.getUser().getEmail() : null;
+            String userName = complaint.getUser() != null ? complaint.getUser().getUsername() : null;
             
-            if (complaint.getUser() != null) {
-                userEmail = complaint.getUser().getEmail();
-                userName = complaint.getUser().getUsername();
-                System.out.println("📧 User: " + userName + " (" + userEmail + ")");
-            }
-            
-            // 1. Send email to USER
-            if (userEmail != null && !userEmail.trim().isEmpty()) {
+            for (EmailOutbox mail : buildEscalationNotifications(complaint.getId(), complaint.getTitle(),
+                    userEmail, userName, config, priority, complaint.getEscalatedAt())) {
                 try {
-                    emailService.sendUserEscalationNotification(
-                        userEmail.trim(),
-                        complaint.getId(),
-                        complaint.getTitle(),
-                        config.getLevel(),
-                        priority
-                    );
-                    System.out.println("✅ User email sent to: " + userEmail);
+                    emailService.enqueue(mail);
+                    log.info("Email queued for: {}", mail.getRecipient());
                 } catch (Exception e) {
-                    System.out.println("⚠️ Could not send email to user: " + e.getMessage());
+                    log.warn("Could not send email to {}: {}", mail.getRecipient(), e.getMessage());
                 }
             }
-            
-            // 2. Send to configured recipients
-            if (config.getRecipients() != null && !config.getRecipients().trim().isEmpty()) {
-                String[] recipients = config.getRecipients().split(",");
-                for (String recipient : recipients) {
-                    String trimmedRecipient = recipient.trim();
-                    if (trimmedRecipient.isEmpty()) continue;
-                    
-                    try {
-                        if (config.getLevel() == 1) { // Super Admin level
-                            emailService.sendSuperAdminEscalationNotification(
-                                trimmedRecipient,
-                                complaint.getId(),
-                                complaint.getTitle(),
-                                userName != null ? userName : "Unknown User",
-                                config.getLevel(),
-                                priority
-                            );
-                        } else { // Other admin levels
-                            emailService.sendAdminEscalationNotification(
-                                trimmedRecipient,
-                                complaint.getId(),
-                                complaint.getTitle(),
-                                userName != null ? userName : "Unknown User",
-                                config.getLevel(),
-                                config.getAssigneeRole()
-                            );
-                        }
-                        System.out.println("✅ Email sent to: " + trimmedRecipient);
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Could not send email to " + trimmedRecipient + ": " + e.getMessage());
-                    }
+        } catch (Exception e) {
+            log.warn("Error in notification system: {}", e.getMessage());
+        }
+    }
+    
+    // The user always hears about it; configured recipients get the super admin or admin mail by level
+    private List<EmailOutbox> buildEscalationNotifications(Long complaintId, String title, String userEmail,
+                                                           String userName, EscalationConfig config,
+                                                           String priority, Date escalatedAt) {
+        List<EmailOutbox> mails = new ArrayList<>();
+        
+        if (userEmail != null && !userEmail.trim().isEmpty()) {
+            mails.add(emailService.buildUserEscalationNotification(
+                userEmail.trim(), complaintId, title, config.getLevel(), priority, escalatedAt));
+        }
+        
+        if (config.getRecipients() != null && !config.getRecipients().trim().isEmpty()) {
+            String displayName = userName != null ? userName : "Unknown User";
+            for (String recipient : config.getRecipients().split(",")) {
+                String trimmedRecipient = recipient.trim();
+                if (trimmedRecipient.isEmpty()) continue;
+                
+                if (config.getLevel() == 1) { // Super Admin level
+                    mails.add(emailService.buildSuperAdminEscalationNotification(
+                        trimmedRecipient, complaintId, title, displayName, config.getLevel(), priority, escalatedAt));
+                } else { // Other admin levels
+                    mails.add(emailService.buildAdminEscalationNotification(
+                        trimmedRecipient, complaintId, title, displayName, config.getLevel(), config.getAssigneeRole(),
+                        escalatedAt));
                 }
             }
-            
-        } catch (Exception e) {
-            System.out.println("❌ Error in notification system: " + e.getMessage());
         }
+        return mails;
     }
     
     @Transactional
     public void initializeEscalation(Complaint complaint) {
         try {
-            System.out.println("🔧 Initializing escalation for complaint ID: " + complaint.getId());
+            log.info("Initializing escalation for complaint ID: {}", complaint.getId());
+            
+            // A duplicate escalates through its primary complaint; it gets no timer of its own
+            if (complaint.getDuplicateOf() != null) {
+                complaint.setEscalationLevel(0);
+                complaint.setNextEscalationTime(null);
+                complaintRepository.save(complaint);
+                updateEscalationTimer(complaint);
+                complaintViewService.complaintChanged(complaint.getId());
+                log.info("Complaint {} shares the escalation of complaint {}", complaint.getId(), complaint.getDuplicateOf());
+                return;
+            }
             
             // Get priority
             String priority = complaint.getPriority() != null ? complaint.getPriority().name() : "MEDIUM";
@@ -247,7 +686,7 @@ public class EscalationService {
             EscalationConfig firstConfig = escalationConfigRepository.findByLevel(1);
             
             if (firstConfig == null) {
-                System.out.println("⚠️ No escalation config found for level 1");
+                log.warn("No escalation config found for level 1");
                 return;
             }
             
@@ -264,14 +703,16 @@ public class EscalationService {
             complaint.setNextEscalationTime(calendar.getTime());
             
             complaintRepository.save(complaint);
+            updateEscalationTimer(complaint);
+            complaintViewService.complaintChanged(complaint.getId());
             
-            System.out.println("✅ Escalation initialized for complaint " + complaint.getId());
-            System.out.println("   Priority: " + priority);
-            System.out.println("   Will escalate after " + hoursToEscalation + " hours");
-            System.out.println("   First escalation at: " + calendar.getTime());
+            log.info("Escalation initialized for complaint {}", complaint.getId());
+            log.info("Priority: {}", priority);
+            log.info("Will escalate after {} hours", hoursToEscalation);
+            log.info("First escalation at: {}", calendar.getTime());
             
         } catch (Exception e) {
-            System.out.println("❌ Error initializing escalation: " + e.getMessage());
+            log.warn("Error initializing escalation: {}", e.getMessage());
         }
     }
     
@@ -315,9 +756,9 @@ public class EscalationService {
     
     @Transactional
     public void manuallyEscalateComplaint(Long complaintId, Integer targetLevel, String reason) {
-        System.out.println("\n👨‍💼 ========== MANUAL ESCALATION ==========");
-        System.out.println("Complaint ID: " + complaintId);
-        System.out.println("Target Level: " + targetLevel);
+        log.info("Manual escalation");
+        log.info("Complaint ID: {}", complaintId);
+        log.info("Target Level: {}", targetLevel);
         
         Complaint complaint = complaintRepository.findById(complaintId)
             .orElseThrow(() -> new RuntimeException("Complaint not found"));
@@ -328,6 +769,7 @@ public class EscalationService {
         }
         
         // Update complaint
+        complaintStatsService.recordEscalationChange(complaint.getEscalationLevel(), targetLevel);
         complaint.setEscalationLevel(targetLevel);
         complaint.setEscalatedAt(new Date());
         
@@ -343,6 +785,7 @@ public class EscalationService {
         complaint.setNextEscalationTime(null);
         
         complaintRepository.save(complaint);
+        updateEscalationTimer(complaint);
         
         // Create history
         EscalationHistory history = new EscalationHistory();
@@ -355,13 +798,13 @@ public class EscalationService {
         history.setRecipients(config.getRecipients());
         
         escalationHistoryRepository.save(history);
+        complaintViewService.complaintChanged(complaintId);
         
         // Send notifications
         String priority = complaint.getPriority() != null ? complaint.getPriority().name() : "MEDIUM";
         sendEscalationNotifications(complaint, config, priority);
         
-        System.out.println("✅ Manual escalation completed for complaint " + complaintId);
-        System.out.println("==========================================\n");
+        log.info("Manual escalation completed for complaint {}", complaintId);
     }
     
     @Transactional
@@ -380,14 +823,35 @@ public class EscalationService {
                     userEmail.trim(),
                     complaint.getId(),
                     complaint.getTitle(),
-                    resolvedBy
+                    resolvedBy,
+                    complaint.getResolvedAt()
                 );
-                System.out.println("✅ Resolution email sent to user: " + userEmail);
+                log.info("Resolution email queued for user: {}", userEmail);
+            } else {
+                log.warn("User email not found for complaint ID: {}", complaintId);
+            }
+        } catch (Exception e) {
+            log.warn("Error sending resolution email: {}", e.getMessage());
+        }
+    }
+    
+    // For an automatically linked duplicate that stays open when its primary is resolved
+    @Transactional
+    public void sendPrimaryResolvedEmail(Long complaintId, Long primaryId, Date primaryResolvedAt, String resolvedBy) {
+        try {
+            Complaint complaint = complaintRepository.findById(complaintId)
+                .orElseThrow(() -> new RuntimeException("Complaint not found"));
+            
+            String userEmail = complaint.getUser() != null ? complaint.getUser().getEmail() : null;
+            if (userEmail != null && !userEmail.trim().isEmpty()) {
+                emailService.sendPrimaryResolvedNotification(
+                    userEmail.trim(), complaint.getId(), complaint.getTitle(), primaryId, resolvedBy, primaryResolvedAt);
+                log.info("Primary-resolved email queued for user: {}", userEmail);
             } else {
-                System.out.println("⚠️ User email not found for complaint ID: " + complaintId);
+                log.warn("User email not found for complaint ID: {}", complaintId);
             }
         } catch (Exception e) {
-            System.out.println("❌ Error sending resolution email: " + e.getMessage());
+            log.warn("Error sending primary-resolved email: {}", e.getMessage());
         }
     }
     
@@ -420,6 +884,12 @@ public class EscalationService {
         stats.put("escalatedPriorityCounts", escalatedPriorityCounts);
         stats.put("escalationRate", totalComplaints > 0 ? 
             String.format("%.1f%%", (totalEscalated * 100.0 / totalComplaints)) : "0%");
+        stats.put("lastRun", lastRun);
+        Map<String, Object> timer = escalationWheel.getMetrics();
+        timer.put("loadedUntil", wheelLoadedUntil > 0 ? new Date(wheelLoadedUntil) : null);
+        timer.put("leader", escalationLeader);
+        stats.put("timer", timer);
+        stats.put("cluster", schedulerLeaseService.getStatus());
         
         return stats;
     }
@@ -0,0 +1,179 @@
+package com.grievance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Hierarchical timing wheel of complaint escalation deadlines, kept in memory
+ * so that nothing has to poll next_escalation_time. Four wheels of 64 slots;
+ * a slot on wheel L covers 64^L ticks, so with the default one-second tick
+ * the wheel spans about 194 days. Entries on an outer wheel are cascaded
+ * inwards as time reaches their slot and expire from wheel 0.
+ *
+ * schedule/cancel are O(1); advance costs one step per elapsed tick plus the
+ * entries it moves, and touches nothing else while the wheel is idle.
+ */
+@Component
+public class EscalationTimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final long spanTicks = 1L << (WHEEL_BITS * LEVELS);
+
+    @SuppressWarnings("unchecked")
+    private final Set<Long>[][] slots = new Set[LEVELS][WHEEL_SIZE];
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Deadlines already reached when scheduled; handed out on the next advance
+    private final Set<Long> overdue = new LinkedHashSet<>();
+
+    private long currentTick;
+    private long expired;
+
+    public EscalationTimingWheel(@Value("${app.escalation.check.interval:1000}") long tickMillis) {
+        this.tickMillis = Math.max(1L, tickMillis);
+        this.currentTick = System.currentTimeMillis() / this.tickMillis;
+        for (Set<Long>[] wheel : slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new HashSet<>();
+            }
+        }
+    }
+
+    /**
+     * Adds or moves a complaint's deadline. Returns false (and drops any
+     * earlier entry) when the deadline lies beyond the wheel's span.
+     */
+    public synchronized boolean schedule(Long complaintId, Date deadline) {
+        remove(complaintId);
+        // Round up, so an entry never fires before its deadline
+        long expiresAt = (deadline.getTime() + tickMillis - 1) / tickMillis;
+        if (expiresAt - currentTick >= spanTicks) {
+            return false;
+        }
+        place(complaintId, expiresAt);
+        return true;
+    }
+
+    public synchronized void cancel(Long complaintId) {
+        remove(complaintId);
+    }
+
+    /**
+     * Moves the wheel up to now and returns the complaints whose deadline has
+     * passed. Each entry is returned once.
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick < nowTick) {
+            currentTick++;
+            // Outer wheels first: a cascaded entry due this tick lands in the slot expired below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+                }
+            }
+            Set<Long> slot = slots[0][(int) (currentTick & WHEEL_MASK)];
+            if (!slot.isEmpty()) {
+                for (Long complaintId : slot) {
+                    entries.remove(complaintId);
+                    due.add(complaintId);
+                }
+                slot.clear();
+            }
+        }
+        due.addAll(overdue);
+        overdue.clear();
+        expired += due.size();
+        return due;
+    }
+
+    public synchronized void clear() {
+        for (Set<Long>[] wheel : slots) {
+            for (Set<Long> slot : wheel) {
+                slot.clear();
+            }
+        }
+        entries.clear();
+        overdue.clear();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public long getSpanMillis() {
+        return spanTicks * tickMillis;
+    }
+
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("scheduled", entries.size() + overdue.size());
+        metrics.put("expired", expired);
+        metrics.put("tickMillis", tickMillis);
+        int[] perLevel = new int[LEVELS];
+        for (Entry entry : entries.values()) {
+            perLevel[entry.level]++;
+        }
+        metrics.put("entriesPerWheel", perLevel);
+        Long next = entries.values().stream().map(e -> e.expiresAt).min(Long::compare).orElse(null);
+        metrics.put("nextDeadline", next != null ? new Date(next * tickMillis) : null);
+        return metrics;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void place(Long complaintId, long expiresAt) {
+        long delta = expiresAt - currentTick;
+        if (delta <= 0) {
+            overdue.add(complaintId);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((expiresAt >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        slots[level][index].add(complaintId);
+        entries.put(complaintId, new Entry(expiresAt, level, index));
+    }
+
+    private void remove(Long complaintId) {
+        overdue.remove(complaintId);
+        Entry entry = entries.remove(complaintId);
+        if (entry != null) {
+            slots[entry.level][entry.index].remove(complaintId);
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Set<Long> slot = slots[level][index];
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Long> moving = new ArrayList<>(slot);
+        slot.clear();
+        for (Long complaintId : moving) {
+            Entry entry = entries.remove(complaintId);
+            place(complaintId, entry.expiresAt);
+        }
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        final int level;
+        final int index;
+
+        Entry(long expiresAt, int level, int index) {
+            this.expiresAt = expiresAt;
+            this.level = level;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.grievance.service;
+
+import com.grievance.repository.BlobRefRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BlobStore on the local filesystem under app.storage.dir, one file per
+ * blob at ab/cd/abcd... (the SHA-256 in hex, sharded by its first two
+ * bytes so no directory grows too large).
+ *
+ * An upload is streamed into tmp/ while it is hashed, then moved into place
+ * with one atomic rename, so a blob file is either complete or absent and
+ * concurrent uploads never share a temp file. If the blob already exists the
+ * upload is discarded. Reference counts are rows in blob_refs.
+ *
+ * Garbage collection (every app.storage.gc-interval-ms, on one node) deletes
+ * blobs that have had no references for app.storage.gc-grace-ms, plus files
+ * without a blob_refs row of that age, which are left behind when an upload's
+ * transaction rolls back. Puts and deletes of the same blob are serialised on
+ * this node; nodes sharing the directory rely on the grace period, which a
+ * put that reuses an existing file restarts by touching it.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    private static final String GC_LEASE = "blob-gc";
+    private static final String TMP_DIR = "tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GC_BATCH_SIZE = 500;
+    private static final int LOCK_STRIPES = 64;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Autowired
+    private BlobRefRepository blobRefRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.dir:./uploads/blobs}")
+    private String storageDir;
+
+    @Value("${app.storage.gc-grace-ms:3600000}")
+    private long gcGraceMillis;
+
+    private Path root;
+    private Path tmp;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+    private volatile Map<String, Object> lastGc = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        tmp = root.resolve(TMP_DIR);
+        Files.createDirectories(tmp);
+        log.info("Blob store at {}", root);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size = 0;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String sha256 = hex(digest.digest());
+            Path target = pathOf(sha256);
+
+            boolean existing;
+            synchronized (lockFor(sha256)) {
+                // Counted first, so garbage collection cannot take the file from under us
+                Date now = new Date();
+                blobRefRepository.acquire(sha256, size, now);
+                // A reused file is touched, so the orphan sweep's age cutoff passes over it
+                // until our blob_refs row is committed
+                existing = touch(target, now.getTime());
+                while (!existing) {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                        break;
+                    } catch (FileAlreadyExistsException e) {
+                        existing = touch(target, now.getTime()); // stored by another node meanwhile
+                    }
+                }
+            }
+
+            if (existing) {
+                deduplicated.increment();
+                bytesSaved.add(size);
+                log.debug("Blob {} already stored ({} bytes)", sha256, size);
+            } else {
+                stored.increment();
+                bytesWritten.add(size);
+                log.debug("Stored blob {} ({} bytes)", sha256, size);
+            }
+            return new StoredBlob(sha256, size, existing);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource get(String sha256) throws IOException {
+        Path path = pathOf(sha256);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException("Blob not found: " + sha256);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(pathOf(sha256));
+    }
+
+    @Override
+    public void release(String sha256) {
+        if (blobRefRepository.release(sha256, new Date()) == 0) {
+            log.warn("Released blob {} had no references", sha256);
+        }
+    }
+
+    /**
+     * Deletes blobs unreferenced for longer than the grace period, orphaned
+     * files and abandoned temp files. Runs on the node holding the blob-gc lease.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.gc-interval-ms:3600000}",
+               initialDelayString = "${app.storage.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        if (!schedulerLeaseService.holds(GC_LEASE)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Date cutoff = new Date(started - gcGraceMillis);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int unreferenced = 0;
+        int orphans = 0;
+        int temps = 0;
+        try {
+            while (true) {
+                List<String> hashes = blobRefRepository.findUnreferencedBefore(cutoff, PageRequest.of(0, GC_BATCH_SIZE));
+                for (String sha256 : hashes) {
+                    synchronized (lockFor(sha256)) {
+                        Integer deleted = tx.execute(status -> blobRefRepository.deleteIfUnreferenced(sha256));
+                        if (deleted != null && deleted > 0 && Files.deleteIfExists(pathOf(sha256))) {
+                            unreferenced++;
+                        }
+                    }
+                }
+                if (hashes.size() < GC_BATCH_SIZE) {
+                    break;
+                }
+            }
+            orphans = deleteOrphans(cutoff.getTime());
+            temps = deleteOldFiles(tmp, cutoff.getTime());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Blob garbage collection failed, will retry: {}", e.getMessage());
+        }
+        collected.add(unreferenced + orphans);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", new Date(started));
+        report.put("unreferencedDeleted", unreferenced);
+        report.put("orphansDeleted", orphans);
+        report.put("tempFilesDeleted", temps);
+        report.put("elapsedMs", System.currentTimeMillis() - started);
+        lastGc = report;
+        if (unreferenced + orphans + temps > 0) {
+            log.info("Blob garbage collection: {} unreferenced, {} orphaned and {} temp file(s) deleted",
+                    unreferenced, orphans, temps);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        List<Object[]> summary = blobRefRepository.summarize();
+        if (!summary.isEmpty()) {
+            Object[] row = summary.get(0);
+            stats.put("blobs", ((Number) row[0]).longValue());
+            stats.put("bytes", ((Number) row[1]).longValue());
+            stats.put("references", ((Number) row[2]).longValue());
+        }
+        stats.put("stored", stored.sum());
+        stats.put("deduplicated", deduplicated.sum());
+        stats.put("bytesWritten", bytesWritten.sum());
+        stats.put("bytesSaved", bytesSaved.sum());
+        stats.put("collected", collected.sum());
+        stats.put("lastGc", lastGc);
+        return stats;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Path pathOf(String sha256) {
+        if (sha256 == null || sha256.length() != 64 || !sha256.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Not a SHA-256 blob name: " + sha256);
+        }
+        String name = sha256.toLowerCase(Locale.ROOT);
+        return root.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+
+    private Object lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    // Blob files older than the cutoff that blob_refs does not know
+    private int deleteOrphans(long cutoffMillis) throws IOException {
+        List<Path> candidates;
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            candidates = files
+                    .filter(path -> !path.startsWith(tmp) && path.getNameCount() - root.getNameCount() == 3)
+                    .filter(path -> olderThan(path, cutoffMillis))
+                    .collect(Collectors.toList());
+        }
+        int deleted = 0;
+        for (int from = 0; from < candidates.size(); from += GC_BATCH_SIZE) {
+            List<Path> chunk = candidates.subList(from, Math.min(candidates.size(), from + GC_BATCH_SIZE));
+            List<String> names = chunk.stream().map(path -> path.getFileName().toString()).collect(Collectors.toList());
+            Set<String> known = new HashSet<>(blobRefRepository.findExisting(names));
+            for (Path path : chunk) {
+                String sha256 = path.getFileName().toString();
+                if (known.contains(sha256)) {
+                    continue;
+                }
+                synchronized (lockFor(sha256)) {
+                    // Age again: a put may have reused the file since it was listed
+                    if (olderThan(path, cutoffMillis) && !blobRefRepository.existsById(sha256)
+                            && Files.deleteIfExists(path)) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private static int deleteOldFiles(Path dir, long cutoffMillis) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (olderThan(path, cutoffMillis) && Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // False if the file is not there
+    private static boolean touch(Path path, long millis) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(millis));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static boolean olderThan(Path path, long cutoffMillis) {
+        try {
+            return Files.isRegularFile(path) && Files.getLastModifiedTime(path).toMillis() < cutoffMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,219 @@
+package com.grievance.service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MinHash signatures of complaint texts with a locality-sensitive hash index
+ * over them, for finding near-duplicates without comparing against every
+ * open complaint.
+ *
+ * A text is lower-cased, reduced to letters and digits and cut into
+ * overlapping 5-character shingles. Its signature keeps, for each of 64 hash
+ * functions, the smallest hash over all shingles; two signatures agree in a
+ * position with probability equal to the Jaccard similarity of the shingle
+ * sets. The 64 positions are split into 16 bands of 4: texts that agree on
+ * a whole band share a bucket, which happens with probability
+ * 1 - (1 - s^4)^16 (about 0.65 at s = 0.5, 0.99 at s = 0.7). Candidates
+ * from shared buckets are then checked against the full signature.
+ *
+ * Signing a text costs one multiply-add per shingle and hash function; a
+ * query reads 16 buckets. Writes are serialised, queries are lock-free.
+ */
+public class MinHashIndex {
+
+    public static final int NUM_HASHES = 64;
+    static final int BANDS = 16;
+    static final int ROWS = NUM_HASHES / BANDS;
+    static final int SHINGLE_LENGTH = 5;
+    // Long descriptions are signed on their beginning; enough to tell two reports apart
+    static final int MAX_TEXT_LENGTH = 4000;
+
+    // Odd multipliers and offsets of the hash family, fixed so signatures are stable across restarts
+    private static final long[] MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] OFFSETS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1L;
+            OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    /** One indexed text and its estimated Jaccard similarity to the query. */
+    public static class Match {
+        private final long id;
+        private final double similarity;
+
+        Match(long id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public long getId() { return id; }
+        public double getSimilarity() { return similarity; }
+    }
+
+    /** Signature of the text, or null when it has no letters or digits. */
+    public static int[] signature(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = mix(hashShingle(normalized, start));
+            for (int i = 0; i < NUM_HASHES; i++) {
+                // Multiply-shift hashing: the top 31 bits of a*x + b
+                int h = (int) ((MULTIPLIERS[i] * shingle + OFFSETS[i]) >>> 33);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** Fraction of positions in which the signatures agree. */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /** Adds the text under this id, replacing any earlier signature. */
+    public synchronized void put(long id, int[] signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        signatures.clear();
+        buckets.clear();
+    }
+
+    public boolean contains(long id) {
+        return signatures.containsKey(id);
+    }
+
+    /**
+     * Indexed texts sharing a band with the signature whose estimated
+     * similarity is at least minSimilarity, most similar first.
+     */
+    public List<Match> query(int[] signature, double minSimilarity, int limit) {
+        Set<Long> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            Set<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Long id : bucket) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                int[] candidate = signatures.get(id);
+                if (candidate == null) {
+                    continue; // removed meanwhile
+                }
+                double similarity = similarity(signature, candidate);
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(id, similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed()
+                .thenComparingLong(Match::getId));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    // Lower case, letters and digits only, runs of anything else as one space
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        int length = Math.min(text.length(), MAX_TEXT_LENGTH);
+        StringBuilder normalized = new StringBuilder(length);
+        boolean space = true;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int end = normalized.length();
+        if (end > 0 && normalized.charAt(end - 1) == ' ') {
+            normalized.setLength(end - 1);
+        }
+        return normalized.toString();
+    }
+
+    private static long hashShingle(String text, int start) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a
+        int end = Math.min(text.length(), start + SHINGLE_LENGTH);
+        for (int i = start; i < end; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return mix(key);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
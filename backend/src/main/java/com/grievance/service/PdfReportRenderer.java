@@ -0,0 +1,186 @@
+package com.grievance.service;
+
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ReportJob;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Renders analytics and complaint tables with iText 5. PdfWriter writes each
+ * finished page to the output stream, and the complaint table runs in
+ * large-element mode (re-added every {@link #ROWS_PER_FLUSH} rows), so only
+ * the rows of the current chunk are held in memory.
+ */
+@Component
+public class PdfReportRenderer {
+
+    private static final int ROWS_PER_FLUSH = 200;
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+    private static final Font SECTION_FONT = new Font(Font.FontFamily.HELVETICA, 13, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD);
+    private static final Font CELL_FONT = new Font(Font.FontFamily.HELVETICA, 8);
+    private static final Font NOTE_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.ITALIC);
+
+    /**
+     * Writes the report. Returns the number of complaint rows rendered; rows
+     * beyond maxRows are skipped and the report says so.
+     */
+    public long render(ReportJob job, AnalyticsDTO analytics, Stream<ComplaintDTO> complaints,
+                       int maxRows, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4.rotate(), 30, 30, 30, 30);
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        document.add(new Paragraph("IT Grievance System - " + job.getType() + " report", TITLE_FONT));
+        document.add(new Paragraph("Generated " + dateFormat.format(new Date())
+                + "  |  data version " + job.getDataVersion(), NOTE_FONT));
+
+        addSummary(document, analytics);
+        addDistribution(document, "Status Distribution", "Status", analytics.getStatusDistribution());
+        addDistribution(document, "Priority Distribution", "Priority", analytics.getPriorityDistribution());
+        addDistribution(document, "Category Distribution", "Category", analytics.getCategoryDistribution());
+        addTrend(document, analytics.getDailyTrend());
+        addPerformance(document, "Department Performance", "Department", analytics.getDepartmentStats());
+        addPerformance(document, "Assignee Performance", "Assignee", analytics.getAssigneeStats());
+
+        long rows = 0;
+        if (complaints != null) {
+            rows = addComplaints(document, job, complaints, maxRows, dateFormat);
+            if (job.isTruncated()) {
+                document.add(new Paragraph("Output limited to the first " + maxRows
+                        + " complaints; narrow the filters to see the rest.", NOTE_FONT));
+            }
+        }
+
+        document.close();
+        return rows;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void addSummary(Document document, AnalyticsDTO analytics) throws DocumentException {
+        section(document, "Summary");
+        PdfPTable table = table(new String[] { "Metric", "Value" }, new float[] { 3, 2 });
+        row(table, "Total Complaints", analytics.getTotalComplaints());
+        row(table, "Resolved Complaints", analytics.getResolvedComplaints());
+        row(table, "Pending Complaints", analytics.getPendingComplaints());
+        row(table, "Escalated Complaints", analytics.getEscalatedComplaints());
+        row(table, "Resolution Rate", String.format("%.2f%%", analytics.getResolutionRate()));
+        row(table, "Average Resolution Time (hours)", String.format("%.2f", analytics.getAverageResolutionTime()));
+        document.add(table);
+    }
+
+    private void addDistribution(Document document, String title, String label,
+                                 Map<String, Long> distribution) throws DocumentException {
+        if (distribution == null || distribution.isEmpty()) {
+            return;
+        }
+        section(document, title);
+        PdfPTable table = table(new String[] { label, "Count" }, new float[] { 3, 2 });
+        new TreeMap<>(distribution).forEach((key, count) -> row(table, key, count));
+        document.add(table);
+    }
+
+    private void addTrend(Document document, List<AnalyticsDTO.DailyStat> trend) throws DocumentException {
+        if (trend == null || trend.isEmpty()) {
+            return;
+        }
+        section(document, "Daily Trend");
+        PdfPTable table = table(new String[] { "Date", "Complaints", "Resolved" }, new float[] { 2, 1, 1 });
+        for (AnalyticsDTO.DailyStat day : trend) {
+            row(table, day.getDate(), day.getComplaints(), day.getResolved());
+        }
+        document.add(table);
+    }
+
+    private void addPerformance(Document document, String title, String label,
+                                List<AnalyticsDTO.DepartmentStat> stats) throws DocumentException {
+        if (stats == null || stats.isEmpty()) {
+            return;
+        }
+        section(document, title);
+        PdfPTable table = table(
+                new String[] { label, "Assigned", "Resolved", "Resolution %", "Escalated", "Escalation %",
+                        "Median h", "P90 h" },
+                new float[] { 3, 1, 1, 1, 1, 1, 1, 1 });
+        for (AnalyticsDTO.DepartmentStat stat : stats) {
+            row(table, stat.getDepartment(), stat.getTotalAssigned(), stat.getResolved(),
+                    String.format("%.2f", stat.getResolutionRate()), stat.getEscalated(),
+                    String.format("%.2f", stat.getEscalationRate()),
+                    stat.getMedianResolutionHours(), stat.getP90ResolutionHours());
+        }
+        document.add(table);
+    }
+
+    private long addComplaints(Document document, ReportJob job, Stream<ComplaintDTO> complaints, int maxRows,
+                               SimpleDateFormat dateFormat) throws DocumentException {
+        section(document, "Complaints");
+        PdfPTable table = table(
+                new String[] { "ID", "Title", "Category", "Status", "Priority", "Assigned To", "Created",
+                        "Resolved", "Esc. Level" },
+                new float[] { 1, 5, 2, 2, 1.5f, 2, 2.5f, 2.5f, 1 });
+        table.setComplete(false);
+
+        long rows = 0;
+        Iterator<ComplaintDTO> it = complaints.iterator();
+        while (it.hasNext() && rows < maxRows) {
+            ComplaintDTO c = it.next();
+            row(table, c.getId(), c.getTitle(), c.getCategory(), c.getStatus(), c.getPriority(),
+                    c.getAssignedTo(),
+                    c.getCreatedAt() != null ? dateFormat.format(c.getCreatedAt()) : null,
+                    c.getResolvedAt() != null ? dateFormat.format(c.getResolvedAt()) : null,
+                    c.getEscalationLevel());
+            if (++rows % ROWS_PER_FLUSH == 0) {
+                // Writes the buffered rows out and drops them from the table
+                document.add(table);
+            }
+        }
+
+        job.setTruncated(it.hasNext());
+        table.setComplete(true);
+        document.add(table);
+        return rows;
+    }
+
+    private void section(Document document, String title) throws DocumentException {
+        Paragraph paragraph = new Paragraph(title, SECTION_FONT);
+        paragraph.setSpacingBefore(12);
+        paragraph.setSpacingAfter(6);
+        document.add(paragraph);
+    }
+
+    private PdfPTable table(String[] headers, float[] widths) throws DocumentException {
+        PdfPTable table = new PdfPTable(widths);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String header : headers) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, HEADER_FONT));
+            cell.setBackgroundColor(BaseColor.LIGHT_GRAY);
+            table.addCell(cell);
+        }
+        return table;
+    }
+
+    private void row(PdfPTable table, Object... values) {
+        for (Object value : values) {
+            table.addCell(new Phrase(value != null ? value.toString() : "", CELL_FONT));
+        }
+    }
+}
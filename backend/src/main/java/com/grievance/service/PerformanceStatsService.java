@@ -0,0 +1,209 @@
+package com.grievance.service;
+
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.model.Complaint;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Per-department and per-assignee performance, computed in one forward-only
+ * pass over a six-column projection. Each group keeps a few counters and a
+ * fixed-size hour histogram of time-to-resolve, so memory depends on the
+ * number of groups rather than the number of complaints. Median and p90 are
+ * read off the histogram at one-hour resolution.
+ *
+ * A complaint counts as resolved by its current status (RESOLVED or CLOSED),
+ * since reopening keeps its resolvedAt; that only dates the last resolution.
+ * The snapshot is recomputed by one thread at a time; others keep getting
+ * the previous one meanwhile.
+ */
+@Service
+@Slf4j
+public class PerformanceStatsService {
+
+    private static final String UNSPECIFIED_DEPARTMENT = "Unspecified";
+    private static final String UNASSIGNED = "Unassigned";
+    private static final long MILLIS_PER_HOUR = 60L * 60L * 1000L;
+
+    // One bucket per hour up to 90 days; the last bucket collects everything slower
+    private static final int HISTOGRAM_HOURS = 24 * 90;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.performance-cache-ttl:60000}")
+    private long cacheTtlMillis;
+
+    private volatile Snapshot cached;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public static class Snapshot {
+        private final List<AnalyticsDTO.DepartmentStat> departments;
+        private final List<AnalyticsDTO.DepartmentStat> assignees;
+        private final double averageResolutionHours;
+        private final long computedAt;
+
+        Snapshot(List<AnalyticsDTO.DepartmentStat> departments, List<AnalyticsDTO.DepartmentStat> assignees,
+                 double averageResolutionHours, long computedAt) {
+            this.departments = departments;
+            this.assignees = assignees;
+            this.averageResolutionHours = averageResolutionHours;
+            this.computedAt = computedAt;
+        }
+
+        public List<AnalyticsDTO.DepartmentStat> getDepartments() { return departments; }
+        public List<AnalyticsDTO.DepartmentStat> getAssignees() { return assignees; }
+        public double getAverageResolutionHours() { return averageResolutionHours; }
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = cached;
+        if (current != null && !isStale(current)) {
+            return current;
+        }
+        if (current == null) {
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            // Another thread is recomputing; the previous snapshot will do meanwhile
+            return current;
+        }
+        try {
+            current = cached;
+            if (current == null || isStale(current)) {
+                // The streamed query needs an open read-only transaction
+                TransactionTemplate tx = new TransactionTemplate(transactionManager);
+                tx.setReadOnly(true);
+                current = tx.execute(status -> compute());
+                cached = current;
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.computedAt > cacheTtlMillis;
+    }
+
+    private Snapshot compute() {
+        long started = System.currentTimeMillis();
+        Map<String, Accumulator> byDepartment = new HashMap<>();
+        Map<String, Accumulator> byAssignee = new HashMap<>();
+        Accumulator overall = new Accumulator();
+        long rows = 0;
+
+        try (Stream<Object[]> stream = complaintRepository.streamPerformanceRows()) {
+            Iterator<Object[]> it = stream.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                String department = row[0] != null ? (String) row[0] : UNSPECIFIED_DEPARTMENT;
+                String assignee = row[1] != null ? (String) row[1] : UNASSIGNED;
+                Date createdAt = (Date) row[2];
+                Date resolvedAt = (Date) row[3];
+                Integer level = (Integer) row[4];
+                Complaint.Status status = (Complaint.Status) row[5];
+
+                boolean resolved = status == Complaint.Status.RESOLVED || status == Complaint.Status.CLOSED;
+                long resolutionMillis = -1;
+                if (resolved && resolvedAt != null && createdAt != null) {
+                    resolutionMillis = Math.max(0, resolvedAt.getTime() - createdAt.getTime());
+                }
+                boolean escalated = level != null && level > 0;
+
+                byDepartment.computeIfAbsent(department, k -> new Accumulator()).add(resolved, resolutionMillis, escalated);
+                byAssignee.computeIfAbsent(assignee, k -> new Accumulator()).add(resolved, resolutionMillis, escalated);
+                overall.add(resolved, resolutionMillis, escalated);
+                rows++;
+            }
+        }
+
+        Snapshot snapshot = new Snapshot(toStats(byDepartment), toStats(byAssignee),
+                round(overall.averageHours()), System.currentTimeMillis());
+        log.info("Performance stats computed over {} complaints in {} ms ({} departments, {} assignees)",
+                rows, System.currentTimeMillis() - started, byDepartment.size(), byAssignee.size());
+        return snapshot;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private List<AnalyticsDTO.DepartmentStat> toStats(Map<String, Accumulator> groups) {
+        List<AnalyticsDTO.DepartmentStat> stats = new ArrayList<>(groups.size());
+        groups.forEach((name, acc) -> {
+            AnalyticsDTO.DepartmentStat stat = new AnalyticsDTO.DepartmentStat();
+            stat.setDepartment(name);
+            stat.setTotalAssigned(acc.total);
+            stat.setResolved(acc.resolved);
+            stat.setEscalated(acc.escalated);
+            stat.setResolutionRate(acc.total > 0 ? round(acc.resolved * 100.0 / acc.total) : 0.0);
+            stat.setEscalationRate(acc.total > 0 ? round(acc.escalated * 100.0 / acc.total) : 0.0);
+            stat.setMedianResolutionHours(acc.percentileHours(0.5));
+            stat.setP90ResolutionHours(acc.percentileHours(0.9));
+            stats.add(stat);
+        });
+
+        // Sort by total assigned (descending)
+        stats.sort((a, b) -> Long.compare(b.getTotalAssigned(), a.getTotalAssigned()));
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class Accumulator {
+        long total;
+        long resolved;
+        long escalated;
+        // Resolved complaints with a resolvedAt; CLOSED ones may lack it
+        long timed;
+        long resolutionMillisSum;
+        final int[] histogram = new int[HISTOGRAM_HOURS + 1];
+
+        void add(boolean isResolved, long resolutionMillis, boolean isEscalated) {
+            total++;
+            if (isEscalated) {
+                escalated++;
+            }
+            if (isResolved) {
+                resolved++;
+            }
+            if (resolutionMillis >= 0) {
+                timed++;
+                resolutionMillisSum += resolutionMillis;
+                histogram[(int) Math.min(resolutionMillis / MILLIS_PER_HOUR, HISTOGRAM_HOURS)]++;
+            }
+        }
+
+        double averageHours() {
+            return timed > 0 ? (double) resolutionMillisSum / timed / MILLIS_PER_HOUR : 0.0;
+        }
+
+        double percentileHours(double percentile) {
+            if (timed == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(percentile * timed);
+            long seen = 0;
+            for (int hour = 0; hour < histogram.length; hour++) {
+                seen += histogram[hour];
+                if (seen >= rank) {
+                    return hour;
+                }
+            }
+            return HISTOGRAM_HOURS;
+        }
+    }
+}
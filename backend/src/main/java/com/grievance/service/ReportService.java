@@ -0,0 +1,229 @@
+package com.grievance.service;
+
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintFilter;
+import com.grievance.dto.ReportJob;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous PDF reports. Jobs run on the bounded reports pool and write
+ * straight to a file under reports.dir. Finished files are keyed by
+ * (type, filters, data version), so asking for the same report again before
+ * any complaint changes returns the existing job instead of rendering twice.
+ *
+ * Jobs are held in memory and their files on local disk, so a job is only
+ * known to the node that started it. With several nodes the load balancer
+ * has to keep a user's /reports/** requests on one node (sticky sessions).
+ */
+@Service
+@Slf4j
+public class ReportService {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private PdfReportRenderer pdfReportRenderer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Bounded pool with ABORT rejection (app.executors.reports.*)
+    @Autowired
+    @Qualifier("reportsExecutor")
+    private Executor reportsExecutor;
+
+    @Value("${reports.dir:./reports}")
+    private String reportsDir;
+
+    @Value("${reports.max-complaint-rows:100000}")
+    private int maxComplaintRows;
+
+    @Value("${reports.retention-ms:86400000}")
+    private long retentionMillis;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> jobsByCacheKey = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path dir = Files.createDirectories(Paths.get(reportsDir));
+        // Jobs live in memory only, so files from a previous run can no longer be served
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(dir, "report-*")) {
+            for (Path leftover : leftovers) {
+                deleteQuietly(leftover.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns a job for the requested report: an existing one if the same
+     * report was already requested for the current data, otherwise a new
+     * queued job. Throws if the worker queue is full.
+     */
+    public ReportJob submit(ReportJob.Type type, ComplaintFilter filter) {
+        String dataVersion = currentDataVersion();
+        String cacheKey = type + "|" + describe(type, filter) + "|" + dataVersion;
+
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = jobsByCacheKey.compute(cacheKey, (key, existing) -> {
+            if (existing != null && existing.getStatus() != ReportJob.Status.FAILED) {
+                return existing;
+            }
+            created[0] = new ReportJob(UUID.randomUUID().toString(), type, filter, dataVersion, key);
+            return created[0];
+        });
+        if (created[0] == null) {
+            log.info("Report {} already requested (job {}, {})", cacheKey, job.getId(), job.getStatus());
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+
+        try {
+            reportsExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            jobsByCacheKey.remove(cacheKey, job);
+            throw new RuntimeException("Report queue is full, try again later");
+        }
+        log.info("Report job {} queued: {}", job.getId(), cacheKey);
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Removes finished jobs and their files once they pass reports.retention-ms.
+     */
+    @Scheduled(fixedDelayString = "${reports.cleanup-interval:3600000}")
+    public void cleanup() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        int removed = 0;
+        for (ReportJob job : new ArrayList<>(jobs.values())) {
+            Date completedAt = job.getCompletedAt();
+            if (completedAt != null && completedAt.getTime() < cutoff) {
+                jobs.remove(job.getId());
+                jobsByCacheKey.remove(job.getCacheKey(), job);
+                deleteQuietly(job.getFilePath());
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired report jobs", removed);
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void run(ReportJob job) {
+        long started = System.currentTimeMillis();
+        job.setStatus(ReportJob.Status.RUNNING);
+        Path target = Paths.get(reportsDir, "report-" + job.getId() + ".pdf");
+        Path partial = Paths.get(reportsDir, "report-" + job.getId() + ".pdf.part");
+
+        try {
+            AnalyticsDTO analytics = analyticsService.getDashboardAnalytics();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                if (job.getType() == ReportJob.Type.COMPLAINTS) {
+                    // The complaint stream must be consumed inside a read-only transaction
+                    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+                    tx.setReadOnly(true);
+                    Long rows = tx.execute(status -> renderWithComplaints(job, analytics, out));
+                    job.setRowCount(rows != null ? rows : 0L);
+                } else {
+                    pdfReportRenderer.render(job, analytics, null, 0, out);
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+
+            job.setFilePath(target.toString());
+            job.setFileSize(Files.size(target));
+            job.setCompletedAt(new Date());
+            job.setStatus(ReportJob.Status.DONE);
+            log.info("Report job {} finished in {} ms ({} rows, {} bytes)", job.getId(),
+                    System.currentTimeMillis() - started, job.getRowCount(), job.getFileSize());
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.getId(), e);
+            deleteQuietly(partial.toString());
+            job.setError(e.getMessage());
+            job.setCompletedAt(new Date());
+            job.setStatus(ReportJob.Status.FAILED);
+        }
+    }
+
+    private long renderWithComplaints(ReportJob job, AnalyticsDTO analytics, OutputStream out) {
+        ComplaintFilter filter = job.getFilter();
+        try (Stream<ComplaintDTO> complaints = complaintRepository.streamForExport(
+                filter.getStatus(),
+                filter.getPriority(),
+                filter.getCategory(),
+                filter.getAssignedTo(),
+                filter.getEscalationLevel(),
+                filter.getCreatedFrom(),
+                filter.getCreatedTo())) {
+            return pdfReportRenderer.render(job, analytics, complaints, maxComplaintRows, out);
+        } catch (com.itextpdf.text.DocumentException e) {
+            throw new RuntimeException("Error rendering report: " + e.getMessage(), e);
+        }
+    }
+
+    private String currentDataVersion() {
+        List<Object[]> rows = complaintRepository.findDataVersion();
+        Object[] row = rows.isEmpty() ? new Object[] { 0L, null } : rows.get(0);
+        long count = row[0] != null ? ((Number) row[0]).longValue() : 0L;
+        long lastUpdate = row[1] != null ? ((Date) row[1]).getTime() : 0L;
+        return count + "-" + lastUpdate;
+    }
+
+    private String describe(ReportJob.Type type, ComplaintFilter filter) {
+        if (type != ReportJob.Type.COMPLAINTS || filter == null) {
+            return "";
+        }
+        return "status=" + filter.getStatus()
+                + ",priority=" + filter.getPriority()
+                + ",category=" + filter.getCategory()
+                + ",assignedTo=" + filter.getAssignedTo()
+                + ",escalationLevel=" + filter.getEscalationLevel()
+                + ",from=" + (filter.getCreatedFrom() != null ? filter.getCreatedFrom().getTime() : null)
+                + ",to=" + (filter.getCreatedTo() != null ? filter.getCreatedTo().getTime() : null);
+    }
+
+    private void deleteQuietly(String path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", path, e.getMessage());
+        }
+    }
+}
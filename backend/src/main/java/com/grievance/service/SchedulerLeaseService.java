@@ -0,0 +1,185 @@
+package com.grievance.service;
+
+import com.grievance.model.SchedulerLease;
+import com.grievance.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named leases in the scheduler_lease table, so that with several backend
+ * nodes only one runs each singleton job (escalation, outbox delivery).
+ * A lease is taken with one conditional UPDATE when it is free or expired
+ * and renewed by its owner once a third of app.cluster.lease-ttl-ms has
+ * passed. If the owner dies, another node takes over when the lease runs
+ * out, i.e. within one lease period. Node clocks are assumed to agree to
+ * well within the ttl.
+ *
+ * With app.cluster.enabled=false (single node) every lease is held locally
+ * and the table is never touched.
+ */
+@Service
+@Slf4j
+public class SchedulerLeaseService {
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.cluster.lease-ttl-ms:30000}")
+    private long leaseTtlMillis;
+
+    private String nodeId;
+
+    // Local view per lease: expiry while held, otherwise when to try again
+    private final Map<String, Long> heldUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> nextAttemptAt = new ConcurrentHashMap<>();
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId != null && !configuredNodeId.trim().isEmpty()
+                ? configuredNodeId.trim()
+                : hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        if (clusterEnabled) {
+            log.info("Cluster mode: node {}, lease ttl {} ms", nodeId, leaseTtlMillis);
+        }
+    }
+
+    /**
+     * True if this node holds the named lease. Acquires or renews it when
+     * needed; otherwise answers from memory, so callers may ask on every tick.
+     */
+    public boolean holds(String name) {
+        if (!clusterEnabled) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Long until = heldUntil.get(name);
+        if (until != null && until - now > leaseTtlMillis * 2 / 3) {
+            return true;
+        }
+        if (until == null && now < nextAttemptAt.getOrDefault(name, 0L)) {
+            return false;
+        }
+        return tryAcquire(name, now);
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getLeaseTtlMillis() {
+        return leaseTtlMillis;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("clusterEnabled", clusterEnabled);
+        status.put("nodeId", nodeId);
+        status.put("leaseTtlMs", leaseTtlMillis);
+        Map<String, Object> held = new LinkedHashMap<>();
+        heldUntil.forEach((name, until) -> held.put(name, new Date(until)));
+        status.put("held", held);
+        return status;
+    }
+
+    /**
+     * Gives up held leases on shutdown so another node can take over at once
+     * instead of waiting for them to expire.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        if (!clusterEnabled) {
+            return;
+        }
+        for (String name : new ArrayList<>(heldUntil.keySet())) {
+            try {
+                inNewTransaction(() -> schedulerLeaseRepository.release(name, nodeId));
+                log.info("Released lease '{}'", name);
+            } catch (Exception e) {
+                log.warn("Could not release lease '{}': {}", name, e.getMessage());
+            }
+        }
+        heldUntil.clear();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private boolean tryAcquire(String name, long now) {
+        boolean wasHeld = heldUntil.containsKey(name);
+        long until = now + leaseTtlMillis;
+        try {
+            if (knownLeases.add(name)) {
+                inNewTransaction(() -> schedulerLeaseRepository.createIfAbsent(name));
+            }
+            // Own transaction: the lease must be visible to other nodes right away
+            Integer updated = inNewTransaction(() -> schedulerLeaseRepository.tryAcquire(name, nodeId, now, until));
+            if (updated != null && updated > 0) {
+                heldUntil.put(name, until);
+                if (!wasHeld) {
+                    log.info("Node {} acquired lease '{}'", nodeId, name);
+                }
+                return true;
+            }
+        } catch (Exception e) {
+            // Without a confirmed renewal the lease must be treated as lost
+            knownLeases.remove(name);
+            log.warn("Lease '{}' check failed: {}", name, e.getMessage());
+        }
+
+        heldUntil.remove(name);
+        if (wasHeld) {
+            log.warn("Node {} lost lease '{}'", nodeId, name);
+        }
+        // Try again when the current holder's lease would run out, or sooner
+        long retryAt = now + leaseTtlMillis / 3;
+        try {
+            Optional<SchedulerLease> current = schedulerLeaseRepository.findById(name);
+            if (current.isPresent() && current.get().getLeaseUntil() > now) {
+                retryAt = Math.min(retryAt, current.get().getLeaseUntil() + 1);
+            }
+        } catch (Exception e) {
+            log.debug("Could not read lease '{}': {}", name, e.getMessage());
+        }
+        nextAttemptAt.put(name, retryAt);
+        return false;
+    }
+
+    private <T> T inNewTransaction(Supplier<T> action) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx.execute(status -> action.get());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.grievance.service;
+
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.repository.ComplaintRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created/resolved counts per day, week or month. Daily buckets come from one
+ * GROUP BY query; days before today rarely change, so they are cached and only
+ * the current day is queried again on later requests. Week and month buckets
+ * are rolled up from the daily ones.
+ *
+ * A past day does change when a complaint on it is deleted, or resolved again
+ * (which moves it from its old resolved day to today); callers evict those
+ * days after commit. Cached days are also reloaded after
+ * analytics.trend-closed-day-ttl-ms, which bounds anything missed.
+ *
+ * In cluster mode ClusterSyncService passes on the complaints other nodes
+ * changed, and the days they are created or resolved on are dropped; if one
+ * of them is gone (deleted there) the whole cache is.
+ */
+@Service
+@Slf4j
+public class TrendService implements ClusterSyncListener {
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    // Timestamps are stored in UTC (hibernate.jdbc.time_zone), so days are UTC days
+    private static final ZoneOffset ZONE = ZoneOffset.UTC;
+    private static final int MAX_DAYS = 366;
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Value("${analytics.daily-trend-days:30}")
+    private int defaultDays;
+
+    @Value("${analytics.trend-closed-day-ttl-ms:600000}")
+    private long closedDayTtlMillis;
+
+    // Closed (past) days
+    private final Map<LocalDate, ClosedDay> closedDays = new ConcurrentHashMap<>();
+
+    private static final class ClosedDay {
+        final long[] counts; // [created, resolved]
+        final long loadedAt;
+
+        ClosedDay(long[] counts, long loadedAt) {
+            this.counts = counts;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public List<AnalyticsDTO.DailyStat> getDefaultTrend() {
+        return getTrend(Granularity.DAY, defaultDays);
+    }
+
+    public List<AnalyticsDTO.DailyStat> getTrend(Granularity granularity, int days) {
+        int window = Math.max(1, Math.min(days, MAX_DAYS));
+        LocalDate today = LocalDate.now(ZONE);
+        LocalDate start = today.minusDays(window - 1L);
+
+        // Only query from the first closed day not cached, or cached too long ago
+        long now = System.currentTimeMillis();
+        LocalDate queryFrom = today;
+        for (LocalDate day = start; day.isBefore(today); day = day.plusDays(1)) {
+            ClosedDay cached = closedDays.get(day);
+            if (cached == null || now - cached.loadedAt >= closedDayTtlMillis) {
+                queryFrom = day;
+                break;
+            }
+        }
+
+        Map<LocalDate, long[]> fresh = loadDays(queryFrom, today.plusDays(1));
+        Map<LocalDate, long[]> dayCounts = new HashMap<>(fresh);
+        for (LocalDate day = queryFrom; day.isBefore(today); day = day.plusDays(1)) {
+            closedDays.put(day, new ClosedDay(fresh.getOrDefault(day, new long[2]), now));
+        }
+        for (LocalDate day = start; day.isBefore(queryFrom); day = day.plusDays(1)) {
+            ClosedDay cached = closedDays.get(day);
+            if (cached != null) {
+                dayCounts.put(day, cached.counts);
+            }
+        }
+        closedDays.keySet().removeIf(day -> day.isBefore(today.minusDays(MAX_DAYS)));
+
+        // Roll daily buckets up to the requested granularity, oldest first
+        Map<String, long[]> buckets = new LinkedHashMap<>();
+        for (LocalDate day = start; !day.isAfter(today); day = day.plusDays(1)) {
+            long[] counts = dayCounts.getOrDefault(day, new long[2]);
+            long[] bucket = buckets.computeIfAbsent(bucketLabel(day, granularity), k -> new long[2]);
+            bucket[0] += counts[0];
+            bucket[1] += counts[1];
+        }
+
+        List<AnalyticsDTO.DailyStat> trend = new ArrayList<>();
+        buckets.forEach((label, counts) -> {
+            AnalyticsDTO.DailyStat stat = new AnalyticsDTO.DailyStat();
+            stat.setDate(label);
+            stat.setComplaints(counts[0]);
+            stat.setResolved(counts[1]);
+            trend.add(stat);
+        });
+        return trend;
+    }
+
+    /**
+     * Drops cached days touched by a change to historical data (a delete, or
+     * the previous resolvedAt of a complaint resolved again), once the
+     * caller's transaction has committed.
+     */
+    public void evict(Date... timestamps) {
+        AfterCommit.run(() -> evictDays(timestamps));
+    }
+
+    @Override
+    public void syncFromCluster(Set<Long> changedComplaintIds, Date since) {
+        if (closedDays.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedComplaintIds);
+        for (int from = 0; from < ids.size(); from += SYNC_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + SYNC_BATCH_SIZE));
+            List<Object[]> rows = complaintRepository.findTrendDaysByIdIn(chunk);
+            if (rows.size() < chunk.size()) {
+                // Deleted on another node: its days are no longer known
+                closedDays.clear();
+                return;
+            }
+            for (Object[] row : rows) {
+                evictDays((Date) row[1], (Date) row[2]);
+            }
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void evictDays(Date... timestamps) {
+        for (Date timestamp : timestamps) {
+            if (timestamp != null) {
+                closedDays.remove(timestamp.toInstant().atZone(ZONE).toLocalDate());
+            }
+        }
+    }
+
+    private Map<LocalDate, long[]> loadDays(LocalDate from, LocalDate toExclusive) {
+        Date fromDate = Date.from(from.atStartOfDay(ZONE).toInstant());
+        Date toDate = Date.from(toExclusive.atStartOfDay(ZONE).toInstant());
+
+        Map<LocalDate, long[]> result = new HashMap<>();
+        for (Object[] row : complaintRepository.countCreatedAndResolvedPerDay(fromDate, toDate)) {
+            LocalDate day = ((java.sql.Date) row[0]).toLocalDate();
+            result.put(day, new long[] { ((Number) row[1]).longValue(), ((Number) row[2]).longValue() });
+        }
+        log.debug("Loaded trend buckets {} .. {}: {} days with activity", from, toExclusive, result.size());
+        return result;
+    }
+
+    private String bucketLabel(LocalDate day, Granularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+            case MONTH:
+                return day.withDayOfMonth(1).toString().substring(0, 7);
+            default:
+                return day.toString();
+        }
+    }
+}
@@ -1,37 +0,0 @@
--- Create users table
-CREATE TABLE IF NOT EXISTS users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(100) NOT NULL,
-    username VARCHAR(50) UNIQUE NOT NULL,
-    email VARCHAR(100) UNIQUE NOT NULL,
-    password VARCHAR(255) NOT NULL,
-    role VARCHAR(20) NOT NULL DEFAULT 'USER',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
-
--- Create complaints table
-CREATE TABLE IF NOT EXISTS complaints (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    title VARCHAR(200) NOT NULL,
-    description TEXT NOT NULL,
-    category VARCHAR(50) NOT NULL,
-    status VARCHAR(20) DEFAULT 'OPEN',
-    priority VARCHAR(20) DEFAULT 'MEDIUM',
-    user_id BIGINT NOT NULL,
-    assigned_to VARCHAR(100),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    file_name VARCHAR(255),
-    file_path VARCHAR(255),
-    file_type VARCHAR(100),
-    file_size BIGINT,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
-
--- Insert default admin user (password: admin123)
-INSERT IGNORE INTO users (name, username, email, password, role) 
-VALUES ('Administrator', 'admin', 'admin@grievance.com', '$2a$10$nX5kHqS.guDvE.2drKQGx.mT2sWz9I3a8Jw5rY8X7N6vBcC1D2E3F4', 'ADMIN');
-
--- Insert test user (password: user123)
-INSERT IGNORE INTO users (name, username, email, password, role) 
-VALUES ('Test User', 'user', 'user@grievance.com', '$2a$10$nX5kHqS.guDvE.2drKQGx.mT2sWz9I3a8Jw5rY8X7N6vBcC1D2E3F4', 'USER');
\ No newline at end of file
@@ -0,0 +1,7 @@
+-- Outbox rows are claimed before they are sent, so that two nodes never send
+-- the same mail: a claim moves the row to SENDING with this batch's claim_id
+-- until claimed_until (epoch millis, like scheduler_lease). A claim that runs
+-- out (its node died mid-batch) makes the row due again.
+ALTER TABLE email_outbox ADD COLUMN claim_id VARCHAR(36);
+ALTER TABLE email_outbox ADD COLUMN claimed_until BIGINT;
+CREATE INDEX idx_email_outbox_claim ON email_outbox (claim_id);
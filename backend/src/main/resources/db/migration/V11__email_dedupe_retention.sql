@@ -0,0 +1,3 @@
+-- Dedupe keys now name one event (a resolution, an escalation) and are
+-- purged by age in the outbox cleanup job
+CREATE INDEX idx_email_dedupe_created ON email_dedupe (created_at);
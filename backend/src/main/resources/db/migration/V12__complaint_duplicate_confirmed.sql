@@ -0,0 +1,4 @@
+-- A duplicate link made by DuplicateDetectionService is only an estimate;
+-- an admin confirms it through PUT /complaints/{id}/duplicate-of. Only
+-- confirmed duplicates are resolved together with their primary.
+ALTER TABLE complaints ADD COLUMN duplicate_confirmed BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,95 @@
+-- Baseline: the schema the application had before migrations were introduced.
+-- Databases created by that setup are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip this script, so it must match
+-- them exactly; everything added since belongs in V2 and later.
+--
+-- That schema came from schema.sql, run on every start, followed by
+-- ddl-auto=update. The first part below is what schema.sql created on MySQL 8.
+-- Its ALTER TABLE ... ADD COLUMN IF NOT EXISTS is not MySQL syntax, and its
+-- escalation_history failed on the INT -> BIGINT foreign key; Hibernate
+-- created those columns and that table instead (second part).
+
+-- ---------- schema.sql ----------
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    email VARCHAR(100) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(20) DEFAULT 'USER',
+    enabled BOOLEAN DEFAULT true,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE complaints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description TEXT NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    status VARCHAR(20) DEFAULT 'PENDING',
+    priority VARCHAR(20) DEFAULT 'MEDIUM',
+    user_id BIGINT,
+    assigned_to VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE escalation_config (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    level INT NOT NULL UNIQUE,
+    time_limit_hours INT NOT NULL,
+    assignee_role VARCHAR(100) NOT NULL,
+    recipients VARCHAR(500) NOT NULL,
+    active BOOLEAN DEFAULT true
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO escalation_config (level, time_limit_hours, assignee_role, recipients) VALUES
+(1, 24, 'LEVEL1_SUPPORT', 'support@company.com'),
+(2, 48, 'LEVEL2_SUPPORT', 'support@company.com,manager@company.com'),
+(3, 72, 'MANAGER', 'manager@company.com,director@company.com'),
+(4, 96, 'DIRECTOR', 'director@company.com,vp@company.com'),
+(5, 120, 'SUPER_ADMIN', 'superadmin@company.com,ceo@company.com');
+
+-- ---------- ddl-auto=update ----------
+
+ALTER TABLE users ADD COLUMN name VARCHAR(255) NOT NULL;
+
+ALTER TABLE complaints ADD COLUMN department VARCHAR(255);
+ALTER TABLE complaints ADD COLUMN resolved_at DATETIME(6);
+ALTER TABLE complaints ADD COLUMN file_name VARCHAR(255);
+ALTER TABLE complaints ADD COLUMN file_path VARCHAR(255);
+ALTER TABLE complaints ADD COLUMN file_type VARCHAR(255);
+ALTER TABLE complaints ADD COLUMN file_size BIGINT;
+ALTER TABLE complaints ADD COLUMN escalation_level INTEGER;
+ALTER TABLE complaints ADD COLUMN escalated_at DATETIME(6);
+ALTER TABLE complaints ADD COLUMN escalation_recipients VARCHAR(255);
+ALTER TABLE complaints ADD COLUMN next_escalation_time DATETIME(6);
+ALTER TABLE complaints ADD COLUMN escalation_notes TEXT;
+
+CREATE TABLE comments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    complaint_id BIGINT,
+    user_id BIGINT,
+    content TEXT,
+    type VARCHAR(255),
+    is_admin_only BIT,
+    attachment_path VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    FOREIGN KEY (complaint_id) REFERENCES complaints (id),
+    FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE escalation_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    complaint_id BIGINT NOT NULL,
+    escalation_level INTEGER NOT NULL,
+    escalated_from VARCHAR(255),
+    escalated_to VARCHAR(255),
+    escalated_at DATETIME(6) NOT NULL,
+    reason VARCHAR(255),
+    recipients VARCHAR(255),
+    PRIMARY KEY (id),
+    FOREIGN KEY (complaint_id) REFERENCES complaints (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,3 @@
+-- schema.sql created escalation_config with an INT id, which ddl-auto=update
+-- never widened and ddl-auto=validate rejects.
+ALTER TABLE escalation_config MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
@@ -0,0 +1,46 @@
+-- Indexes for the filtered queries in ComplaintRepository and
+-- EscalationHistoryRepository. InnoDB appends the primary key to every
+-- secondary index, so the COUNT/GROUP BY queries and the escalation scans
+-- below are answered from the index alone.
+
+-- Rows from before the column had a default hold NULL. With 0 in its place
+-- the escalation scans below test escalation_level = 0 rather than
+-- IS NULL OR = 0, which MySQL can only serve from the first column of
+-- idx_complaints_escalation_scan.
+UPDATE complaints SET escalation_level = 0 WHERE escalation_level IS NULL;
+ALTER TABLE complaints MODIFY escalation_level INTEGER NOT NULL DEFAULT 0;
+
+-- Unfiltered keyset listing (findPageAfter) and the created half of
+-- countCreatedAndResolvedPerDay
+CREATE INDEX idx_complaints_created_id ON complaints (created_at, id);
+
+-- Cluster catch-up: complaints changed since the last sync (findIdsUpdatedSince)
+CREATE INDEX idx_complaints_updated_at ON complaints (updated_at);
+
+-- Listing filters. Each ends in (created_at, id) so findPageAfter and
+-- streamForExport read a filtered page in index order without a filesort.
+-- status:      findByStatus, countByStatus, countGroupedByStatus, findEscalatedComplaintsByStatus
+-- priority:    findByPriority, findDtosByPriority, countByPriority, countGroupedByPriority
+-- category:    findByCategory, countByCategory, countGroupedByCategory
+-- assigned_to: findByAssignedTo, findDtosByAssignedTo
+-- user_id:     findByUserId, findDtosByUserId (also serves the user foreign key)
+CREATE INDEX idx_complaints_status_created ON complaints (status, created_at, id);
+CREATE INDEX idx_complaints_priority_created ON complaints (priority, created_at, id);
+CREATE INDEX idx_complaints_category_created ON complaints (category, created_at, id);
+CREATE INDEX idx_complaints_assigned_created ON complaints (assigned_to, created_at, id);
+CREATE INDEX idx_complaints_user_created ON complaints (user_id, created_at, id);
+
+-- Resolved half of countCreatedAndResolvedPerDay
+CREATE INDEX idx_complaints_resolved_at ON complaints (resolved_at);
+
+-- findEscalatedComplaints, findEscalatedDtos, findAllEscalatedComplaints (ORDER BY escalated_at)
+CREATE INDEX idx_complaints_escalated_at ON complaints (escalated_at);
+
+-- findComplaintsForEscalation, findEscalationCandidates and findEscalationDeadlines:
+-- level 0, status IN (...), next_escalation_time range, so the
+-- status is checked in the index rather than on every row at level 0.
+-- countEscalated (level > 0) is a range on it.
+CREATE INDEX idx_complaints_escalation_scan ON complaints (escalation_level, status, next_escalation_time);
+
+-- findByComplaintIdOrderByEscalatedAtDesc (also serves the complaint foreign key)
+CREATE INDEX idx_escalation_history_complaint ON escalation_history (complaint_id, escalated_at);
@@ -0,0 +1,3 @@
+-- ComplaintSearchService catch-up in cluster mode: complaints commented on
+-- since the last sync (CommentRepository.findComplaintIdsCommentedSince)
+CREATE INDEX idx_comments_created_at ON comments (created_at);
@@ -0,0 +1,6 @@
+-- Near-duplicate complaints (DuplicateDetectionService) point at the open
+-- complaint they repeat and share its escalation. The index serves
+-- ComplaintRepository.findByDuplicateOfAndStatusInOrderByIdAsc when that
+-- complaint is resolved or deleted.
+ALTER TABLE complaints ADD COLUMN duplicate_of BIGINT NULL;
+CREATE INDEX idx_complaints_duplicate_of ON complaints (duplicate_of, status);
@@ -0,0 +1,18 @@
+-- Content-addressed attachment store (LocalBlobStore): one row per stored
+-- file, named by its SHA-256, with the number of complaints and comments
+-- pointing at it. The index serves the garbage collector's scan for blobs
+-- whose count dropped to 0 before the grace period.
+CREATE TABLE blob_refs (
+    sha256 VARCHAR(64) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at DATETIME(6) NOT NULL,
+    released_at DATETIME(6) NULL,
+    PRIMARY KEY (sha256),
+    KEY idx_blob_refs_unreferenced (ref_count, released_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Attachments uploaded from now on are blobs; file_path and attachment_path
+-- keep pointing at files stored before, which are still served from there
+ALTER TABLE complaints ADD COLUMN file_hash VARCHAR(64) NULL;
+ALTER TABLE comments ADD COLUMN attachment_hash VARCHAR(64) NULL;
@@ -0,0 +1,8 @@
+-- Comment timelines (CommentRepository.findTimelinePage and
+-- findPublicTimelinePage), keyset pages ordered by (created_at, id)
+-- descending. Users only see comments that are not admin-only, which is an
+-- equality on is_admin_only; admins see all of them. Each index ends in
+-- (created_at, id), so either page is read in index order without a filesort,
+-- and the admin index also serves the complaint foreign key.
+CREATE INDEX idx_comments_complaint_visibility_created ON comments (complaint_id, is_admin_only, created_at, id);
+CREATE INDEX idx_comments_complaint_created ON comments (complaint_id, created_at, id);
@@ -0,0 +1,37 @@
+-- Tables for the dashboard counters, the mail outbox and the scheduler leases.
+-- IF NOT EXISTS, so a database that already has them is left as it is.
+
+-- Running counters for the analytics dashboard (maintained by ComplaintStatsService)
+CREATE TABLE IF NOT EXISTS complaint_stats (
+    stat_key VARCHAR(120) NOT NULL,
+    stat_value BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Outgoing mail, written in the same transaction as the change that triggers it
+-- and drained by EmailOutboxDispatcher
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NOT NULL,
+    body TEXT NOT NULL,
+    dedupe_key VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_email_outbox_due (status, next_attempt_at),
+    KEY idx_email_outbox_dedupe (dedupe_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Singleton-job leases for multi-node deployments (maintained by SchedulerLeaseService)
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    name VARCHAR(64) NOT NULL,
+    owner VARCHAR(128) NOT NULL DEFAULT '',
+    lease_until BIGINT NOT NULL DEFAULT 0,
+    acquired_at BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
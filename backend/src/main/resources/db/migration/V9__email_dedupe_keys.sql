@@ -0,0 +1,21 @@
+-- Dedupe keys of queued mail, kept apart from email_outbox so that purging
+-- delivered rows does not let the same notification be queued again.
+-- EmailService claims a key with INSERT IGNORE before queueing its mail; the
+-- primary key makes that claim atomic across transactions and nodes.
+-- claim_id marks the keys claimed by one batched call.
+CREATE TABLE IF NOT EXISTS email_dedupe (
+    dedupe_key VARCHAR(255) NOT NULL,
+    claim_id VARCHAR(36) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (dedupe_key),
+    KEY idx_email_dedupe_claim (claim_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO email_dedupe (dedupe_key, claim_id, created_at)
+SELECT dedupe_key, 'migrated', MIN(created_at)
+FROM email_outbox
+WHERE dedupe_key IS NOT NULL
+GROUP BY dedupe_key;
+
+-- Keys are no longer looked up in email_outbox
+ALTER TABLE email_outbox DROP INDEX idx_email_outbox_dedupe;
@@ -0,0 +1,308 @@
+package com.grievance.service;
+
+import com.grievance.MainApplication;
+import com.grievance.dto.AnalyticsDTO;
+import com.grievance.model.Complaint;
+import com.grievance.model.Role;
+import com.grievance.model.User;
+import com.grievance.repository.ComplaintRepository;
+import com.grievance.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes (application contexts) on one shared H2 database with
+ * app.cluster.enabled: one lease holder at a time, state written on one node
+ * is seen on the other, and escalations and mails happen once however the
+ * two nodes' runs overlap. Both nodes send through one counting mail sender.
+ */
+class ClusterModeTest {
+
+    private static final long LEASE_TTL_MILLIS = 3000;
+    private static final long CLAIM_TTL_MILLIS = 2000;
+
+    private static final CountingMailSender MAIL = new CountingMailSender();
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void leaseIsHeldByOneNodeAndMovesWhenReleased() throws InterruptedException {
+        SchedulerLeaseService leasesA = nodeA.getBean(SchedulerLeaseService.class);
+        SchedulerLeaseService leasesB = nodeB.getBean(SchedulerLeaseService.class);
+
+        boolean heldByA = leasesA.holds("cluster-test");
+        boolean heldByB = leasesB.holds("cluster-test");
+        assertTrue(heldByA != heldByB, "exactly one node holds the lease");
+        assertEquals(heldByA, leasesA.holds("cluster-test"), "the holder keeps it");
+
+        SchedulerLeaseService holder = heldByA ? leasesA : leasesB;
+        SchedulerLeaseService other = heldByA ? leasesB : leasesA;
+        holder.releaseAll();
+
+        // The other node retries within a third of the ttl
+        long deadline = System.currentTimeMillis() + LEASE_TTL_MILLIS * 2;
+        boolean taken = false;
+        while (!taken && System.currentTimeMillis() < deadline) {
+            taken = other.holds("cluster-test");
+            if (!taken) {
+                Thread.sleep(100);
+            }
+        }
+        assertTrue(taken, "the other node takes the released lease");
+        assertFalse(holder.holds("cluster-test"));
+    }
+
+    @Test
+    void countersWrittenOnOneNodeAreReadOnTheOther() {
+        ComplaintStatsService statsA = nodeA.getBean(ComplaintStatsService.class);
+        ComplaintStatsService statsB = nodeB.getBean(ComplaintStatsService.class);
+        long totalBefore = statsB.getTotal();
+
+        Complaint complaint = new Complaint();
+        complaint.setCategory("CLUSTER");
+        statsA.recordCreated(complaint);
+
+        assertEquals(totalBefore + 1, statsB.getTotal());
+        assertEquals(1L, statsB.getCategoryDistribution().get("CLUSTER"));
+    }
+
+    @Test
+    void trendDaysChangedOnOneNodeAreEvictedOnTheOther() {
+        TrendService trendB = nodeB.getBean(TrendService.class);
+        String yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1).toString();
+        long before = createdOn(trendB.getTrend(TrendService.Granularity.DAY, 3), yesterday);
+
+        User owner = nodeA.getBean(UserRepository.class)
+                .save(new User("Cluster Owner", "cluster-owner", "cluster-owner@example.com", "not-a-hash", Role.USER));
+        Complaint complaint = new Complaint();
+        complaint.setTitle("Filed yesterday");
+        complaint.setDescription("Written on node A");
+        complaint.setCategory("CLUSTER");
+        complaint.setUser(owner);
+        complaint.setCreatedAt(Date.from(LocalDate.now(ZoneOffset.UTC).minusDays(1)
+                .atTime(12, 0).toInstant(ZoneOffset.UTC)));
+        nodeA.getBean(ComplaintRepository.class).save(complaint);
+
+        // Cached on node B until its sync passes the change on
+        assertEquals(before, createdOn(trendB.getTrend(TrendService.Granularity.DAY, 3), yesterday));
+        nodeB.getBean(ClusterSyncService.class).sync();
+        assertEquals(before + 1, createdOn(trendB.getTrend(TrendService.Granularity.DAY, 3), yesterday));
+    }
+
+    @Test
+    void escalationsAndMailsHappenOnceWhenBothNodesRun() throws InterruptedException {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        User owner = nodeA.getBean(UserRepository.class)
+                .save(new User("Escalation Owner", "escalation-owner", "escalation-owner@example.com", "not-a-hash", Role.USER));
+        List<Complaint> due = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Complaint complaint = new Complaint();
+            complaint.setTitle("Overdue " + i);
+            complaint.setDescription("Due for escalation");
+            complaint.setCategory("CLUSTER-ESCALATION");
+            complaint.setUser(owner);
+            complaint.setEscalationLevel(0);
+            complaint.setNextEscalationTime(new Date(System.currentTimeMillis() - 60_000));
+            due.add(complaint);
+        }
+        nodeA.getBean(ComplaintRepository.class).saveAll(due);
+
+        // Both nodes run; the lease moves to the other one while the first is mid-run
+        EscalationService escalationA = nodeA.getBean(EscalationService.class);
+        EscalationService escalationB = nodeB.getBean(EscalationService.class);
+        EscalationService first = holder("escalation", escalationA, escalationB);
+        first.checkAndEscalateComplaints();
+        expireLease(jdbc, "escalation", first == escalationA ? nodeB : nodeA);
+        (first == escalationA ? escalationB : escalationA).checkAndEscalateComplaints();
+        first.checkAndEscalateComplaints();
+        await(() -> jdbc.queryForObject("SELECT COUNT(*) FROM complaints WHERE category = 'CLUSTER-ESCALATION' "
+                + "AND escalation_level = 0", Long.class) == 0, "all complaints escalated");
+        Thread.sleep(500);
+
+        assertEquals(60L, jdbc.queryForObject("SELECT COUNT(*) FROM escalation_history h JOIN complaints c "
+                + "ON c.id = h.complaint_id WHERE c.category = 'CLUSTER-ESCALATION'", Long.class));
+        assertEquals(0L, jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT complaint_id, escalation_level "
+                + "FROM escalation_history GROUP BY complaint_id, escalation_level HAVING COUNT(*) > 1) d", Long.class));
+
+        // Slow SMTP: the outbox lease moves to the other node while a batch is being sent
+        long queued = jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE status = 'PENDING'", Long.class);
+        assertTrue(queued >= 120, "user and support mail per complaint");
+        MAIL.delayMillis = 25;
+        EmailOutboxDispatcher dispatcherA = nodeA.getBean(EmailOutboxDispatcher.class);
+        EmailOutboxDispatcher dispatcherB = nodeB.getBean(EmailOutboxDispatcher.class);
+        EmailOutboxDispatcher sender = holder("email-outbox", dispatcherA, dispatcherB);
+        EmailOutboxDispatcher other = sender == dispatcherA ? dispatcherB : dispatcherA;
+        sender.dispatch();
+        await(() -> jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE status = 'SENT'", Long.class) > 0,
+                "first mails sent");
+        expireLease(jdbc, "email-outbox", other == dispatcherA ? nodeA : nodeB);
+        other.dispatch();
+        await(() -> {
+            dispatcherA.dispatch();
+            dispatcherB.dispatch();
+            return jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE status <> 'SENT'", Long.class) == 0;
+        }, "all mails sent");
+        Thread.sleep(500);
+
+        assertEquals(queued, (long) jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE status = 'SENT'", Long.class));
+        assertEquals(0L, jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT dedupe_key FROM email_outbox "
+                + "GROUP BY dedupe_key HAVING COUNT(*) > 1) d", Long.class));
+        assertEquals(queued, MAIL.total());
+        MAIL.sends.forEach((mail, count) -> assertEquals(1, count.get(), "sent once: " + mail));
+        assertTrue((long) sender.getMetrics().get("sent") > 0 && (long) other.getMetrics().get("sent") > 0,
+                "the batch was handed over mid-run");
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /** The bean of the node holding the lease now. */
+    private static <T> T holder(String lease, T onA, T onB) {
+        return nodeA.getBean(SchedulerLeaseService.class).holds(lease) ? onA : onB;
+    }
+
+    // As if its holder had stalled past the ttl; the given node takes it over
+    private static void expireLease(JdbcTemplate jdbc, String lease, ConfigurableApplicationContext taker)
+            throws InterruptedException {
+        jdbc.update("UPDATE scheduler_lease SET lease_until = 0 WHERE name = ?", lease);
+        SchedulerLeaseService leases = taker.getBean(SchedulerLeaseService.class);
+        await(() -> leases.holds(lease), lease + " lease taken over");
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for: " + what);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static long createdOn(List<AnalyticsDTO.DailyStat> trend, String day) {
+        return trend.stream()
+                .filter(stat -> day.equals(stat.getDate()))
+                .mapToLong(AnalyticsDTO.DailyStat::getComplaints)
+                .sum();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        String dataDir = "target/test-data/" + nodeId;
+        return new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory().registerSingleton("mailSender", MAIL))
+                .run("--spring.datasource.url=jdbc:h2:mem:cluster-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--app.cluster.enabled=true",
+                        "--app.cluster.node-id=" + nodeId,
+                        "--app.cluster.lease-ttl-ms=" + LEASE_TTL_MILLIS,
+                        "--app.cluster.stats-ttl-ms=0",
+                        "--app.email.enabled=true",
+                        "--app.email.outbox.batch-size=10",
+                        "--app.email.outbox.claim-ttl-ms=" + CLAIM_TTL_MILLIS,
+                        "--app.escalation.batch-size=10",
+                        "--file.upload-dir=" + dataDir + "/uploads",
+                        "--app.storage.dir=" + dataDir + "/uploads/blobs",
+                        "--reports.dir=" + dataDir + "/reports",
+                        "--app.search.index-dir=" + dataDir + "/search-index");
+    }
+
+    /** Counts messages per recipient and subject; delayMillis makes each send slow. */
+    private static final class CountingMailSender implements JavaMailSender {
+        final Map<String, AtomicInteger> sends = new ConcurrentHashMap<>();
+        volatile long delayMillis;
+
+        long total() {
+            return sends.values().stream().mapToLong(AtomicInteger::get).sum();
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return new MimeMessage(Session.getInstance(new Properties()));
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage message) {
+            try {
+                Thread.sleep(delayMillis);
+                String key = Arrays.toString(message.getAllRecipients()) + " " + message.getSubject();
+                sends.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted");
+            } catch (MessagingException e) {
+                throw new MailSendException("Unreadable message", e);
+            }
+        }
+
+        @Override
+        public void send(MimeMessage... messages) {
+            for (MimeMessage message : messages) {
+                send(message);
+            }
+        }
+
+        @Override
+        public void send(MimeMessagePreparator preparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessagePreparator... preparators) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(SimpleMailMessage message) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(SimpleMailMessage... messages) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.grievance.service;
+
+import com.grievance.dto.ComplaintDTO;
+import com.grievance.dto.ComplaintFilter;
+import com.grievance.model.Complaint;
+import com.grievance.model.Role;
+import com.grievance.model.User;
+import com.grievance.repository.ComplaintRepository;
+import com.grievance.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The complaint lists are read through one joined projection query, so the
+ * number of SQL statements behind a list must not grow with its length.
+ * Each complaint has its own owner, which is where a per-row lazy load of
+ * the user would show up. Lists are read inside one transaction, as a
+ * request with open-in-view would.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ComplaintListQueryCountTest {
+
+    private static final String CATEGORY = "QUERYCOUNT";
+    private static final String ASSIGNEE = "querycount-agent";
+
+    @Autowired
+    private ComplaintService complaintService;
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int seeded;
+
+    @Test
+    void listStatementCountDoesNotDependOnTheNumberOfComplaints() {
+        seed(10);
+        Map<String, Long> withTen = countStatements(10);
+
+        seed(990);
+        Map<String, Long> withThousand = countStatements(1000);
+
+        assertEquals(withTen, withThousand);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /** Statements each list needs, after checking it returned all expected rows. */
+    private Map<String, Long> countStatements(int expected) {
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setCategory(CATEGORY);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("page", count(() -> complaintService.getComplaintsPage(filter, null, 500).getItems(),
+                Math.min(expected, 500)));
+        counts.put("assignedTo", count(() -> complaintService.getComplaintsByAssignedTo(ASSIGNEE), expected));
+        counts.put("escalated", count(() -> onlySeeded(complaintService.getEscalatedComplaints()), expected));
+        counts.put("highPriority", count(() -> onlySeeded(complaintService.getHighPriorityComplaints()), expected));
+        return counts;
+    }
+
+    private long count(Supplier<List<?>> list, int expectedRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<?> rows = new TransactionTemplate(transactionManager).execute(status -> list.get());
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(expectedRows, rows.size());
+        return statements;
+    }
+
+    private List<ComplaintDTO> onlySeeded(List<ComplaintDTO> complaints) {
+        List<ComplaintDTO> seededRows = new ArrayList<>();
+        for (ComplaintDTO complaint : complaints) {
+            if (CATEGORY.equals(complaint.getCategory())) {
+                seededRows.add(complaint);
+            }
+        }
+        return seededRows;
+    }
+
+    private void seed(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int n = seeded + i;
+            users.add(new User("Query Count " + n, "querycount" + n, "querycount" + n + "@example.com",
+                    "not-a-hash", Role.USER));
+        }
+        users = userRepository.saveAll(users);
+
+        List<Complaint> complaints = new ArrayList<>();
+        for (User user : users) {
+            Complaint complaint = new Complaint();
+            complaint.setTitle("Complaint of " + user.getUsername());
+            complaint.setDescription("Seeded by ComplaintListQueryCountTest");
+            complaint.setCategory(CATEGORY);
+            complaint.setPriority(Complaint.Priority.HIGH);
+            complaint.setAssignedTo(ASSIGNEE);
+            complaint.setEscalationLevel(1);
+            complaint.setEscalatedAt(new Date());
+            complaint.setUser(user);
+            complaints.add(complaint);
+        }
+        complaintRepository.saveAll(complaints);
+        seeded += count;
+    }
+}